@@ -0,0 +1,78 @@
+package com.example.expense_ai_backend.benchmark;
+
+import com.example.expense_ai_backend.admission.ConcurrencyLimiter;
+import com.example.expense_ai_backend.admission.UserRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an admission decision: a permit from a user's token bucket among 10,000 users, both
+ * granted (unlimited rate) and refused (empty buckets), and a slot from the concurrency limiter.
+ * Run with {@code ./gradlew jmh -PjmhInclude=AdmissionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AdmissionBenchmark {
+
+    private static final int USERS = 10_000;
+
+    String[] users;
+
+    UserRateLimiter granting;
+
+    UserRateLimiter refusing;
+
+    ConcurrencyLimiter requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = "user-" + i;
+        }
+        granting = new UserRateLimiter(1e9, 1_000_000, USERS);
+        refusing = new UserRateLimiter(0.001, 1, USERS);
+        for (String user : users) {
+            granting.tryAcquire(user);
+            refusing.tryAcquire(user);
+        }
+        requests = new ConcurrencyLimiter(1_000, TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Benchmark
+    public long rateLimitGranted() {
+        return granting.tryAcquire(users[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public long rateLimitRefused() {
+        return refusing.tryAcquire(users[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public boolean concurrencySlot() {
+        boolean admitted = requests.tryAcquire();
+        if (admitted) {
+            requests.release();
+        }
+        return admitted;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.expense_ai_backend.benchmark;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Synthetic expenses for the benchmarks. Users and categories are drawn either uniformly or from
+ * a Zipf distribution, where a handful of heavy users and categories own most rows, as in
+ * production data.
+ */
+public class ExpenseDataset {
+
+    public static final String UNIFORM = "uniform";
+    public static final String ZIPF = "zipf";
+
+    private static final int USER_COUNT = 1_000;
+    private static final int CATEGORY_COUNT = 20;
+    // Description words; searches for their prefixes hit a few percent of the rows each
+    private static final String[] MERCHANTS = {"amazon", "uber", "starbucks", "walmart", "netflix", "spotify",
+            "shell", "target", "costco", "airbnb", "lyft", "doordash", "apple", "ikea", "zara", "delta",
+            "marriott", "chipotle", "walgreens", "verizon"};
+    private static final String[] ITEMS = {"order", "ride", "coffee", "groceries", "subscription", "fuel",
+            "lunch", "tickets", "hotel", "refill"};
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final int size;
+    private final String[] users = names("user-", USER_COUNT);
+    private final String[] categories = names("category-", CATEGORY_COUNT);
+    private final double[] userWeights;
+    private final double[] categoryWeights;
+    // Ids and owners of the populated rows; ids are not consecutive once the repository is sharded
+    private final long[] ids;
+    private final String[] owners;
+
+    public ExpenseDataset(int size, String distribution) {
+        this.size = size;
+        double exponent = ZIPF.equals(distribution) ? 1.0 : 0.0;
+        this.userWeights = cumulativeWeights(USER_COUNT, exponent);
+        this.categoryWeights = cumulativeWeights(CATEGORY_COUNT, exponent);
+        this.ids = new long[size];
+        this.owners = new String[size];
+    }
+
+    public ExpenseRepository populate(ExpenseRepository repository) {
+        for (int i = 0; i < size; i++) {
+            Expense saved = repository.save(expense(null));
+            ids[i] = saved.getId();
+            owners[i] = saved.getUserId();
+        }
+        return repository;
+    }
+
+    /**
+     * A fresh expense for an existing id (or a new one when {@code id} is null); replacing rather
+     * than growing keeps the store at its parameterized size during write benchmarks.
+     */
+    public Expense expense(Long id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Expense(
+                id,
+                MERCHANTS[random.nextInt(MERCHANTS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)],
+                BigDecimal.valueOf(random.nextLong(1, 100_000), 2),
+                category(),
+                START.plusMinutes(random.nextLong(2 * 365 * 24 * 60)),
+                user()
+        );
+    }
+
+    /**
+     * A fresh version of a random existing expense, keeping its owner like an edit through the API.
+     */
+    public Expense update() {
+        int row = ThreadLocalRandom.current().nextInt(size);
+        return expense(ids[row]).withUserId(owners[row]);
+    }
+
+    public long id() {
+        return ids[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    /**
+     * A search query: the first letters of a merchant and of an item, e.g. "star cof".
+     */
+    public String searchQuery() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String merchant = MERCHANTS[random.nextInt(MERCHANTS.length)];
+        String item = ITEMS[random.nextInt(ITEMS.length)];
+        return merchant.substring(0, Math.min(4, merchant.length())) + " " + item.substring(0, 3);
+    }
+
+    public String user() {
+        return users[sample(userWeights)];
+    }
+
+    public String category() {
+        return categories[sample(categoryWeights)];
+    }
+
+    private static int sample(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static double[] cumulativeWeights(int count, double exponent) {
+        double[] weights = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            weights[i] = total;
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private static String[] names(String prefix, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = prefix + i;
+        }
+        return names;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.expense_ai_backend.benchmark;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-operation cost of the repository hot paths at different store sizes and key skews.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseRepositoryBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    int storeSize;
+
+    @Param({ExpenseDataset.UNIFORM, ExpenseDataset.ZIPF})
+    String distribution;
+
+    ExpenseDataset dataset;
+
+    ExpenseRepository repository;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataset = new ExpenseDataset(storeSize, distribution);
+        repository = dataset.populate(new ExpenseRepository());
+    }
+
+    @Benchmark
+    public Expense save() {
+        return repository.save(dataset.expense(dataset.id()));
+    }
+
+    @Benchmark
+    public Optional<Expense> findById() {
+        return repository.findById(dataset.id());
+    }
+
+    @Benchmark
+    public List<Expense> findByUserId() {
+        return repository.findByUserId(dataset.user());
+    }
+
+    @Benchmark
+    public List<Expense> findByCategory() {
+        return repository.findByCategory(dataset.category());
+    }
+}
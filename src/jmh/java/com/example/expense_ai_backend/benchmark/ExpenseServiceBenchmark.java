@@ -0,0 +1,135 @@
+package com.example.expense_ai_backend.benchmark;
+
+import com.example.expense_ai_backend.aggregate.CategoryAggregateStore;
+import com.example.expense_ai_backend.aggregate.CategoryQuantileStore;
+import com.example.expense_ai_backend.anomaly.ExpenseAnomalyDetector;
+import com.example.expense_ai_backend.aggregate.ExpenseRollupStore;
+import com.example.expense_ai_backend.cache.ExpenseResultCache;
+import com.example.expense_ai_backend.categorize.ExpenseCategorizer;
+import com.example.expense_ai_backend.dto.CategoryPredictionDTO;
+import com.example.expense_ai_backend.dto.CategoryQuantilesDTO;
+import com.example.expense_ai_backend.dto.CategorySummaryDTO;
+import com.example.expense_ai_backend.dto.ExpensePageDTO;
+import com.example.expense_ai_backend.dto.ExpensePageRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.dto.ExpenseSearchRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesPointDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesRequestDTO;
+import com.example.expense_ai_backend.feed.ExpenseChangeFeed;
+import com.example.expense_ai_backend.feed.FeedProperties;
+import com.example.expense_ai_backend.idempotency.IdempotencyCache;
+import com.example.expense_ai_backend.idempotency.IdempotencyProperties;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.search.ExpenseSearchIndex;
+import com.example.expense_ai_backend.service.Impl.ExpenseServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level read paths. {@code convertToDTO} is private, so it is measured through a single
+ * lookup and through a 100-row page, which convert one and 100 expenses respectively.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseServiceBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final List<Double> QUANTILES = List.of(0.5, 0.95, 0.99);
+
+    @Param({"10000", "1000000", "10000000"})
+    int storeSize;
+
+    @Param({ExpenseDataset.UNIFORM, ExpenseDataset.ZIPF})
+    String distribution;
+
+    ExpenseDataset dataset;
+
+    ExpenseServiceImpl service;
+
+    ExpensePageRequestDTO pageRequest;
+
+    ExpenseTimeSeriesRequestDTO timeSeriesRequest;
+
+    ExpenseSearchRequestDTO searchRequest;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataset = new ExpenseDataset(storeSize, distribution);
+        CategoryAggregateStore aggregates = new CategoryAggregateStore();
+        ExpenseRollupStore rollups = new ExpenseRollupStore();
+        CategoryQuantileStore quantiles = new CategoryQuantileStore(0.01, 2048);
+        ExpenseSearchIndex searchIndex = new ExpenseSearchIndex();
+        ExpenseCategorizer categorizer = new ExpenseCategorizer();
+        ExpenseAnomalyDetector anomalyDetector = new ExpenseAnomalyDetector(3.0, 5);
+        ExpenseRepository repository = dataset.populate(
+                new ExpenseRepository(List.of(aggregates, rollups, quantiles, searchIndex, categorizer, anomalyDetector)));
+        // Caching disabled: these benchmarks measure building results, not serving them from cache
+        service = new ExpenseServiceImpl(repository, aggregates, rollups, quantiles, searchIndex, categorizer, anomalyDetector,
+                new ExpenseChangeFeed(new FeedProperties(), false), new ExpenseResultCache(repository.changeCounters(), 0),
+                new IdempotencyCache(new IdempotencyProperties()));
+        pageRequest = new ExpensePageRequestDTO();
+        pageRequest.setLimit(PAGE_SIZE);
+        // Two years by month, every category: the dashboard query rollups exist for
+        timeSeriesRequest = new ExpenseTimeSeriesRequestDTO();
+        timeSeriesRequest.setFrom(LocalDate.of(2024, 1, 1));
+        timeSeriesRequest.setTo(LocalDate.of(2026, 1, 1));
+        searchRequest = new ExpenseSearchRequestDTO();
+    }
+
+    @Benchmark
+    public List<CategorySummaryDTO> getCategorySummary() {
+        return service.getCategorySummary();
+    }
+
+    // Merges the 16 user-striped partial sketches of every category
+    @Benchmark
+    public List<CategoryQuantilesDTO> getCategoryQuantiles() {
+        return service.getCategoryQuantiles(null, null, QUANTILES);
+    }
+
+    @Benchmark
+    public ExpenseResponseDTO convertOne() {
+        return service.getExpenseById(dataset.id());
+    }
+
+    @Benchmark
+    public ExpensePageDTO convertPage() {
+        return service.getExpensePage(dataset.user(), null, pageRequest);
+    }
+
+    @Benchmark
+    public List<ExpenseTimeSeriesPointDTO> monthlyTimeSeries() {
+        timeSeriesRequest.setUserId(dataset.user());
+        return service.getTimeSeries(timeSeriesRequest);
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> searchDescriptions() {
+        searchRequest.setQ(dataset.searchQuery());
+        return service.searchExpenses(searchRequest);
+    }
+
+    @Benchmark
+    public List<CategoryPredictionDTO> suggestCategories() {
+        return service.suggestCategories(dataset.expense(null).getDescription(), 3);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.expense_ai_backend.benchmark;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.persistence.ExpenseJournal;
+import com.example.expense_ai_backend.repository.ExpenseQuery;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.repository.MapExpenseStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent readers and writers on one repository. Each group runs its methods on separate
+ * threads at the same time, so read results include contention from the writers and vice versa.
+ * {@code shards} partitions the repository by user to show how write throughput scales.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MixedWorkloadBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "1000000"})
+    int storeSize;
+
+    @Param({ExpenseDataset.UNIFORM, ExpenseDataset.ZIPF})
+    String distribution;
+
+    @Param({"1", "4", "16"})
+    int shards;
+
+    ExpenseDataset dataset;
+
+    ExpenseRepository repository;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataset = new ExpenseDataset(storeSize, distribution);
+        repository = dataset.populate(
+                new ExpenseRepository(List.of(), ExpenseJournal.NONE, MapExpenseStore::new, shards));
+    }
+
+    // 90/10 read/write: point reads and user pages against in-place updates
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(6)
+    public Optional<Expense> readMostlyFindById() {
+        return repository.findById(dataset.id());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public List<Expense> readMostlyUserPage() {
+        return repository.findPage(ExpenseQuery.builder().userId(dataset.user()).limit(PAGE_SIZE).build());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Expense readMostlyUpdate() {
+        return repository.save(dataset.update());
+    }
+
+    // 50/50 read/write
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(2)
+    public Optional<Expense> writeHeavyFindById() {
+        return repository.findById(dataset.id());
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(2)
+    public Expense writeHeavyUpdate() {
+        return repository.save(dataset.update());
+    }
+}
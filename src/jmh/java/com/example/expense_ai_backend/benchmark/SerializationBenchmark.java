@@ -0,0 +1,126 @@
+package com.example.expense_ai_backend.benchmark;
+
+import com.example.expense_ai_backend.codec.ExpenseBinaryWriter;
+import com.example.expense_ai_backend.codec.ExpenseJsonWriter;
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a listing of {@code rows} expenses to the response stream: the previous path
+ * (a DTO copy per expense, then reflective Jackson), {@link ExpenseJsonWriter} over the same DTOs
+ * and straight from the stored expenses, and {@link ExpenseBinaryWriter}.
+ *
+ * The {@code bytes} counter is output bytes per second. For allocations per listing run with the
+ * GC profiler and divide {@code gc.alloc.rate.norm} by {@code rows}:
+ * {@code ./gradlew jmh -PjmhInclude=SerializationBenchmark -PjmhProfilers=gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000"})
+    int rows;
+
+    List<Expense> expenses;
+
+    List<ExpenseResponseDTO> dtos;
+
+    ObjectMapper objectMapper;
+
+    /**
+     * Counts the bytes written and drops them, so only serialization is measured.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output extends OutputStream {
+
+        public long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void populate() {
+        ExpenseRepository repository = new ExpenseDataset(rows, ExpenseDataset.UNIFORM).populate(new ExpenseRepository());
+        expenses = repository.findAll();
+        dtos = expenses.stream().map(SerializationBenchmark::toDTO).toList();
+        objectMapper = JsonMapper.builder().build();
+    }
+
+    @Benchmark
+    public void jacksonWithDtoCopies(Output out) {
+        List<ExpenseResponseDTO> copies = expenses.stream().map(SerializationBenchmark::toDTO).toList();
+        objectMapper.writeValue(out, copies);
+    }
+
+    @Benchmark
+    public void jsonWriterFromDtos(Output out) throws IOException {
+        ExpenseJsonWriter writer = new ExpenseJsonWriter(out);
+        writer.beginArray();
+        for (ExpenseResponseDTO dto : dtos) {
+            writer.write(dto);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    @Benchmark
+    public void jsonWriterFromExpenses(Output out) throws IOException {
+        ExpenseJsonWriter writer = new ExpenseJsonWriter(out);
+        writer.beginArray();
+        for (Expense expense : expenses) {
+            writer.write(expense);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    @Benchmark
+    public void binaryWriterFromExpenses(Output out) throws IOException {
+        ExpenseBinaryWriter writer = new ExpenseBinaryWriter(out);
+        writer.writeHeader();
+        for (Expense expense : expenses) {
+            writer.write(expense);
+        }
+        writer.writeEnd();
+        writer.flush();
+    }
+
+    private static ExpenseResponseDTO toDTO(Expense expense) {
+        return new ExpenseResponseDTO(expense.getId(), expense.getDescription(), expense.getAmount(),
+                expense.getCategory(), expense.getDate(), expense.getUserId(), expense.getVersion());
+    }
+}
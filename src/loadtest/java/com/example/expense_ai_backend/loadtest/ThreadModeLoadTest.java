@@ -0,0 +1,253 @@
+package com.example.expense_ai_backend.loadtest;
+
+import com.example.expense_ai_backend.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares platform and virtual request threads under load: starts the packaged application once
+ * per thread mode, and at each connection count drives it closed-loop (every connection sends its
+ * next request as soon as the last one answers), then prints throughput and latency percentiles.
+ * Run with {@code ./gradlew loadTest}; see README, "Virtual Threads".
+ *
+ * The mix is mostly keyset-paged reads by category plus {@code writePercent} creates. The server
+ * runs with persistence on and fsync ALWAYS, so each create holds its request thread until its
+ * group commit is durable: the blocking work that exhausts a fixed pool of platform threads long
+ * before the CPU is busy. The client runs every connection on a virtual thread of its own.
+ *
+ * Settings are system properties: {@code loadtest.connections} (default 1000,5000,10000),
+ * {@code loadtest.modes} (platform,virtual), {@code loadtest.duration} and
+ * {@code loadtest.warmup} in seconds (30 and 10), {@code loadtest.writePercent} (10),
+ * {@code loadtest.port} (18061) and {@code loadtest.output}, the directory for server logs.
+ */
+public final class ThreadModeLoadTest {
+
+    private static final String[] CATEGORIES = {
+            "Food", "Travel", "Rent", "Utilities", "Shopping", "Health", "Entertainment", "Education"
+    };
+
+    private static final int SEED_EXPENSES = 50_000;
+
+    private final Path jar;
+    private final int port;
+    private final int writePercent;
+    private final Path output;
+    private final URI base;
+    private final HttpClient client;
+
+    private ThreadModeLoadTest(Path jar, int port, int writePercent, Path output) {
+        this.jar = jar;
+        this.port = port;
+        this.writePercent = writePercent;
+        this.output = output;
+        this.base = URI.create("http://localhost:" + port + "/api/expense");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: ThreadModeLoadTest <application jar>");
+            System.exit(2);
+        }
+        List<Integer> connectionCounts = new ArrayList<>();
+        for (String count : System.getProperty("loadtest.connections", "1000,5000,10000").split(",")) {
+            connectionCounts.add(Integer.parseInt(count.trim()));
+        }
+        String[] modes = System.getProperty("loadtest.modes", "platform,virtual").split(",");
+        int duration = Integer.getInteger("loadtest.duration", 30);
+        int warmup = Integer.getInteger("loadtest.warmup", 10);
+        Path output = Path.of(System.getProperty("loadtest.output", "build/loadtest"));
+        Files.createDirectories(output);
+
+        ThreadModeLoadTest loadTest = new ThreadModeLoadTest(Path.of(args[0]),
+                Integer.getInteger("loadtest.port", 18061), Integer.getInteger("loadtest.writePercent", 10), output);
+
+        List<String> rows = new ArrayList<>();
+        for (String mode : modes) {
+            rows.addAll(loadTest.runMode(mode.trim(), connectionCounts, warmup, duration));
+        }
+
+        System.out.println();
+        System.out.println(header());
+        rows.forEach(System.out::println);
+        Files.write(output.resolve("results.txt"), prepend(header(), rows));
+    }
+
+    private List<String> runMode(String mode, List<Integer> connectionCounts, int warmup, int duration)
+            throws Exception {
+        Process server = startServer(mode);
+        try {
+            awaitStarted(server);
+            seed();
+            List<String> rows = new ArrayList<>();
+            for (int connections : connectionCounts) {
+                System.out.printf("%s threads, %d connections: warming up for %ds%n", mode, connections, warmup);
+                drive(connections, warmup);
+                System.out.printf("%s threads, %d connections: measuring for %ds%n", mode, connections, duration);
+                Result result = drive(connections, duration);
+                String row = result.format(mode, connections, duration);
+                System.out.println(row);
+                rows.add(row);
+            }
+            return rows;
+        } finally {
+            server.destroy();
+            if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+        }
+    }
+
+    private Process startServer(String mode) throws IOException {
+        if (!mode.equals("platform") && !mode.equals("virtual")) {
+            throw new IllegalArgumentException("Thread mode must be 'platform' or 'virtual', got: " + mode);
+        }
+        Path journal = Files.createTempDirectory("expense-loadtest-journal");
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = List.of(java, "-Xmx2g", "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                // Accept every connection in both modes, so only request execution differs
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000",
+                // Every connection comes from one address: measure the threads, not the rate limits
+                "--expense.admission.enabled=false",
+                "--expense.persistence.enabled=true",
+                "--expense.persistence.fsync-policy=ALWAYS",
+                "--expense.persistence.directory=" + journal,
+                "--spring.devtools.restart.enabled=false");
+        File log = output.resolve("server-" + mode + ".log").toFile();
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+    }
+
+    private void awaitStarted(Process server) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server exited with " + server.exitValue() + "; see " + output);
+            }
+            try {
+                HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create(base + "/count")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Server did not start within 120s; see " + output);
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder(SEED_EXPENSES * 120);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SEED_EXPENSES; i++) {
+            body.append("{\"description\":\"Seed expense ").append(i)
+                    .append("\",\"amount\":").append(1 + random.nextInt(50_000) / 100.0)
+                    .append(",\"category\":\"").append(CATEGORIES[i % CATEGORIES.length])
+                    .append("\",\"date\":\"2025-0").append(1 + i % 9).append("-15T12:00:00\"}\n");
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/import"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private Result drive(int connections, int seconds) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService connectionThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                connectionThreads.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(nextRequest(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400) {
+                                errors.increment();
+                            }
+                        } catch (IOException ex) {
+                            errors.increment();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies.recordSince(start);
+                    }
+                });
+            }
+        }
+        return new Result(latencies.snapshot(), errors.sum());
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        if (random.nextInt(100) < writePercent) {
+            String json = "{\"description\":\"Load test expense\",\"amount\":"
+                    + (1 + random.nextInt(10_000) / 100.0) + ",\"category\":\"" + category + "\"}";
+            return HttpRequest.newBuilder(base)
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+        return HttpRequest.newBuilder(URI.create(base + "?category=" + category + "&limit=20"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    private static String header() {
+        return String.format(Locale.ROOT, "%-9s %11s %10s %9s %9s %9s %8s",
+                "threads", "connections", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+    }
+
+    private static List<String> prepend(String first, List<String> rest) {
+        List<String> lines = new ArrayList<>(rest.size() + 1);
+        lines.add(first);
+        lines.addAll(rest);
+        return lines;
+    }
+
+    private record Result(LatencyHistogram.Snapshot latencies, long errors) {
+
+        String format(String mode, int connections, int seconds) {
+            return String.format(Locale.ROOT, "%-9s %11d %10.0f %9.1f %9.1f %9.1f %8d",
+                    mode, connections, (double) latencies.count() / seconds,
+                    millis(latencies.valueAt(0.5)), millis(latencies.valueAt(0.99)),
+                    millis(latencies.valueAt(0.999)), errors);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
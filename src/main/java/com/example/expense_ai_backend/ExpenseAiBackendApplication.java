@@ -2,8 +2,10 @@ package com.example.expense_ai_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ExpenseAiBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,113 @@
+package com.example.expense_ai_backend.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The budgets {@link AdmissionFilter} checks requests against: a request rate per client and a
+ * limit on requests in flight, each in two sizes, and a request rate for all clients together.
+ * Full-scan endpoints (exports, imports, summaries) draw on their own, smaller budgets, so a few
+ * of them cannot use up the capacity meant for ordinary reads and writes.
+ */
+@Component
+public class AdmissionControl {
+
+    private final boolean enabled;
+
+    private final String[] expensivePaths;
+
+    private final UserRateLimiter users;
+
+    private final UserRateLimiter expensiveUsers;
+
+    private final TokenBucket global;
+
+    private final LongAdder globalRejections = new LongAdder();
+
+    private final ConcurrencyLimiter requests;
+
+    private final ConcurrencyLimiter expensiveRequests;
+
+    private final Duration retryAfter;
+
+    @Autowired
+    public AdmissionControl(AdmissionProperties properties) {
+        this(properties.isEnabled(), properties.getExpensivePaths(),
+                new UserRateLimiter(properties.getUserRate(), properties.getUserBurst(), properties.getMaxTrackedUsers()),
+                new UserRateLimiter(properties.getExpensiveUserRate(), properties.getExpensiveUserBurst(),
+                        properties.getMaxTrackedUsers()),
+                new TokenBucket(properties.getGlobalRate(), properties.getGlobalBurst(), System.nanoTime()),
+                new ConcurrencyLimiter(properties.getMaxConcurrent(), properties.getQueueTarget().toNanos()),
+                new ConcurrencyLimiter(properties.getExpensiveMaxConcurrent(), properties.getQueueTarget().toNanos()),
+                properties.getRetryAfter());
+    }
+
+    public AdmissionControl(boolean enabled, List<String> expensivePaths,
+                            UserRateLimiter users, UserRateLimiter expensiveUsers, TokenBucket global,
+                            ConcurrencyLimiter requests, ConcurrencyLimiter expensiveRequests,
+                            Duration retryAfter) {
+        this.enabled = enabled;
+        this.expensivePaths = expensivePaths.toArray(new String[0]);
+        this.users = users;
+        this.expensiveUsers = expensiveUsers;
+        this.global = global;
+        this.requests = requests;
+        this.expensiveRequests = expensiveRequests;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isExpensive(String path) {
+        for (String prefix : expensivePaths) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public UserRateLimiter rateLimiter(boolean expensive) {
+        return expensive ? expensiveUsers : users;
+    }
+
+    /**
+     * Takes a permit from the rate shared by all clients. Returns 0 if granted, otherwise the
+     * nanoseconds until the next permit.
+     */
+    public long tryAcquireGlobal() {
+        long wait = global.tryAcquire(System.nanoTime());
+        if (wait > 0) {
+            globalRejections.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Gives back a global permit for a request shed by the concurrency limit.
+     */
+    public void refundGlobal() {
+        global.refund(System.nanoTime());
+    }
+
+    public long globalRejectionCount() {
+        return globalRejections.sum();
+    }
+
+    public ConcurrencyLimiter concurrencyLimiter(boolean expensive) {
+        return expensive ? expensiveRequests : requests;
+    }
+
+    /**
+     * Retry-After for requests shed because the server is overloaded.
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
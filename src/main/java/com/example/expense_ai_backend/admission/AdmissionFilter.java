@@ -0,0 +1,113 @@
+package com.example.expense_ai_backend.admission;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.ErrorResponseDTO;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits or turns away every request to the expense API before any work is done for it.
+ *
+ * A request first takes a permit from its client's token bucket, or gets 429 Too Many Requests
+ * with a Retry-After of when the next permit is due. It then takes a permit from the rate shared by
+ * all clients and a slot from the concurrency limit, or gets 503 Service Unavailable when either
+ * runs out. Requests to the expensive endpoints use the smaller budgets of {@link AdmissionControl}.
+ * A request shed with 503 gets its client's permit back, and its global permit too when it was the
+ * concurrency limit, so overload does not eat into the budget of the client that was turned away.
+ *
+ * The client is the authenticated principal, or else the remote address. Ids a client sends, such
+ * as the {@code userId} parameter, are not used: a client could change them on every request to
+ * get a fresh bucket each time. Behind a proxy the remote address is only the client's with
+ * {@code server.forward-headers-strategy} set, which is why admission is opt-in. Streaming
+ * requests give their slot back when the request thread is released, not when the stream ends.
+ */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admission;
+
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(AdmissionControl admission, ObjectMapper objectMapper) {
+        this.admission = admission;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admission.isEnabled() || !request.getRequestURI().startsWith(AppConstant.EXPENSE_API);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        boolean expensive = admission.isExpensive(path);
+
+        String client = clientOf(request);
+        UserRateLimiter rateLimiter = admission.rateLimiter(expensive);
+        long wait = rateLimiter.tryAcquire(client);
+        if (wait > 0) {
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, wait, AppConstant.RATE_LIMITED + client);
+            return;
+        }
+        wait = admission.tryAcquireGlobal();
+        if (wait > 0) {
+            rateLimiter.refund(client);
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, wait, AppConstant.OVERLOADED);
+            return;
+        }
+
+        ConcurrencyLimiter limiter = admission.concurrencyLimiter(expensive);
+        if (!limiter.tryAcquire()) {
+            rateLimiter.refund(client);
+            admission.refundGlobal();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, admission.retryAfter().toNanos(),
+                    AppConstant.OVERLOADED);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        long retryAfterNanos, String message) throws IOException {
+        // Whole seconds, rounded up so the retry does not arrive early
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.expense_ai_backend.admission;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limits and load shedding in front of the expense API ({@code expense.admission.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether requests are rate limited and shed at all. Off by default, since behind a proxy
+     * anonymous clients share its address unless {@code server.forward-headers-strategy} is set.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Sustained requests per second allowed to each user.
+     */
+    private double userRate = 50;
+
+    /**
+     * Requests a user may send at once on top of the sustained rate.
+     */
+    private int userBurst = 100;
+
+    /**
+     * Sustained requests per second to expensive endpoints allowed to each user.
+     */
+    private double expensiveUserRate = 1;
+
+    /**
+     * Requests to expensive endpoints a user may send at once.
+     */
+    private int expensiveUserBurst = 5;
+
+    /**
+     * Sustained requests per second allowed from all clients together.
+     */
+    private double globalRate = 5_000;
+
+    /**
+     * Requests all clients together may send at once on top of the sustained rate.
+     */
+    private int globalBurst = 10_000;
+
+    /**
+     * Requests to the API in flight at once, expensive ones not included.
+     */
+    private int maxConcurrent = 200;
+
+    /**
+     * Requests to expensive endpoints in flight at once.
+     */
+    private int expensiveMaxConcurrent = 16;
+
+    /**
+     * Longest a request queues for a free slot before it is shed.
+     */
+    private Duration queueTarget = Duration.ofMillis(50);
+
+    /**
+     * Retry-After sent with requests shed because the server is overloaded.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Clients tracked before idle clients' buckets are dropped; past it, new clients share one bucket.
+     */
+    private int maxTrackedUsers = 100_000;
+
+    /**
+     * Path prefixes of the full-scan endpoints, which get the lower expensive budget.
+     */
+    private List<String> expensivePaths = List.of(
+            AppConstant.EXPENSE_API + AppConstant.EXPENSE_EXPORT,
+            AppConstant.EXPENSE_API + AppConstant.EXPENSE_IMPORT,
+            AppConstant.EXPENSE_API + "/summary");
+}
@@ -0,0 +1,74 @@
+package com.example.expense_ai_backend.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the requests in flight and sheds the rest once they would queue longer than
+ * {@code queueTarget}.
+ *
+ * A request takes a free permit without waiting. Without one it queues for up to
+ * {@code queueTarget}; if no permit frees up in that time, it is shed and the limiter counts as
+ * overloaded for the next {@code queueTarget}: anything arriving then would queue at least as
+ * long, so requests finding no free permit are shed straight away instead of piling up. The first
+ * request after that window queues again and so probes whether the overload has passed.
+ */
+public final class ConcurrencyLimiter {
+
+    private final int maxConcurrent;
+
+    private final long queueTargetNanos;
+
+    private final Semaphore permits;
+
+    private final LongAdder rejections = new LongAdder();
+
+    private volatile long shedUntil;
+
+    public ConcurrencyLimiter(int maxConcurrent, long queueTargetNanos) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive, got: " + maxConcurrent);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.queueTargetNanos = Math.max(0, queueTargetNanos);
+        this.permits = new Semaphore(maxConcurrent);
+        this.shedUntil = System.nanoTime();
+    }
+
+    /**
+     * Takes a permit, queueing for at most the queue target. Returns false if the request should
+     * be shed; otherwise the caller must {@link #release()} once done.
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (System.nanoTime() - shedUntil < 0) {
+            rejections.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(queueTargetNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            shedUntil = System.nanoTime() + queueTargetNanos;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        rejections.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+}
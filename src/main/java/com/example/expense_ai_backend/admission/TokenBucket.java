@@ -0,0 +1,76 @@
+package com.example.expense_ai_backend.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket granting {@code rate} permits per second, with bursts of up to
+ * {@code burst} permits.
+ *
+ * Instead of a token count and a last-refill time, the bucket keeps a single theoretical arrival
+ * time (GCRA): each permit pushes it one emission interval ({@code 1 / rate}) further, a request
+ * is admitted while that stays within {@code burst} intervals of now, and refilling is simply time
+ * passing. Taking a permit is one read and one compare-and-set, and a rejection only the read.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong arrival;
+
+    public TokenBucket(double ratePerSecond, int burst, long now) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive, got: " + ratePerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1, got: " + burst);
+        }
+        this.intervalNanos = Math.max(1, Math.round(1e9 / ratePerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a permit at {@code now} (a {@link System#nanoTime()} reading). Returns 0 if granted,
+     * otherwise the nanoseconds until the next permit will be.
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit taken at or before {@code now}, for a request turned away later on, so
+     * it does not count against the bucket. Never fills the bucket past full.
+     */
+    public void refund(long now) {
+        while (true) {
+            long current = arrival.get();
+            if (current - now <= 0) {
+                return;
+            }
+            long previous = current - intervalNanos;
+            if (arrival.compareAndSet(current, previous - now > 0 ? previous : now)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether every permit has been refilled by {@code now}, making the bucket indistinguishable
+     * from a new one.
+     */
+    public boolean isFull(long now) {
+        return arrival.get() - now <= 0;
+    }
+}
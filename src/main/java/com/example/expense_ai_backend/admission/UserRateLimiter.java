@@ -0,0 +1,106 @@
+package com.example.expense_ai_backend.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link TokenBucket} per user, created on the user's first request, so one client sending
+ * too much is turned away without slowing anybody else.
+ *
+ * A bucket that has refilled completely holds no state worth keeping. Once more than
+ * {@code maxUsers} buckets exist, full ones are dropped, at most once a second, so idle users
+ * cost nothing and the map only grows with users active at the same time. If it is still full,
+ * users without a bucket share a single overflow bucket until room frees up, so the map never
+ * holds many more than {@code maxUsers} buckets however many keys clients make up. A request
+ * racing with the drop of its user's bucket may land on the dropped one; at worst that user gets
+ * one extra burst.
+ */
+public final class UserRateLimiter {
+
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double ratePerSecond;
+
+    private final int burst;
+
+    private final int maxUsers;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final TokenBucket overflow;
+
+    private final AtomicLong nextPrune;
+
+    private final LongAdder rejections = new LongAdder();
+
+    public UserRateLimiter(double ratePerSecond, int burst, int maxUsers) {
+        this(ratePerSecond, burst, maxUsers, System::nanoTime);
+    }
+
+    UserRateLimiter(double ratePerSecond, int burst, int maxUsers, LongSupplier clock) {
+        // Fail at startup rather than on the first request
+        new TokenBucket(ratePerSecond, burst, 0);
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxUsers = maxUsers;
+        this.clock = clock;
+        this.nextPrune = new AtomicLong(clock.getAsLong());
+        this.overflow = new TokenBucket(ratePerSecond, burst, clock.getAsLong());
+    }
+
+    /**
+     * Takes a permit for {@code user}. Returns 0 if granted, otherwise the nanoseconds until the
+     * user's next permit.
+     */
+    public long tryAcquire(String user) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(user);
+        if (bucket == null) {
+            if (buckets.size() >= maxUsers) {
+                prune(now);
+            }
+            bucket = buckets.size() < maxUsers
+                    ? buckets.computeIfAbsent(user, key -> new TokenBucket(ratePerSecond, burst, now))
+                    : overflow;
+        }
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            rejections.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Gives back a permit {@link #tryAcquire} granted to {@code user}, for a request turned away by
+     * a later check. Without a bucket of its own the user was served by the overflow bucket, or its
+     * bucket was dropped as full, where a refund changes nothing.
+     */
+    public void refund(String user) {
+        TokenBucket bucket = buckets.get(user);
+        (bucket != null ? bucket : overflow).refund(clock.getAsLong());
+    }
+
+    /**
+     * Users with a bucket, including idle ones not yet dropped.
+     */
+    public int trackedUsers() {
+        return buckets.size();
+    }
+
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    private void prune(long now) {
+        long due = nextPrune.get();
+        if (now - due < 0 || !nextPrune.compareAndSet(due, now + PRUNE_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.expense_ai_backend.aggregate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable running total and count for one category (optionally for one user).
+ */
+public record CategoryAggregate(BigDecimal totalAmount, long count) {
+
+    static final CategoryAggregate EMPTY = new CategoryAggregate(BigDecimal.ZERO, 0);
+
+    CategoryAggregate plus(BigDecimal amount) {
+        return new CategoryAggregate(totalAmount.add(amount), count + 1);
+    }
+
+    CategoryAggregate plus(CategoryAggregate other) {
+        return new CategoryAggregate(totalAmount.add(other.totalAmount), count + other.count);
+    }
+
+    CategoryAggregate minus(BigDecimal amount) {
+        return new CategoryAggregate(totalAmount.subtract(amount), count - 1);
+    }
+
+    public BigDecimal averageAmount() {
+        return count > 0 ?
+                totalAmount.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) :
+                BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.expense_ai_backend.aggregate;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running per-category totals, kept up to date from the repository write path so the category
+ * summary can be answered in O(#categories) without scanning the store.
+ *
+ * Each write applies a delta: creates add the amount, deletes subtract it, and updates subtract
+ * the old amount from the old category before adding the new amount to the new one. Cells are
+ * immutable and replaced with {@link ConcurrentHashMap#compute}, so readers always see a total
+ * and count that belong together.
+ *
+ * The all-users totals are kept as partial totals striped by user, so writers for different
+ * users do not all queue on the cell of a popular category; {@link #categoryTotals()} merges the
+ * partials.
+ */
+@Component
+public class CategoryAggregateStore implements ExpenseChangeListener {
+
+    private static final int SEGMENTS = 16;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, CategoryAggregate>[] byCategory = new ConcurrentHashMap[SEGMENTS];
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, CategoryAggregate>> byUser = new ConcurrentHashMap<>();
+
+    public CategoryAggregateStore() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            byCategory[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        if (previous != null) {
+            remove(previous);
+        }
+        add(current);
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        remove(removed);
+    }
+
+    /**
+     * Category totals across all users.
+     */
+    public Map<String, CategoryAggregate> categoryTotals() {
+        Map<String, CategoryAggregate> totals = new HashMap<>();
+        for (ConcurrentHashMap<String, CategoryAggregate> partial : byCategory) {
+            partial.forEach((category, aggregate) -> totals.merge(category, aggregate, CategoryAggregate::plus));
+        }
+        return Collections.unmodifiableMap(totals);
+    }
+
+    /**
+     * Category totals for a single user.
+     */
+    public Map<String, CategoryAggregate> categoryTotals(String userId) {
+        Map<String, CategoryAggregate> totals = byUser.get(userId);
+        return totals == null ? Collections.emptyMap() : Collections.unmodifiableMap(totals);
+    }
+
+    /**
+     * Recomputes the totals from the given expenses and returns the categories whose running
+     * totals disagree. Intended as an offline consistency check; concurrent writes during the
+     * scan can show up as transient mismatches.
+     */
+    public List<String> verify(Iterable<Expense> expenses) {
+        Map<String, CategoryAggregate> rebuilt = new HashMap<>();
+        for (Expense expense : expenses) {
+            rebuilt.merge(expense.getCategory(), CategoryAggregate.EMPTY.plus(expense.getAmount()),
+                    CategoryAggregate::plus);
+        }
+
+        Map<String, CategoryAggregate> totals = categoryTotals();
+        Set<String> categories = new TreeSet<>(rebuilt.keySet());
+        categories.addAll(totals.keySet());
+
+        List<String> mismatched = new ArrayList<>();
+        for (String category : categories) {
+            CategoryAggregate expected = rebuilt.getOrDefault(category, CategoryAggregate.EMPTY);
+            CategoryAggregate actual = totals.getOrDefault(category, CategoryAggregate.EMPTY);
+            if (expected.count() != actual.count()
+                    || expected.totalAmount().compareTo(actual.totalAmount()) != 0) {
+                mismatched.add(category);
+            }
+        }
+        return mismatched;
+    }
+
+    private void add(Expense expense) {
+        String category = expense.getCategory();
+        BigDecimal amount = expense.getAmount();
+        if (category == null || amount == null) {
+            return;
+        }
+        partialFor(expense.getUserId()).compute(category, (key, aggregate) ->
+                (aggregate == null ? CategoryAggregate.EMPTY : aggregate).plus(amount));
+        if (expense.getUserId() != null) {
+            byUser.computeIfAbsent(expense.getUserId(), key -> new ConcurrentHashMap<>())
+                    .compute(category, (key, aggregate) ->
+                            (aggregate == null ? CategoryAggregate.EMPTY : aggregate).plus(amount));
+        }
+    }
+
+    private void remove(Expense expense) {
+        String category = expense.getCategory();
+        BigDecimal amount = expense.getAmount();
+        if (category == null || amount == null) {
+            return;
+        }
+        partialFor(expense.getUserId()).computeIfPresent(category, (key, aggregate) -> decrement(aggregate, amount));
+        if (expense.getUserId() != null) {
+            Map<String, CategoryAggregate> userTotals = byUser.get(expense.getUserId());
+            if (userTotals != null) {
+                userTotals.computeIfPresent(category, (key, aggregate) -> decrement(aggregate, amount));
+            }
+        }
+    }
+
+    private ConcurrentHashMap<String, CategoryAggregate> partialFor(String userId) {
+        int hash = userId == null ? 0 : userId.hashCode();
+        return byCategory[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static CategoryAggregate decrement(CategoryAggregate aggregate, BigDecimal amount) {
+        CategoryAggregate next = aggregate.minus(amount);
+        return next.count() == 0 ? null : next;
+    }
+}
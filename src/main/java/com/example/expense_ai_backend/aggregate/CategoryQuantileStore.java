@@ -0,0 +1,189 @@
+package com.example.expense_ai_backend.aggregate;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Amount distributions per category, across all users and for each user, kept up to date from
+ * the repository write path like {@link CategoryAggregateStore}, so median and percentile amounts
+ * are answered without sorting a single expense.
+ *
+ * Each distribution is a {@link QuantileSketch} of bounded size. Creates add the amount, deletes
+ * remove it, and updates move it. Like the totals, the all-users sketches are kept as partials
+ * striped by user and merged when read; a merge is one pass over at most {@code maxBuckets}
+ * counts.
+ *
+ * Sketches are mutable: writers change them inside {@link ConcurrentHashMap#compute} under the
+ * sketch's monitor, and readers copy or merge them under the same monitor.
+ */
+@Component
+public class CategoryQuantileStore implements ExpenseChangeListener {
+
+    private static final int SEGMENTS = 16;
+
+    private final double relativeAccuracy;
+
+    private final int maxBuckets;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, QuantileSketch>[] byCategory = new ConcurrentHashMap[SEGMENTS];
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, QuantileSketch>> byUser = new ConcurrentHashMap<>();
+
+    public CategoryQuantileStore(double relativeAccuracy, int maxBuckets) {
+        // Fail at startup rather than on the first write
+        new QuantileSketch(relativeAccuracy, maxBuckets);
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        for (int i = 0; i < SEGMENTS; i++) {
+            byCategory[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Autowired
+    public CategoryQuantileStore(QuantileProperties properties) {
+        this(properties.getRelativeAccuracy(), properties.getMaxBuckets());
+    }
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        if (previous != null) {
+            if (Objects.equals(previous.getUserId(), current.getUserId())
+                    && Objects.equals(previous.getCategory(), current.getCategory())
+                    && previous.getAmount().compareTo(current.getAmount()) == 0) {
+                return;
+            }
+            remove(previous);
+        }
+        add(current);
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        remove(removed);
+    }
+
+    /**
+     * Amount sketches per category across all users, merged from the partials into copies the
+     * caller owns.
+     */
+    public Map<String, QuantileSketch> categorySketches() {
+        Map<String, QuantileSketch> merged = new HashMap<>();
+        for (ConcurrentHashMap<String, QuantileSketch> partial : byCategory) {
+            partial.forEach((category, sketch) -> {
+                QuantileSketch target = merged.computeIfAbsent(category,
+                        key -> new QuantileSketch(relativeAccuracy, maxBuckets));
+                synchronized (sketch) {
+                    target.merge(sketch);
+                }
+            });
+        }
+        merged.values().removeIf(QuantileSketch::isEmpty);
+        return Collections.unmodifiableMap(merged);
+    }
+
+    /**
+     * Copies of a single user's amount sketches per category.
+     */
+    public Map<String, QuantileSketch> categorySketches(String userId) {
+        Map<String, QuantileSketch> sketches = byUser.get(userId);
+        if (sketches == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, QuantileSketch> copies = new HashMap<>();
+        sketches.forEach((category, sketch) -> {
+            synchronized (sketch) {
+                if (!sketch.isEmpty()) {
+                    copies.put(category, sketch.copy());
+                }
+            }
+        });
+        return Collections.unmodifiableMap(copies);
+    }
+
+    /**
+     * Copy of the amount sketch for one category, across all users when {@code userId} is null.
+     */
+    public Optional<QuantileSketch> categorySketch(String userId, String category) {
+        QuantileSketch merged = new QuantileSketch(relativeAccuracy, maxBuckets);
+        if (userId == null) {
+            for (ConcurrentHashMap<String, QuantileSketch> partial : byCategory) {
+                QuantileSketch sketch = partial.get(category);
+                if (sketch != null) {
+                    synchronized (sketch) {
+                        merged.merge(sketch);
+                    }
+                }
+            }
+        } else {
+            Map<String, QuantileSketch> sketches = byUser.get(userId);
+            QuantileSketch sketch = sketches == null ? null : sketches.get(category);
+            if (sketch != null) {
+                synchronized (sketch) {
+                    merged.merge(sketch);
+                }
+            }
+        }
+        return merged.isEmpty() ? Optional.empty() : Optional.of(merged);
+    }
+
+    private void add(Expense expense) {
+        String category = expense.getCategory();
+        BigDecimal amount = expense.getAmount();
+        if (category == null || amount == null) {
+            return;
+        }
+        double value = amount.doubleValue();
+        partialFor(expense.getUserId()).compute(category, (key, sketch) -> plus(sketch, value));
+        if (expense.getUserId() != null) {
+            byUser.computeIfAbsent(expense.getUserId(), key -> new ConcurrentHashMap<>())
+                    .compute(category, (key, sketch) -> plus(sketch, value));
+        }
+    }
+
+    private void remove(Expense expense) {
+        String category = expense.getCategory();
+        BigDecimal amount = expense.getAmount();
+        if (category == null || amount == null) {
+            return;
+        }
+        double value = amount.doubleValue();
+        partialFor(expense.getUserId()).computeIfPresent(category, (key, sketch) -> minus(sketch, value));
+        if (expense.getUserId() != null) {
+            Map<String, QuantileSketch> userSketches = byUser.get(expense.getUserId());
+            if (userSketches != null) {
+                userSketches.computeIfPresent(category, (key, sketch) -> minus(sketch, value));
+            }
+        }
+    }
+
+    private QuantileSketch plus(QuantileSketch sketch, double value) {
+        QuantileSketch target = sketch == null ? new QuantileSketch(relativeAccuracy, maxBuckets) : sketch;
+        synchronized (target) {
+            target.add(value);
+        }
+        return target;
+    }
+
+    private static QuantileSketch minus(QuantileSketch sketch, double value) {
+        synchronized (sketch) {
+            sketch.remove(value);
+            return sketch.isEmpty() ? null : sketch;
+        }
+    }
+
+    private ConcurrentHashMap<String, QuantileSketch> partialFor(String userId) {
+        int hash = userId == null ? 0 : userId.hashCode();
+        return byCategory[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+}
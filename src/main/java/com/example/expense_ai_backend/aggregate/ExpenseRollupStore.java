@@ -0,0 +1,361 @@
+package com.example.expense_ai_backend.aggregate;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import com.example.expense_ai_backend.repository.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Time-bucketed spend per user and category (sum, count, min, max) at day, month and year
+ * granularity, kept up to date from the repository write path like {@link CategoryAggregateStore}.
+ * A time-series query reads one cell per bucket instead of scanning expenses.
+ *
+ * Cells live in primitive arrays: amounts are fixed-point longs at {@link #SCALE} and each cell is
+ * found through a {@link LongIntHashMap} keyed by (user, category, granularity, bucket) codes, so a
+ * cell costs about 45 bytes with no per-cell objects. Cells are striped by user across segments,
+ * each guarded by its own lock; one write updates its three cells under a single lock hold.
+ *
+ * Each write also updates the user's all-categories cells, and the store remembers which
+ * categories each user has spent in. A query for every category reads the all-categories cells to
+ * find the buckets with spend, then probes only the user's own categories in those buckets, rather
+ * than every category the store has seen in every bucket of the range.
+ *
+ * A sum and count can always be reversed on delete, a min or max cannot. When a delete removes
+ * the current min or max the cell is marked stale; readers recompute it from the expenses in the
+ * bucket and write it back with {@link #repair} unless the cell changed meanwhile.
+ */
+@Component
+public class ExpenseRollupStore implements ExpenseChangeListener {
+
+    /**
+     * Decimal places kept for rollup amounts; finer amounts are rounded half-even.
+     */
+    public static final int SCALE = 4;
+
+    private static final int SEGMENTS = 16;
+
+    // Cell key layout: user (24 bits, +1 so no key is 0) | category (16) | granularity (2) | bucket (22)
+    private static final int BUCKET_BITS = 22;
+    private static final int BUCKET_OFFSET = 1 << (BUCKET_BITS - 1);
+    private static final int GRANULARITY_BITS = 2;
+    private static final int CATEGORY_BITS = 16;
+    private static final int MAX_USERS = (1 << 24) - 1;
+    // The top category code is reserved for the all-categories cells
+    private static final int ALL_CATEGORIES = (1 << CATEGORY_BITS) - 1;
+    private static final int MAX_CATEGORIES = ALL_CATEGORIES;
+
+    private static final RollupGranularity[] GRANULARITIES = RollupGranularity.values();
+
+    private final ConcurrentHashMap<String, Integer> userCodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> categoryCodes = new ConcurrentHashMap<>();
+    // Category names by code
+    private final CopyOnWriteArrayList<String> categories = new CopyOnWriteArrayList<>();
+    // Category codes each user has spent in, by user code
+    private final ConcurrentHashMap<Integer, Set<Integer>> userCategories = new ConcurrentHashMap<>();
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public ExpenseRollupStore() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(current, 1);
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        apply(removed, -1);
+    }
+
+    /**
+     * Non-empty cells for the user in buckets {@code firstBucket..lastBucket}, ordered by category
+     * code then bucket. A {@code null} category returns every category the user has spent in.
+     */
+    public List<RollupCell> cells(String userId, String category, RollupGranularity granularity,
+                                  int firstBucket, int lastBucket) {
+        Integer userCode = userCodes.get(userId);
+        if (userCode == null) {
+            return List.of();
+        }
+        int[] categoryCodesToRead;
+        if (category == null) {
+            Set<Integer> codes = userCategories.get(userCode);
+            if (codes == null) {
+                return List.of();
+            }
+            categoryCodesToRead = codes.stream().mapToInt(Integer::intValue).sorted().toArray();
+        } else {
+            Integer categoryCode = categoryCodes.get(category);
+            if (categoryCode == null) {
+                return List.of();
+            }
+            categoryCodesToRead = new int[]{categoryCode};
+        }
+
+        List<RollupCell> cells = new ArrayList<>();
+        Segment segment = segmentFor(userCode);
+        long stamp = segment.lock.readLock();
+        try {
+            int[] buckets = bucketsWithSpend(segment, userCode, granularity, firstBucket, lastBucket);
+            for (int categoryCode : categoryCodesToRead) {
+                for (int bucket : buckets) {
+                    int cell = segment.index.get(key(userCode, categoryCode, granularity, bucket));
+                    if (cell != LongIntHashMap.MISSING && segment.counts[cell] > 0) {
+                        cells.add(new RollupCell(categories.get(categoryCode), granularity, bucket,
+                                segment.sums[cell], segment.counts[cell], segment.mins[cell], segment.maxs[cell],
+                                segment.stale[cell], segment.versions[cell]));
+                    }
+                }
+            }
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+        return cells;
+    }
+
+    /**
+     * Recomputes a stale cell's min and max from the expenses currently in its bucket and stores
+     * them if the cell has not changed since {@code cell} was read. Returns the repaired copy.
+     *
+     * A write reaches the rollups before the store, so the scan can miss a write the cell already
+     * counts. When the scanned sum and count disagree with the cell's, the repair is rejected and
+     * the cell is returned as read, still stale, for a later read to repair.
+     */
+    public RollupCell repair(String userId, RollupCell cell, List<Expense> expensesInBucket) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0;
+        long count = 0;
+        for (Expense expense : expensesInBucket) {
+            if (expense.getAmount() != null) {
+                long units = toUnits(expense.getAmount());
+                min = Math.min(min, units);
+                max = Math.max(max, units);
+                sum += units;
+                count++;
+            }
+        }
+        if (sum != cell.sumUnits() || count != cell.count()) {
+            return cell;
+        }
+        if (min > max) {
+            min = 0;
+            max = 0;
+        }
+
+        Integer userCode = userCodes.get(userId);
+        Integer categoryCode = categoryCodes.get(cell.category());
+        if (userCode != null && categoryCode != null) {
+            Segment segment = segmentFor(userCode);
+            long stamp = segment.lock.writeLock();
+            try {
+                int index = segment.index.get(key(userCode, categoryCode, cell.granularity(), cell.bucket()));
+                if (index != LongIntHashMap.MISSING && segment.versions[index] == cell.version()) {
+                    segment.mins[index] = min;
+                    segment.maxs[index] = max;
+                    segment.stale[index] = false;
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        return cell.withMinMax(min, max);
+    }
+
+    public static long toUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Fixed-point units back to an amount, without trailing zeros beyond cents.
+     */
+    public static BigDecimal toAmount(long units) {
+        BigDecimal amount = BigDecimal.valueOf(units, SCALE).stripTrailingZeros();
+        return amount.scale() < 2 ? amount.setScale(2) : amount;
+    }
+
+    private void apply(Expense expense, int sign) {
+        if (expense.getUserId() == null || expense.getCategory() == null
+                || expense.getAmount() == null || expense.getDate() == null) {
+            return;
+        }
+        int userCode = code(userCodes, expense.getUserId(), null, MAX_USERS);
+        int categoryCode = code(categoryCodes, expense.getCategory(), categories, MAX_CATEGORIES);
+        if (userCode < 0 || categoryCode < 0) {
+            return;
+        }
+        long units;
+        try {
+            units = toUnits(expense.getAmount());
+        } catch (ArithmeticException ex) {
+            // Beyond the fixed-point range; skipped on add and remove alike
+            return;
+        }
+
+        if (sign > 0) {
+            userCategories.computeIfAbsent(userCode, user -> ConcurrentHashMap.newKeySet()).add(categoryCode);
+        }
+
+        Segment segment = segmentFor(userCode);
+        long stamp = segment.lock.writeLock();
+        try {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                int bucket = granularity.bucketOf(expense.getDate().toLocalDate());
+                if (!inRange(bucket)) {
+                    continue;
+                }
+                long key = key(userCode, categoryCode, granularity, bucket);
+                long allKey = key(userCode, ALL_CATEGORIES, granularity, bucket);
+                if (sign > 0) {
+                    segment.add(key, units);
+                    segment.add(allKey, units);
+                } else {
+                    segment.subtract(key, units);
+                    segment.subtract(allKey, units);
+                }
+            }
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Dense code for a name, assigned on first sight; -1 once the key layout has no room left.
+     */
+    private static int code(ConcurrentHashMap<String, Integer> codes, String name, List<String> names, int limit) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        synchronized (codes) {
+            return codes.computeIfAbsent(name, key -> {
+                if (codes.size() >= limit) {
+                    return -1;
+                }
+                if (names != null) {
+                    names.add(key);
+                }
+                return codes.size();
+            });
+        }
+    }
+
+    private Segment segmentFor(int userCode) {
+        return segments[userCode & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Buckets in {@code firstBucket..lastBucket} where the user has spend in any category, from the
+     * all-categories cells. Called under the segment's lock.
+     */
+    private static int[] bucketsWithSpend(Segment segment, int userCode, RollupGranularity granularity,
+                                          int firstBucket, int lastBucket) {
+        int[] buckets = new int[16];
+        int count = 0;
+        for (int bucket = Math.max(firstBucket, -BUCKET_OFFSET);
+             bucket <= lastBucket && bucket < BUCKET_OFFSET; bucket++) {
+            int cell = segment.index.get(key(userCode, ALL_CATEGORIES, granularity, bucket));
+            if (cell != LongIntHashMap.MISSING && segment.counts[cell] > 0) {
+                if (count == buckets.length) {
+                    buckets = Arrays.copyOf(buckets, count * 2);
+                }
+                buckets[count++] = bucket;
+            }
+        }
+        return Arrays.copyOf(buckets, count);
+    }
+
+    private static boolean inRange(int bucket) {
+        return bucket >= -BUCKET_OFFSET && bucket < BUCKET_OFFSET;
+    }
+
+    private static long key(int userCode, int categoryCode, RollupGranularity granularity, int bucket) {
+        return ((long) (userCode + 1) << (CATEGORY_BITS + GRANULARITY_BITS + BUCKET_BITS))
+                | ((long) categoryCode << (GRANULARITY_BITS + BUCKET_BITS))
+                | ((long) granularity.ordinal() << BUCKET_BITS)
+                | (bucket + BUCKET_OFFSET);
+    }
+
+    /**
+     * One stripe of cells in parallel primitive arrays. Cells are never freed; an emptied cell
+     * keeps its slot with count 0 and is skipped by readers.
+     */
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private final LongIntHashMap index = new LongIntHashMap(256);
+
+        private long[] sums = new long[256];
+        private long[] counts = new long[256];
+        private long[] mins = new long[256];
+        private long[] maxs = new long[256];
+        private int[] versions = new int[256];
+        private boolean[] stale = new boolean[256];
+        private int size;
+
+        void add(long key, long units) {
+            int cell = index.get(key);
+            if (cell == LongIntHashMap.MISSING) {
+                cell = allocate(key);
+            }
+            if (counts[cell] == 0) {
+                mins[cell] = units;
+                maxs[cell] = units;
+                stale[cell] = false;
+            } else if (!stale[cell]) {
+                mins[cell] = Math.min(mins[cell], units);
+                maxs[cell] = Math.max(maxs[cell], units);
+            }
+            sums[cell] += units;
+            counts[cell]++;
+            versions[cell]++;
+        }
+
+        void subtract(long key, long units) {
+            int cell = index.get(key);
+            if (cell == LongIntHashMap.MISSING || counts[cell] == 0) {
+                return;
+            }
+            sums[cell] -= units;
+            counts[cell]--;
+            versions[cell]++;
+            if (counts[cell] == 0) {
+                sums[cell] = 0;
+                stale[cell] = false;
+            } else if (units == mins[cell] || units == maxs[cell]) {
+                stale[cell] = true;
+            }
+        }
+
+        private int allocate(long key) {
+            if (size == sums.length) {
+                int capacity = size * 2;
+                sums = Arrays.copyOf(sums, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                mins = Arrays.copyOf(mins, capacity);
+                maxs = Arrays.copyOf(maxs, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                stale = Arrays.copyOf(stale, capacity);
+            }
+            index.put(key, size);
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.expense_ai_backend.aggregate;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the per-category amount quantile sketches ({@code expense.quantiles.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.quantiles")
+public class QuantileProperties {
+
+    /**
+     * Reported quantiles are within this fraction of an amount actually at that rank.
+     */
+    private double relativeAccuracy = 0.01;
+
+    /**
+     * Most buckets a sketch may hold (8 bytes each); past it the smallest amounts lose accuracy.
+     */
+    private int maxBuckets = 2048;
+}
@@ -0,0 +1,245 @@
+package com.example.expense_ai_backend.aggregate;
+
+/**
+ * Mergeable quantile sketch over positive amounts with relative-error guarantees (DDSketch-style
+ * log buckets): bucket {@code i} counts the values in {@code (gamma^(i-1), gamma^i]}, with
+ * {@code gamma = (1 + a) / (1 - a)} for relative accuracy {@code a}, so any quantile is reported
+ * within {@code a} of a value actually at that rank. At 1% accuracy, amounts from a cent to ten
+ * million need about 1,000 buckets.
+ *
+ * Buckets are a dense {@code long[]} over the range of indexes seen, never longer than
+ * {@code maxBuckets}; past that the lowest buckets are folded into one, so only the accuracy of
+ * the smallest amounts degrades. Because every value maps to a fixed bucket, a value can be
+ * removed again (updates and deletes) and two sketches with the same accuracy merge by adding
+ * counts, exactly as if every value had been added to one sketch.
+ *
+ * Not thread-safe; {@link CategoryQuantileStore} guards every sketch with its monitor.
+ */
+public final class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBuckets;
+
+    // counts[j] is bucket offset + j
+    private long[] counts = new long[0];
+    private int offset;
+    // Once the lowest buckets have been folded, indexes below offset count in bucket offset
+    private boolean collapsed;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1), got: " + relativeAccuracy);
+        }
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Max buckets must be positive, got: " + maxBuckets);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBuckets = maxBuckets;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Buckets currently allocated; at most {@code maxBuckets}.
+     */
+    public int bucketCount() {
+        return counts.length;
+    }
+
+    public void add(double value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            // slot() may replace the array, so it must run before counts is read
+            int position = slot(indexOf(value));
+            counts[position]++;
+        }
+        count++;
+    }
+
+    /**
+     * Takes out one occurrence of a value added earlier. Returns false, changing nothing, if its
+     * bucket is empty.
+     */
+    public boolean remove(double value) {
+        if (value <= 0) {
+            if (zeroCount == 0) {
+                return false;
+            }
+            zeroCount--;
+        } else {
+            int index = indexOf(value);
+            if (index < offset && collapsed) {
+                index = offset;
+            }
+            int position = index - offset;
+            if (position < 0 || position >= counts.length || counts[position] == 0) {
+                return false;
+            }
+            counts[position]--;
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Adds every value of {@code other} to this sketch. Both must have the same relative accuracy.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+        }
+        if (other.isEmpty()) {
+            return;
+        }
+        int first = firstNonZero(other.counts);
+        if (first >= 0) {
+            int last = lastNonZero(other.counts);
+            // Grow once for the whole range, then add bucket by bucket
+            slot(other.offset + last);
+            slot(other.offset + first);
+            collapsed |= other.collapsed;
+            for (int j = first; j <= last; j++) {
+                if (other.counts[j] != 0) {
+                    int position = slot(other.offset + j);
+                    counts[position] += other.counts[j];
+                }
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy, maxBuckets);
+        copy.counts = counts.clone();
+        copy.offset = offset;
+        copy.collapsed = collapsed;
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * Estimate of the value at {@code quantile} (0 to 1): the value of rank
+     * {@code floor(quantile * (count - 1))} in ascending order, within the relative accuracy.
+     * 0 for an empty sketch.
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got: " + quantile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) (quantile * (count - 1));
+        long seen = zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int j = 0; j < counts.length; j++) {
+            seen += counts[j];
+            if (seen > rank) {
+                return valueOf(offset + j);
+            }
+        }
+        return valueOf(offset + lastNonZero(counts));
+    }
+
+    private int indexOf(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * Midpoint (by relative error) of bucket {@code index}.
+     */
+    private double valueOf(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Position of bucket {@code index} in {@link #counts}, growing the array to cover it and, past
+     * {@code maxBuckets}, folding the lowest buckets together.
+     */
+    private int slot(int index) {
+        if (counts.length == 0) {
+            counts = new long[Math.min(maxBuckets, 32)];
+            offset = index - counts.length / 2;
+            return index - offset;
+        }
+        if (index < offset && collapsed) {
+            return 0;
+        }
+        int last = offset + counts.length - 1;
+        if (index >= offset && index <= last) {
+            return index - offset;
+        }
+
+        // Grow towards the new index with some slack, keeping within maxBuckets
+        int newFirst = Math.min(offset, index);
+        int newLast = Math.max(last, index);
+        int slack = Math.max(16, (newLast - newFirst + 1) / 4);
+        if (index < offset) {
+            newFirst = Math.max(index - slack, newLast - maxBuckets + 1);
+        } else {
+            newLast = index + slack;
+        }
+        if ((long) newLast - newFirst + 1 > maxBuckets) {
+            newLast = index > last ? index : newLast;
+            newFirst = newLast - maxBuckets + 1;
+        }
+
+        long[] grown = new long[newLast - newFirst + 1];
+        for (int j = 0; j < counts.length; j++) {
+            if (counts[j] != 0) {
+                int position = Math.max(0, offset + j - newFirst);
+                if (offset + j < newFirst) {
+                    collapsed = true;
+                }
+                grown[position] += counts[j];
+            }
+        }
+        counts = grown;
+        offset = newFirst;
+        if (index < offset) {
+            collapsed = true;
+            return 0;
+        }
+        return index - offset;
+    }
+
+    private static int firstNonZero(long[] counts) {
+        for (int j = 0; j < counts.length; j++) {
+            if (counts[j] != 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastNonZero(long[] counts) {
+        for (int j = counts.length - 1; j >= 0; j--) {
+            if (counts[j] != 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch[count=" + count + ", buckets=" + counts.length + ", accuracy=" + relativeAccuracy + "]";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.expense_ai_backend.aggregate;
+
+import java.math.BigDecimal;
+
+/**
+ * Copy of one rollup bucket for a user and category. Amounts are fixed-point longs at
+ * {@link ExpenseRollupStore#SCALE}. When {@code stale} is set, a delete removed the bucket's
+ * minimum or maximum and {@code minUnits}/{@code maxUnits} must be recomputed before use;
+ * {@code version} identifies the bucket state the copy was taken from.
+ */
+public record RollupCell(String category, RollupGranularity granularity, int bucket, long sumUnits, long count,
+                         long minUnits, long maxUnits, boolean stale, int version) {
+
+    public BigDecimal totalAmount() {
+        return ExpenseRollupStore.toAmount(sumUnits);
+    }
+
+    public BigDecimal minAmount() {
+        return ExpenseRollupStore.toAmount(minUnits);
+    }
+
+    public BigDecimal maxAmount() {
+        return ExpenseRollupStore.toAmount(maxUnits);
+    }
+
+    RollupCell withMinMax(long min, long max) {
+        return new RollupCell(category, granularity, bucket, sumUnits, count, min, max, false, version);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.expense_ai_backend.aggregate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Width of a rollup bucket. Buckets are numbered consecutively (epoch day, months since year 0,
+ * year), so a date range maps to a contiguous run of bucket numbers.
+ */
+public enum RollupGranularity {
+    DAY,
+    MONTH,
+    YEAR;
+
+    /**
+     * Bucket holding the date. Day and month numbers too far from year 0 for an int saturate to
+     * {@link Integer#MIN_VALUE} or {@link Integer#MAX_VALUE}, so they still order before or after
+     * every other bucket instead of overflowing.
+     */
+    public int bucketOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> saturate(date.toEpochDay());
+            case MONTH -> saturate(date.getYear() * 12L + date.getMonthValue() - 1);
+            case YEAR -> date.getYear();
+        };
+    }
+
+    public LocalDate startOf(int bucket) {
+        return switch (this) {
+            case DAY -> LocalDate.ofEpochDay(bucket);
+            case MONTH -> LocalDate.of(Math.floorDiv(bucket, 12), Math.floorMod(bucket, 12) + 1, 1);
+            case YEAR -> LocalDate.of(bucket, 1, 1);
+        };
+    }
+
+    /**
+     * ISO label of the bucket: "2026-03-01", "2026-03" or "2026".
+     */
+    public String label(int bucket) {
+        return switch (this) {
+            case DAY -> startOf(bucket).toString();
+            case MONTH -> YearMonth.from(startOf(bucket)).toString();
+            case YEAR -> String.valueOf(bucket);
+        };
+    }
+
+    private static int saturate(long bucket) {
+        return (int) Math.min(Math.max(bucket, Integer.MIN_VALUE), Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.expense_ai_backend.anomaly;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for spend anomaly detection ({@code expense.anomaly.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.anomaly")
+public class AnomalyProperties {
+
+    /**
+     * Standard deviations above the user's mean for the category at which an amount is flagged.
+     */
+    private double threshold = 3.0;
+
+    /**
+     * Expenses a user needs in a category before new ones there can be flagged.
+     */
+    private int minHistory = 5;
+}
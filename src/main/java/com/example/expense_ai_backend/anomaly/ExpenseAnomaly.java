@@ -0,0 +1,9 @@
+package com.example.expense_ai_backend.anomaly;
+
+/**
+ * An expense flagged when it was written: its amount was {@code score} standard deviations above
+ * the {@code typicalAmount} its user had spent in the category until then.
+ */
+public record ExpenseAnomaly(long expenseId, String userId, String category, double amount,
+                             double typicalAmount, double score) {
+}
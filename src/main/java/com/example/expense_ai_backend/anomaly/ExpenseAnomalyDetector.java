@@ -0,0 +1,138 @@
+package com.example.expense_ai_backend.anomaly;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Flags expenses whose amount is unusually high for their user and category as they are written,
+ * from the repository write path like the aggregate stores, so every path that stores expenses
+ * (API, import, journal replay) is covered.
+ *
+ * Each (user, category) keeps a {@link SpendStats} of constant size. A new amount is scored
+ * against the stats before it is added to them; once the pair has {@code minHistory} expenses,
+ * amounts more than {@code threshold} standard deviations above the mean are flagged. An update
+ * takes the old amount out of the stats and scores the new one; a delete takes it out and drops
+ * its flag. A flag records how unusual the expense was when written and is not revisited as the
+ * history grows.
+ *
+ * Stats cells are immutable and replaced with {@link ConcurrentHashMap#compute}, which also scores
+ * the amount, so concurrent writes to the same pair each see the other completely or not at all.
+ */
+@Component
+public class ExpenseAnomalyDetector implements ExpenseChangeListener {
+
+    private final double threshold;
+
+    private final int minHistory;
+
+    private final ConcurrentHashMap<StatsKey, SpendStats> stats = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<Long, ExpenseAnomaly> flagged = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<Long, ExpenseAnomaly>> flaggedByUser =
+            new ConcurrentHashMap<>();
+
+    public ExpenseAnomalyDetector(double threshold, int minHistory) {
+        this.threshold = threshold;
+        this.minHistory = minHistory;
+    }
+
+    @Autowired
+    public ExpenseAnomalyDetector(AnomalyProperties properties) {
+        this(properties.getThreshold(), properties.getMinHistory());
+    }
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        if (previous != null) {
+            if (Objects.equals(previous.getUserId(), current.getUserId())
+                    && Objects.equals(previous.getCategory(), current.getCategory())
+                    && previous.getAmount().compareTo(current.getAmount()) == 0) {
+                return;
+            }
+            remove(previous);
+        }
+        if (current.getUserId() == null || current.getCategory() == null) {
+            return;
+        }
+        double amount = current.getAmount().doubleValue();
+        ExpenseAnomaly[] anomaly = new ExpenseAnomaly[1];
+        stats.compute(new StatsKey(current.getUserId(), current.getCategory()), (key, cell) -> {
+            SpendStats history = cell == null ? SpendStats.EMPTY : cell;
+            double score = history.score(amount);
+            if (history.count() >= minHistory && score > threshold) {
+                anomaly[0] = new ExpenseAnomaly(current.getId(), key.userId(), key.category(), amount,
+                        history.mean(), score);
+            }
+            return history.plus(amount);
+        });
+        if (anomaly[0] != null) {
+            flagged.put(current.getId(), anomaly[0]);
+            flaggedByUser.computeIfAbsent(current.getUserId(), user -> new ConcurrentSkipListMap<>())
+                    .put(current.getId(), anomaly[0]);
+        }
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        remove(removed);
+    }
+
+    /**
+     * Up to {@code limit} flagged expenses, optionally for one user, most recently created first.
+     */
+    public List<ExpenseAnomaly> anomalies(String userId, int limit) {
+        ConcurrentNavigableMap<Long, ExpenseAnomaly> source = userId == null ? flagged : flaggedByUser.get(userId);
+        if (source == null) {
+            return List.of();
+        }
+        List<ExpenseAnomaly> anomalies = new ArrayList<>(Math.min(limit, 64));
+        Iterator<ExpenseAnomaly> newestFirst = source.descendingMap().values().iterator();
+        while (anomalies.size() < limit && newestFirst.hasNext()) {
+            anomalies.add(newestFirst.next());
+        }
+        return anomalies;
+    }
+
+    /**
+     * Number of expenses currently flagged.
+     */
+    public int flaggedCount() {
+        return flagged.size();
+    }
+
+    private void remove(Expense expense) {
+        unflag(expense.getId(), expense.getUserId());
+        if (expense.getUserId() == null || expense.getCategory() == null) {
+            return;
+        }
+        double amount = expense.getAmount().doubleValue();
+        stats.computeIfPresent(new StatsKey(expense.getUserId(), expense.getCategory()), (key, cell) -> {
+            SpendStats remaining = cell.minus(amount);
+            return remaining.count() == 0 ? null : remaining;
+        });
+    }
+
+    private void unflag(Long id, String userId) {
+        if (flagged.remove(id) != null && userId != null) {
+            Map<Long, ExpenseAnomaly> userFlags = flaggedByUser.get(userId);
+            if (userFlags != null) {
+                userFlags.remove(id);
+            }
+        }
+    }
+
+    private record StatsKey(String userId, String category) {
+    }
+}
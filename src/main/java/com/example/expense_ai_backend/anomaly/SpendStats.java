@@ -0,0 +1,43 @@
+package com.example.expense_ai_backend.anomaly;
+
+/**
+ * Immutable running count, mean and sum of squared deviations (Welford) of the amounts one user
+ * spent in one category. Adding and removing an amount are both O(1), so updates and deletes are
+ * reflected without keeping the amounts themselves.
+ */
+record SpendStats(long count, double mean, double m2) {
+
+    static final SpendStats EMPTY = new SpendStats(0, 0, 0);
+
+    // Spread assumed at least this fraction of the mean, so a history of identical amounts does
+    // not make every slightly larger one infinitely unusual
+    private static final double MIN_RELATIVE_SPREAD = 0.05;
+
+    SpendStats plus(double amount) {
+        long n = count + 1;
+        double delta = amount - mean;
+        double newMean = mean + delta / n;
+        return new SpendStats(n, newMean, m2 + delta * (amount - newMean));
+    }
+
+    SpendStats minus(double amount) {
+        long n = count - 1;
+        if (n <= 0) {
+            return EMPTY;
+        }
+        double newMean = (count * mean - amount) / n;
+        return new SpendStats(n, newMean, Math.max(0, m2 - (amount - mean) * (amount - newMean)));
+    }
+
+    double standardDeviation() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+    }
+
+    /**
+     * Standard deviations by which {@code amount} exceeds the mean.
+     */
+    double score(double amount) {
+        double spread = Math.max(standardDeviation(), Math.abs(mean) * MIN_RELATIVE_SPREAD);
+        return spread > 0 ? (amount - mean) / spread : 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.expense_ai_backend.budget;
+
+import java.math.BigDecimal;
+
+/**
+ * A user's monthly spending limit for one category. {@code limitUnits} and
+ * {@code thresholdUnits} are fixed-point like the rollups, the latter one per configured
+ * threshold in ascending order, so a write compares longs only.
+ */
+public record Budget(String userId, String category, BigDecimal monthlyLimit, long limitUnits,
+                     long[] thresholdUnits) {
+}
@@ -0,0 +1,13 @@
+package com.example.expense_ai_backend.budget;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Raised when a write took a user's spend in a category and month past {@code threshold} of
+ * its budget; {@code spent} is the month's spend right after the write of {@code expenseId}.
+ */
+public record BudgetAlert(long sequence, String userId, String category, YearMonth month, double threshold,
+                          BigDecimal spent, BigDecimal monthlyLimit, long expenseId, LocalDateTime raisedAt) {
+}
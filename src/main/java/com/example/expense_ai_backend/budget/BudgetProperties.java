@@ -0,0 +1,24 @@
+package com.example.expense_ai_backend.budget;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Settings for monthly category budgets ({@code expense.budget.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.budget")
+public class BudgetProperties {
+
+    /**
+     * Fractions of a budget whose crossing raises an alert; 1.0 is the budget itself.
+     */
+    private List<Double> thresholds = List.of(0.8, 1.0);
+
+    /**
+     * Alerts kept per user; past it the oldest are dropped first.
+     */
+    private int maxAlertsPerUser = 100;
+}
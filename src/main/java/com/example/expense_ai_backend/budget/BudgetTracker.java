@@ -0,0 +1,320 @@
+package com.example.expense_ai_backend.budget;
+
+import com.example.expense_ai_backend.aggregate.ExpenseRollupStore;
+import com.example.expense_ai_backend.aggregate.RollupGranularity;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monthly category budgets and the month-to-date spend they are checked against, kept up to date
+ * from the repository write path like {@link ExpenseRollupStore}, so imports and journal replay
+ * count as well as API writes.
+ *
+ * Spend is a fixed-point counter per (user, category, month) with expenses, whether or not it has
+ * a budget yet, so a budget created mid-month starts from the month's real spend. A write adjusts
+ * one counter with {@link ConcurrentHashMap#compute}, which hands back the spend before and after
+ * it atomically; the write raises an alert if that step passed a threshold of the pair's budget,
+ * one comparison per configured threshold. Each crossing is therefore seen by exactly one write,
+ * and budget status is a map lookup, never a scan of expenses. The alert is held by the writing
+ * thread until the write commits, so a write that fails and is reverted raises none.
+ *
+ * Only writes that raise spend alert; spend that falls back below a threshold alerts again the
+ * next time it crosses it. When one write passes several thresholds only the highest is raised.
+ * Budgets and alerts are kept in memory only.
+ */
+@Component
+public class BudgetTracker implements ExpenseChangeListener {
+
+    private final double[] thresholds;
+
+    private final int maxAlertsPerUser;
+
+    private final ConcurrentHashMap<SpendKey, Long> spend = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Budget>> budgetsByUser =
+            new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<Long, BudgetAlert>> alertsByUser =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong alertSequence = new AtomicLong();
+
+    // Alerts of this thread's writes that have not committed yet, by expense id
+    private final ThreadLocal<Map<Long, PendingAlert>> pending = ThreadLocal.withInitial(HashMap::new);
+
+    public BudgetTracker(List<Double> thresholds, int maxAlertsPerUser) {
+        this.thresholds = thresholds.stream().mapToDouble(Double::doubleValue).sorted().distinct().toArray();
+        for (double threshold : this.thresholds) {
+            if (!(threshold > 0)) {
+                throw new IllegalArgumentException("Budget thresholds must be positive, got: " + threshold);
+            }
+        }
+        this.maxAlertsPerUser = maxAlertsPerUser;
+    }
+
+    @Autowired
+    public BudgetTracker(BudgetProperties properties) {
+        this(properties.getThresholds(), properties.getMaxAlertsPerUser());
+    }
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        // Left behind by an earlier write of this expense that never committed
+        pending.get().remove(current.getId());
+        move(previous, current, true);
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        move(removed, null, false);
+    }
+
+    @Override
+    public void onExpenseSaveReverted(Expense previous, Expense current) {
+        pending.get().remove(current.getId());
+        move(current, previous, false);
+    }
+
+    @Override
+    public void onExpenseDeleteReverted(Expense removed) {
+        move(null, removed, false);
+    }
+
+    @Override
+    public void afterExpenseSaved(Expense previous, Expense current) {
+        PendingAlert alert = pending.get().remove(current.getId());
+        if (alert != null) {
+            raise(new BudgetAlert(alertSequence.incrementAndGet(), alert.key().userId(), alert.key().category(),
+                    month(alert.key().month()), alert.threshold(), ExpenseRollupStore.toAmount(alert.spentUnits()),
+                    alert.monthlyLimit(), alert.expenseId(), LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Creates the user's budget for the category, unless there already is one.
+     *
+     * @return the new budget, or {@code null} if the category already had a budget
+     */
+    public Budget createBudget(String userId, String category, BigDecimal monthlyLimit) {
+        Budget budget = budget(userId, category, monthlyLimit);
+        Budget existing = budgetsByUser.computeIfAbsent(userId, user -> new ConcurrentHashMap<>())
+                .putIfAbsent(category, budget);
+        return existing == null ? budget : null;
+    }
+
+    /**
+     * Changes the limit of an existing budget.
+     *
+     * @return the updated budget, or {@code null} if the category has no budget
+     */
+    public Budget updateBudget(String userId, String category, BigDecimal monthlyLimit) {
+        Map<String, Budget> budgets = budgetsByUser.get(userId);
+        if (budgets == null) {
+            return null;
+        }
+        Budget budget = budget(userId, category, monthlyLimit);
+        return budgets.replace(category, budget) != null ? budget : null;
+    }
+
+    /**
+     * @return whether the category had a budget
+     */
+    public boolean deleteBudget(String userId, String category) {
+        Map<String, Budget> budgets = budgetsByUser.get(userId);
+        return budgets != null && budgets.remove(category) != null;
+    }
+
+    public Budget getBudget(String userId, String category) {
+        Map<String, Budget> budgets = budgetsByUser.get(userId);
+        return budgets == null ? null : budgets.get(category);
+    }
+
+    /**
+     * The user's budgets, by category.
+     */
+    public List<Budget> getBudgets(String userId) {
+        Map<String, Budget> budgets = budgetsByUser.get(userId);
+        if (budgets == null) {
+            return List.of();
+        }
+        List<Budget> sorted = new ArrayList<>(budgets.values());
+        sorted.sort(Comparator.comparing(Budget::category));
+        return sorted;
+    }
+
+    /**
+     * What the user has spent in the category during the month, in fixed-point units
+     * (see {@link ExpenseRollupStore#toAmount}).
+     */
+    public long spentUnits(String userId, String category, YearMonth month) {
+        Long units = spend.get(new SpendKey(userId, category, monthCode(month)));
+        return units == null ? 0 : units;
+    }
+
+    /**
+     * The highest threshold {@code spentUnits} has reached of the budget, or {@code null} if none.
+     */
+    public Double thresholdReached(Budget budget, long spentUnits) {
+        long[] thresholdUnits = budget.thresholdUnits();
+        for (int i = thresholdUnits.length - 1; i >= 0; i--) {
+            if (spentUnits >= thresholdUnits[i]) {
+                return thresholds[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Up to {@code limit} of the user's alerts, most recent first.
+     */
+    public List<BudgetAlert> alerts(String userId, int limit) {
+        ConcurrentSkipListMap<Long, BudgetAlert> userAlerts = alertsByUser.get(userId);
+        if (userAlerts == null) {
+            return List.of();
+        }
+        List<BudgetAlert> alerts = new ArrayList<>(Math.min(limit, 64));
+        Iterator<BudgetAlert> newestFirst = userAlerts.descendingMap().values().iterator();
+        while (alerts.size() < limit && newestFirst.hasNext()) {
+            alerts.add(newestFirst.next());
+        }
+        return alerts;
+    }
+
+    /**
+     * Number of budgets across all users.
+     */
+    public int budgetCount() {
+        int count = 0;
+        for (Map<String, Budget> budgets : budgetsByUser.values()) {
+            count += budgets.size();
+        }
+        return count;
+    }
+
+    /**
+     * Number of alerts raised since startup, including ones since dropped.
+     */
+    public long alertCount() {
+        return alertSequence.get();
+    }
+
+    /**
+     * Moves an expense's spend from {@code from} to {@code to} (either may be null), checking the
+     * budget for the spend it adds when {@code alerting}.
+     */
+    private void move(Expense from, Expense to, boolean alerting) {
+        SpendKey toKey = to == null ? null : SpendKey.of(to);
+        if (from != null) {
+            SpendKey fromKey = SpendKey.of(from);
+            if (to != null && Objects.equals(fromKey, toKey)) {
+                // Same counter: apply the difference in one step, so a raised amount is not seen
+                // as dropping below a threshold and crossing it again
+                if (toKey != null) {
+                    add(toKey, ExpenseRollupStore.toUnits(to.getAmount())
+                            - ExpenseRollupStore.toUnits(from.getAmount()), to.getId(), alerting);
+                }
+                return;
+            }
+            if (fromKey != null) {
+                add(fromKey, -ExpenseRollupStore.toUnits(from.getAmount()), from.getId(), false);
+            }
+        }
+        if (toKey != null) {
+            add(toKey, ExpenseRollupStore.toUnits(to.getAmount()), to.getId(), alerting);
+        }
+    }
+
+    private void add(SpendKey key, long delta, Long expenseId, boolean alerting) {
+        long[] before = new long[1];
+        Long after = spend.compute(key, (k, units) -> {
+            before[0] = units == null ? 0 : units;
+            long total = before[0] + delta;
+            return total == 0 ? null : total;
+        });
+        if (alerting && delta > 0) {
+            check(key, before[0], after == null ? 0 : after, expenseId);
+        }
+    }
+
+    private void check(SpendKey key, long before, long after, Long expenseId) {
+        Budget budget = getBudget(key.userId(), key.category());
+        if (budget == null) {
+            return;
+        }
+        long[] thresholdUnits = budget.thresholdUnits();
+        for (int i = thresholdUnits.length - 1; i >= 0; i--) {
+            if (before < thresholdUnits[i] && after >= thresholdUnits[i]) {
+                pending.get().put(expenseId, new PendingAlert(key, thresholds[i], after, budget.monthlyLimit(),
+                        expenseId == null ? 0 : expenseId));
+                return;
+            }
+            if (after >= thresholdUnits[i]) {
+                // Already past this one before the write, so past every lower one as well
+                return;
+            }
+        }
+    }
+
+    private void raise(BudgetAlert alert) {
+        ConcurrentSkipListMap<Long, BudgetAlert> userAlerts =
+                alertsByUser.computeIfAbsent(alert.userId(), user -> new ConcurrentSkipListMap<>());
+        userAlerts.put(alert.sequence(), alert);
+        while (userAlerts.size() > maxAlertsPerUser) {
+            userAlerts.pollFirstEntry();
+        }
+    }
+
+    private Budget budget(String userId, String category, BigDecimal monthlyLimit) {
+        long limitUnits = ExpenseRollupStore.toUnits(monthlyLimit);
+        long[] thresholdUnits = new long[thresholds.length];
+        for (int i = 0; i < thresholds.length; i++) {
+            thresholdUnits[i] = BigDecimal.valueOf(limitUnits).multiply(BigDecimal.valueOf(thresholds[i]))
+                    .setScale(0, RoundingMode.CEILING).longValueExact();
+        }
+        return new Budget(userId, category, monthlyLimit, limitUnits, thresholdUnits);
+    }
+
+    private static int monthCode(YearMonth month) {
+        return RollupGranularity.MONTH.bucketOf(month.atDay(1));
+    }
+
+    private static YearMonth month(int code) {
+        return YearMonth.from(RollupGranularity.MONTH.startOf(code));
+    }
+
+    private record PendingAlert(SpendKey key, double threshold, long spentUnits, BigDecimal monthlyLimit,
+                                long expenseId) {
+    }
+
+    private record SpendKey(String userId, String category, int month) {
+
+        /**
+         * The counter an expense adds to, or {@code null} if it lacks a field budgets need.
+         */
+        static SpendKey of(Expense expense) {
+            if (expense.getUserId() == null || expense.getCategory() == null
+                    || expense.getAmount() == null || expense.getDate() == null) {
+                return null;
+            }
+            return new SpendKey(expense.getUserId(), expense.getCategory(),
+                    RollupGranularity.MONTH.bucketOf(expense.getDate().toLocalDate()));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.expense_ai_backend.cache;
+
+import com.example.expense_ai_backend.repository.ExpenseChangeCounters;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache of service-layer query results (DTO lists and summaries), for a read-mostly
+ * workload where the same listings are rebuilt far more often than the data changes.
+ *
+ * Every entry is stamped with the repository change counters of its scope (user, category, both,
+ * or the whole store), sampled before the result was computed. A lookup whose stamp no longer
+ * matches is a miss, so a write through any path (service, bulk import, journal replay) can never
+ * be followed by a stale hit, and a write only affects entries whose scope it touched. Writes made
+ * through the service additionally {@link #invalidate} their scopes so dead entries free their
+ * weight right away.
+ *
+ * Entries live in segments chosen by scope, each an access-ordered map under its own lock with an
+ * equal share of the weight budget; the least recently used entries of a segment are evicted once
+ * it is over budget. An entry weighs its row count plus one.
+ */
+@Component
+public class ExpenseResultCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final ExpenseChangeCounters changeCounters;
+
+    private final long segmentBudget;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ExpenseResultCache(ExpenseChangeCounters changeCounters, long maxWeight) {
+        this.changeCounters = changeCounters;
+        this.segmentBudget = maxWeight / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Autowired
+    public ExpenseResultCache(ExpenseRepository expenseRepository, ResultCacheProperties properties) {
+        this(expenseRepository.changeCounters(), properties.getMaxWeight());
+    }
+
+    /**
+     * Returns the cached result for {@code key} if its scope is unchanged since it was computed,
+     * otherwise computes it with {@code loader} and caches it. Results are shared between callers
+     * and must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ResultCacheKey key, Supplier<T> loader, ToIntFunction<T> rows) {
+        // Sample before loading: a write racing with the load leaves an already-outdated stamp
+        Stamp stamp = stamp(key);
+        Segment segment = segmentFor(key.scope());
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(key);
+            if (entry != null) {
+                if (entry.stamp.equals(stamp)) {
+                    hits.increment();
+                    return (T) entry.value;
+                }
+                segment.remove(key);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        misses.increment();
+        T value = loader.get();
+        long weight = rows.applyAsInt(value) + 1L;
+        if (weight <= segmentBudget) {
+            segment.lock.lock();
+            try {
+                segment.put(key, new Entry(value, weight, stamp));
+                while (segment.weight > segmentBudget) {
+                    Iterator<ResultCacheKey> eldest = segment.entries.keySet().iterator();
+                    segment.remove(eldest.next());
+                    evictions.increment();
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entries a write to an expense of this user and category can affect: the user's,
+     * the category's, the pair's and the store-wide ones. Entries scoped to the same user with a
+     * different category are left to fail their stamp check on next use.
+     */
+    public void invalidate(String userId, String category) {
+        invalidate(new ResultCacheKey.Scope(null, null));
+        if (userId != null) {
+            invalidate(new ResultCacheKey.Scope(userId, null));
+        }
+        if (category != null) {
+            invalidate(new ResultCacheKey.Scope(null, category));
+        }
+        if (userId != null && category != null) {
+            invalidate(new ResultCacheKey.Scope(userId, category));
+        }
+    }
+
+    public ResultCacheStats stats() {
+        long entries = 0;
+        long weight = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                entries += segment.entries.size();
+                weight += segment.weight;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new ResultCacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), entries, weight);
+    }
+
+    private void invalidate(ResultCacheKey.Scope scope) {
+        Segment segment = segmentFor(scope);
+        segment.lock.lock();
+        try {
+            Set<ResultCacheKey> keys = segment.keysByScope.get(scope);
+            if (keys != null) {
+                for (ResultCacheKey key : Set.copyOf(keys)) {
+                    segment.remove(key);
+                    invalidations.increment();
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private Stamp stamp(ResultCacheKey key) {
+        if (key.userId() == null && key.category() == null) {
+            return new Stamp(changeCounters.global(), 0);
+        }
+        return new Stamp(key.userId() == null ? 0 : changeCounters.user(key.userId()),
+                key.category() == null ? 0 : changeCounters.category(key.category()));
+    }
+
+    private Segment segmentFor(ResultCacheKey.Scope scope) {
+        int hash = scope.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Stamp(long first, long second) {
+    }
+
+    private record Entry(Object value, long weight, Stamp stamp) {
+    }
+
+    /**
+     * Guarded by {@code lock}; {@code keysByScope} indexes the entries so a scope can be dropped
+     * without scanning the segment.
+     */
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<ResultCacheKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private final Map<ResultCacheKey.Scope, Set<ResultCacheKey>> keysByScope = new HashMap<>();
+        private long weight;
+
+        void put(ResultCacheKey key, Entry entry) {
+            Entry replaced = entries.put(key, entry);
+            if (replaced != null) {
+                weight -= replaced.weight;
+            } else {
+                keysByScope.computeIfAbsent(key.scope(), scope -> new HashSet<>()).add(key);
+            }
+            weight += entry.weight;
+        }
+
+        void remove(ResultCacheKey key) {
+            Entry removed = entries.remove(key);
+            if (removed == null) {
+                return;
+            }
+            weight -= removed.weight;
+            Set<ResultCacheKey> keys = keysByScope.get(key.scope());
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByScope.remove(key.scope());
+            }
+        }
+    }
+}
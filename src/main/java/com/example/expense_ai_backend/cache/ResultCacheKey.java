@@ -0,0 +1,21 @@
+package com.example.expense_ai_backend.cache;
+
+/**
+ * Identifies one cached result. {@code userId} and {@code category} are the scope the result
+ * depends on (either or both may be {@code null}; both {@code null} means the whole store), and
+ * decide which change counters validate it. {@code params} distinguishes results within a scope
+ * and must have value equality.
+ */
+public record ResultCacheKey(String query, String userId, String category, Object params) {
+
+    public static ResultCacheKey of(String query, String userId, String category) {
+        return new ResultCacheKey(query, userId, category, null);
+    }
+
+    Scope scope() {
+        return new Scope(userId, category);
+    }
+
+    record Scope(String userId, String category) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.expense_ai_backend.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the service-layer result cache ({@code expense.cache.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.cache")
+public class ResultCacheProperties {
+
+    /**
+     * Total weight the cache may hold, roughly the number of result rows; 0 disables caching.
+     */
+    private long maxWeight = 200_000;
+}
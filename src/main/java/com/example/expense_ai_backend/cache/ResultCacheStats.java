@@ -0,0 +1,10 @@
+package com.example.expense_ai_backend.cache;
+
+/**
+ * Point-in-time counters of an {@link ExpenseResultCache}. {@code invalidations} counts entries
+ * dropped because a write touched their scope, {@code evictions} those dropped to stay within
+ * the weight budget.
+ */
+public record ResultCacheStats(long hits, long misses, long evictions, long invalidations, long entries,
+                               long weight) {
+}
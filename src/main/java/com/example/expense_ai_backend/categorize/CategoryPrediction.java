@@ -0,0 +1,7 @@
+package com.example.expense_ai_backend.categorize;
+
+/**
+ * A predicted category and the model's probability for it, between 0 and 1.
+ */
+public record CategoryPrediction(String category, double confidence) {
+}
@@ -0,0 +1,232 @@
+package com.example.expense_ai_backend.categorize;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import com.example.expense_ai_backend.search.ExpenseSearchIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multinomial naive Bayes model that predicts an expense's category from its description, trained
+ * from the repository write path: every stored expense is a training example, updates retrain it
+ * in place and deletes unlearn it. Journal replay trains it like any other write, so it is warm
+ * as soon as the store is.
+ *
+ * Features are the description's words (as tokenized by {@link ExpenseSearchIndex}), hashed
+ * together with the category into one fixed table of counters, so memory does not grow with the
+ * vocabulary. Counters are updated with atomic adds; a prediction racing with a write may see it
+ * half applied, which only nudges the scores.
+ *
+ * A prediction allocates nothing beyond tokenizing the description and scores every category in
+ * O(#words): {@code log P(c) + sum log P(w|c)} with add-one smoothing, turned into probabilities
+ * with a softmax. Words no expense has used are ignored.
+ */
+@Component
+public class ExpenseCategorizer implements ExpenseChangeListener {
+
+    // 4 MiB of (category, word) counters
+    private static final int FEATURE_BITS = 20;
+    // 1 MiB of word counters, to tell seen words from unseen ones and estimate the vocabulary size
+    private static final int VOCABULARY_BITS = 18;
+
+    private final AtomicIntegerArray featureCounts = new AtomicIntegerArray(1 << FEATURE_BITS);
+
+    private final AtomicIntegerArray wordCounts = new AtomicIntegerArray(1 << VOCABULARY_BITS);
+
+    private final AtomicInteger vocabularySize = new AtomicInteger();
+
+    private final ConcurrentHashMap<String, CategoryStats> byName = new ConcurrentHashMap<>();
+
+    // Append-only copy of byName's values, iterated by predictions without allocating
+    private volatile CategoryStats[] categories = new CategoryStats[0];
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        if (previous != null) {
+            if (Objects.equals(previous.getDescription(), current.getDescription())
+                    && Objects.equals(previous.getCategory(), current.getCategory())) {
+                return;
+            }
+            learn(previous, -1);
+        }
+        learn(current, 1);
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        learn(removed, -1);
+    }
+
+    /**
+     * Most likely category for the description, or null before any expense has been stored.
+     */
+    public CategoryPrediction predict(String description) {
+        List<String> words = ExpenseSearchIndex.tokenize(description);
+        int vocabulary = Math.max(1, vocabularySize.get());
+        String best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        // Running log-sum-exp: sum of exp(score - max) over the categories scored so far
+        double sum = 0;
+        for (CategoryStats stats : categories) {
+            if (stats.documents.get() <= 0) {
+                continue;
+            }
+            double score = score(stats, words, vocabulary);
+            if (score > bestScore) {
+                sum = sum * Math.exp(bestScore - score) + 1;
+                bestScore = score;
+                best = stats.name;
+            } else {
+                sum += Math.exp(score - bestScore);
+            }
+        }
+        return best == null ? null : new CategoryPrediction(best, 1 / sum);
+    }
+
+    /**
+     * Up to {@code limit} most likely categories for the description, most likely first.
+     */
+    public List<CategoryPrediction> predict(String description, int limit) {
+        List<String> words = ExpenseSearchIndex.tokenize(description);
+        int vocabulary = Math.max(1, vocabularySize.get());
+        CategoryStats[] snapshot = categories;
+        String[] names = new String[snapshot.length];
+        double[] scores = new double[snapshot.length];
+        int scored = 0;
+        double max = Double.NEGATIVE_INFINITY;
+        for (CategoryStats stats : snapshot) {
+            if (stats.documents.get() <= 0) {
+                continue;
+            }
+            names[scored] = stats.name;
+            scores[scored] = score(stats, words, vocabulary);
+            max = Math.max(max, scores[scored]);
+            scored++;
+        }
+        double sum = 0;
+        for (int i = 0; i < scored; i++) {
+            sum += Math.exp(scores[i] - max);
+        }
+        List<CategoryPrediction> predictions = new ArrayList<>(scored);
+        for (int i = 0; i < scored; i++) {
+            predictions.add(new CategoryPrediction(names[i], Math.exp(scores[i] - max) / sum));
+        }
+        predictions.sort((a, b) -> Double.compare(b.confidence(), a.confidence()));
+        return predictions.subList(0, Math.min(limit, predictions.size()));
+    }
+
+    /**
+     * Number of categories with at least one training example.
+     */
+    public int categoryCount() {
+        int count = 0;
+        for (CategoryStats stats : categories) {
+            if (stats.documents.get() > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Unnormalized log posterior of the category: log prior plus the smoothed log likelihood of
+     * each seen word. The prior's shared denominator cancels in the softmax and is left out.
+     */
+    private double score(CategoryStats stats, List<String> words, int vocabulary) {
+        double wordDenominator = Math.log(stats.words.get() + (double) vocabulary);
+        double score = Math.log(stats.documents.get());
+        for (int i = 0; i < words.size(); i++) {
+            int hash = words.get(i).hashCode();
+            if (wordCounts.get(vocabularySlot(hash)) <= 0) {
+                continue;
+            }
+            int count = Math.max(0, featureCounts.get(featureSlot(stats.index, hash)));
+            score += Math.log(count + 1.0) - wordDenominator;
+        }
+        return score;
+    }
+
+    private void learn(Expense expense, int delta) {
+        String category = expense.getCategory();
+        if (category == null) {
+            return;
+        }
+        CategoryStats stats = delta > 0 ? register(category) : byName.get(category);
+        if (stats == null) {
+            return;
+        }
+        List<String> words = ExpenseSearchIndex.tokenize(expense.getDescription());
+        for (String word : words) {
+            int hash = word.hashCode();
+            featureCounts.addAndGet(featureSlot(stats.index, hash), delta);
+            int count = wordCounts.addAndGet(vocabularySlot(hash), delta);
+            if (delta > 0 && count == 1) {
+                vocabularySize.incrementAndGet();
+            } else if (delta < 0 && count == 0) {
+                vocabularySize.decrementAndGet();
+            }
+        }
+        stats.words.addAndGet((long) delta * words.size());
+        stats.documents.addAndGet(delta);
+    }
+
+    private CategoryStats register(String category) {
+        CategoryStats stats = byName.get(category);
+        if (stats != null) {
+            return stats;
+        }
+        synchronized (this) {
+            stats = byName.get(category);
+            if (stats == null) {
+                CategoryStats[] current = categories;
+                stats = new CategoryStats(category, current.length);
+                CategoryStats[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = stats;
+                categories = grown;
+                byName.put(category, stats);
+            }
+            return stats;
+        }
+    }
+
+    private static int featureSlot(int categoryIndex, int wordHash) {
+        return mix(wordHash + categoryIndex * 0x9E3779B9) & ((1 << FEATURE_BITS) - 1);
+    }
+
+    private static int vocabularySlot(int wordHash) {
+        return mix(wordHash) & ((1 << VOCABULARY_BITS) - 1);
+    }
+
+    /**
+     * Murmur3 finalizer, so that similar words and neighbouring categories spread over the table.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class CategoryStats {
+
+        private final String name;
+        private final int index;
+        // Training examples and total words seen for the category
+        private final AtomicLong documents = new AtomicLong();
+        private final AtomicLong words = new AtomicLong();
+
+        private CategoryStats(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.expense_ai_backend.codec;
+
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.BIG_AMOUNT;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.END;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HAS_AMOUNT;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HAS_CATEGORY;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HAS_DATE;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HAS_DESCRIPTION;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HAS_ID;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HAS_USER_ID;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.HEADER;
+import static com.example.expense_ai_backend.codec.ExpenseBinaryWriter.RECORD;
+
+/**
+ * Reads the format written by {@link ExpenseBinaryWriter}, one expense at a time.
+ */
+public final class ExpenseBinaryReader {
+
+    private final InputStream in;
+
+    private byte[] strings = new byte[256];
+
+    public ExpenseBinaryReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in);
+        byte[] header = new byte[HEADER.length];
+        readFully(header, header.length);
+        if (!Arrays.equals(header, HEADER)) {
+            throw new IOException("Not an expense stream, or an unsupported version: " + Arrays.toString(header));
+        }
+    }
+
+    /**
+     * The next expense, or null once the stream has ended.
+     */
+    public ExpenseResponseDTO next() throws IOException {
+        int flags = readByte();
+        if (flags == END) {
+            return null;
+        }
+        if ((flags & RECORD) == 0) {
+            throw new IOException("Malformed expense stream: flags " + flags);
+        }
+        Long id = (flags & HAS_ID) != 0 ? readSigned() : null;
+        String description = (flags & HAS_DESCRIPTION) != 0 ? readString() : null;
+        BigDecimal amount = null;
+        if ((flags & HAS_AMOUNT) != 0) {
+            int scale = (int) readSigned();
+            if ((flags & BIG_AMOUNT) != 0) {
+                byte[] unscaled = new byte[(int) readVarint()];
+                readFully(unscaled, unscaled.length);
+                amount = new BigDecimal(new BigInteger(unscaled), scale);
+            } else {
+                amount = BigDecimal.valueOf(readSigned(), scale);
+            }
+        }
+        String category = (flags & HAS_CATEGORY) != 0 ? readString() : null;
+        LocalDateTime date = null;
+        if ((flags & HAS_DATE) != 0) {
+            long epochSecond = readSigned();
+            date = LocalDateTime.ofEpochSecond(epochSecond, (int) readVarint(), ZoneOffset.UTC);
+        }
+        String userId = (flags & HAS_USER_ID) != 0 ? readString() : null;
+        long version = readSigned();
+        return new ExpenseResponseDTO(id, description, amount, category, date, userId, version);
+    }
+
+    private String readString() throws IOException {
+        int length = (int) readVarint();
+        if (strings.length < length) {
+            strings = new byte[Math.max(length, strings.length * 2)];
+        }
+        readFully(strings, length);
+        return new String(strings, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private long readSigned() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed expense stream: varint longer than 10 bytes");
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Expense stream ended without its end marker");
+        }
+        return b;
+    }
+
+    private void readFully(byte[] bytes, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int n = in.read(bytes, read, length - read);
+            if (n < 0) {
+                throw new EOFException("Expense stream ended without its end marker");
+            }
+            read += n;
+        }
+    }
+}
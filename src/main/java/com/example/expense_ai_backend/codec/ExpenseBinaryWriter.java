@@ -0,0 +1,261 @@
+package com.example.expense_ai_backend.codec;
+
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.model.Expense;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes expenses in the compact binary format served as {@code application/x-expense-binary},
+ * typically a third of the size of the same expenses as JSON and cheaper to produce and parse.
+ * {@link ExpenseBinaryReader} reads it back.
+ *
+ * A stream is the header {@code 'E' 'X' 'P' 1} (format version), the expenses, then a 0 byte.
+ * An expense starts with a flags byte: bit 7 is always set, so it is never 0, and bits 0-5 mark
+ * which of id, description, amount, category, date and userId are present. The present fields
+ * follow in that order, then the version:
+ *
+ * <ul>
+ *   <li>integers are LEB128 varints, zigzag-encoded when signed;</li>
+ *   <li>strings are a varint byte length, then UTF-8;</li>
+ *   <li>an amount is its scale (signed), then its unscaled value: a signed varint, or, if bit 6 of
+ *       the flags is set, a varint length and that many big-endian two's-complement bytes;</li>
+ *   <li>a date is its epoch second as if at UTC (signed), then its nanos.</li>
+ * </ul>
+ *
+ * Like {@link ExpenseJsonWriter}, it writes into its own buffer and, once an amount has been
+ * formatted, allocates nothing per expense. Not thread-safe.
+ */
+public final class ExpenseBinaryWriter {
+
+    static final byte[] HEADER = {'E', 'X', 'P', 1};
+
+    static final int RECORD = 0x80;
+    static final int HAS_ID = 1;
+    static final int HAS_DESCRIPTION = 1 << 1;
+    static final int HAS_AMOUNT = 1 << 2;
+    static final int HAS_CATEGORY = 1 << 3;
+    static final int HAS_DATE = 1 << 4;
+    static final int HAS_USER_ID = 1 << 5;
+    static final int BIG_AMOUNT = 1 << 6;
+
+    static final int END = 0;
+
+    // Longest single write: a flags byte and two 10-byte varints
+    private static final int MIN_BUFFER_SIZE = 32;
+
+    // Unscaled amounts of up to 18 digits always fit in a long
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    public ExpenseBinaryWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public ExpenseBinaryWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(MIN_BUFFER_SIZE, bufferSize)];
+    }
+
+    public void writeHeader() throws IOException {
+        ensure(HEADER.length);
+        System.arraycopy(HEADER, 0, buffer, position, HEADER.length);
+        position += HEADER.length;
+    }
+
+    public void write(Expense expense) throws IOException {
+        write(expense.getId(), expense.getDescription(), expense.getAmount(), expense.getCategory(),
+                expense.getDate(), expense.getUserId(), expense.getVersion());
+    }
+
+    public void write(ExpenseResponseDTO expense) throws IOException {
+        write(expense.getId(), expense.getDescription(), expense.getAmount(), expense.getCategory(),
+                expense.getDate(), expense.getUserId(), expense.getVersion());
+    }
+
+    public void writeEnd() throws IOException {
+        ensure(1);
+        buffer[position++] = END;
+    }
+
+    /**
+     * Writes what is buffered to the stream and flushes it.
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void write(Long id, String description, BigDecimal amount, String category, LocalDateTime date,
+                       String userId, long version) throws IOException {
+        // The unscaled amount, read from the decimal's cached string where it fits in a long
+        String amountText = amount == null ? null : amount.toString();
+        boolean bigAmount = amount != null && !fitsLong(amountText);
+
+        int flags = RECORD;
+        flags |= id != null ? HAS_ID : 0;
+        flags |= description != null ? HAS_DESCRIPTION : 0;
+        flags |= amount != null ? HAS_AMOUNT : 0;
+        flags |= category != null ? HAS_CATEGORY : 0;
+        flags |= date != null ? HAS_DATE : 0;
+        flags |= userId != null ? HAS_USER_ID : 0;
+        flags |= bigAmount ? BIG_AMOUNT : 0;
+
+        ensure(1);
+        buffer[position++] = (byte) flags;
+        if (id != null) {
+            writeSigned(id);
+        }
+        if (description != null) {
+            writeString(description);
+        }
+        if (amount != null) {
+            writeSigned(amount.scale());
+            if (bigAmount) {
+                byte[] unscaled = amount.unscaledValue().toByteArray();
+                writeVarint(unscaled.length);
+                writeBytes(unscaled);
+            } else {
+                writeSigned(parseUnscaled(amountText));
+            }
+        }
+        if (category != null) {
+            writeString(category);
+        }
+        if (date != null) {
+            writeSigned(date.toEpochSecond(ZoneOffset.UTC));
+            writeVarint(date.getNano());
+        }
+        if (userId != null) {
+            writeString(userId);
+        }
+        writeSigned(version);
+    }
+
+    /**
+     * Whether a {@link BigDecimal#toString()} is plain (no exponent) with at most 18 digits.
+     */
+    private static boolean fitsLong(String text) {
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return digits <= MAX_LONG_DIGITS;
+    }
+
+    /**
+     * The unscaled value of a plain decimal string: its digits with the point dropped.
+     */
+    private static long parseUnscaled(String text) {
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+            }
+        }
+        return text.charAt(0) == '-' ? -value : value;
+    }
+
+    private void writeString(String value) throws IOException {
+        int length = value.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeVarint(utf8Length);
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (position == buffer.length) {
+                    drain();
+                }
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: replaced, as String.getBytes would
+                if (position == buffer.length) {
+                    drain();
+                }
+                buffer[position++] = '?';
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeSigned(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarint(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        for (byte b : bytes) {
+            if (position == buffer.length) {
+                drain();
+            }
+            buffer[position++] = b;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.expense_ai_backend.codec;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.dto.ExpenseResponseList;
+import com.example.expense_ai_backend.model.Expense;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link Expense} and {@link ExpenseResponseDTO} responses, single or as a list (listings
+ * hand over the stored, cached records in an {@link ExpenseResponseList}, written as they are
+ * rather than as a DTO per row), with {@link ExpenseJsonWriter}
+ * for {@code application/json} and {@link ExpenseBinaryWriter} for
+ * {@code application/x-expense-binary}, whichever the Accept header prefers (JSON by default).
+ * Registered ahead of Jackson, which still writes every other response and reads request bodies.
+ */
+@Component
+public class ExpenseHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType EXPENSE_BINARY = MediaType.parseMediaType(AppConstant.EXPENSE_BINARY_MEDIA_TYPE);
+
+    public ExpenseHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON, EXPENSE_BINARY);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Expense.class.isAssignableFrom(clazz) || ExpenseResponseDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (supports(clazz)) {
+            return true;
+        }
+        // Lists only when declared as lists of expenses, whatever they hold at runtime
+        if (type == null || !List.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element == Expense.class || element == ExpenseResponseDTO.class;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof ExpenseResponseList stored) {
+            body = stored.expenses();
+        }
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (contentType != null && EXPENSE_BINARY.isCompatibleWith(contentType)) {
+            ExpenseBinaryWriter writer = new ExpenseBinaryWriter(outputMessage.getBody());
+            writer.writeHeader();
+            if (body instanceof List<?> expenses) {
+                for (Object expense : expenses) {
+                    write(writer, expense);
+                }
+            } else {
+                write(writer, body);
+            }
+            writer.writeEnd();
+            writer.flush();
+            return;
+        }
+
+        ExpenseJsonWriter writer = new ExpenseJsonWriter(outputMessage.getBody());
+        if (body instanceof List<?> expenses) {
+            writer.beginArray();
+            for (Object expense : expenses) {
+                write(writer, expense);
+            }
+            writer.endArray();
+        } else {
+            write(writer, body);
+        }
+        writer.flush();
+    }
+
+    private static void write(ExpenseBinaryWriter writer, Object expense) throws IOException {
+        if (expense instanceof Expense stored) {
+            writer.write(stored);
+        } else {
+            writer.write((ExpenseResponseDTO) expense);
+        }
+    }
+
+    private static void write(ExpenseJsonWriter writer, Object expense) throws IOException {
+        if (expense instanceof Expense stored) {
+            writer.write(stored);
+        } else {
+            writer.write((ExpenseResponseDTO) expense);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Expenses are not read with this converter", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Expenses are not read with this converter", inputMessage);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.expense_ai_backend.codec;
+
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.model.Expense;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes expenses as JSON straight into a byte buffer in front of an output stream, with the
+ * fields, values and escaping Jackson gives {@link ExpenseResponseDTO} by default.
+ *
+ * On large listings reflective serialization and the formatting of dates and amounts dominate
+ * the CPU profile, so each field is written directly instead: dates digit by digit (ISO-8601,
+ * like {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}), amounts from {@link BigDecimal#toString()},
+ * which a decimal computes once and caches, and strings escaped and encoded to UTF-8 in one pass.
+ * Writing an expense whose amount has been formatted before allocates nothing.
+ *
+ * Write a JSON array with {@link #beginArray()} / {@link #endArray()}, or NDJSON by following
+ * each expense with {@link #newline()}. Not thread-safe.
+ */
+public final class ExpenseJsonWriter {
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] DESCRIPTION = ascii(",\"description\":");
+    private static final byte[] AMOUNT = ascii(",\"amount\":");
+    private static final byte[] CATEGORY = ascii(",\"category\":");
+    private static final byte[] DATE = ascii(",\"date\":");
+    private static final byte[] USER_ID = ascii(",\"userId\":");
+    private static final byte[] VERSION = ascii(",\"version\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    // Longest single write: a quoted date with nanos
+    private static final int MIN_BUFFER_SIZE = 32;
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private boolean inArray;
+
+    private boolean firstInArray;
+
+    public ExpenseJsonWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public ExpenseJsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(MIN_BUFFER_SIZE, bufferSize)];
+    }
+
+    public void beginArray() throws IOException {
+        writeByte('[');
+        inArray = true;
+        firstInArray = true;
+    }
+
+    public void endArray() throws IOException {
+        writeByte(']');
+        inArray = false;
+    }
+
+    public void newline() throws IOException {
+        writeByte('\n');
+    }
+
+    public void write(Expense expense) throws IOException {
+        write(expense.getId(), expense.getDescription(), expense.getAmount(), expense.getCategory(),
+                expense.getDate(), expense.getUserId(), expense.getVersion());
+    }
+
+    public void write(ExpenseResponseDTO expense) throws IOException {
+        write(expense.getId(), expense.getDescription(), expense.getAmount(), expense.getCategory(),
+                expense.getDate(), expense.getUserId(), expense.getVersion());
+    }
+
+    /**
+     * Writes what is buffered to the stream and flushes it.
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void write(Long id, String description, BigDecimal amount, String category, LocalDateTime date,
+                       String userId, long version) throws IOException {
+        if (inArray) {
+            if (!firstInArray) {
+                writeByte(',');
+            }
+            firstInArray = false;
+        }
+        writeBytes(ID);
+        if (id == null) {
+            writeBytes(NULL);
+        } else {
+            writeLong(id);
+        }
+        writeBytes(DESCRIPTION);
+        writeString(description);
+        writeBytes(AMOUNT);
+        if (amount == null) {
+            writeBytes(NULL);
+        } else {
+            writeAscii(amount.toString());
+        }
+        writeBytes(CATEGORY);
+        writeString(category);
+        writeBytes(DATE);
+        writeDate(date);
+        writeBytes(USER_ID);
+        writeString(userId);
+        writeBytes(VERSION);
+        writeLong(version);
+        writeByte('}');
+    }
+
+    private void writeDate(LocalDateTime date) throws IOException {
+        if (date == null) {
+            writeBytes(NULL);
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed or five-digit years; far outside any real expense
+            writeByte('"');
+            writeAscii(date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            writeByte('"');
+            return;
+        }
+        ensure(31);
+        byte[] buf = buffer;
+        int p = position;
+        buf[p++] = '"';
+        p = digits(buf, p, year, 4);
+        buf[p++] = '-';
+        p = digits(buf, p, date.getMonthValue(), 2);
+        buf[p++] = '-';
+        p = digits(buf, p, date.getDayOfMonth(), 2);
+        buf[p++] = 'T';
+        p = digits(buf, p, date.getHour(), 2);
+        buf[p++] = ':';
+        p = digits(buf, p, date.getMinute(), 2);
+        buf[p++] = ':';
+        p = digits(buf, p, date.getSecond(), 2);
+        int nano = date.getNano();
+        if (nano != 0) {
+            // As few fraction digits as the value needs, like ISO_LOCAL_DATE_TIME
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buf[p++] = '.';
+            p = digits(buf, p, nano, width);
+        }
+        buf[p++] = '"';
+        position = p;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+            return;
+        }
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    if (position == buffer.length) {
+                        drain();
+                    }
+                    buffer[position++] = (byte) c;
+                } else {
+                    writeEscape(c);
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: replaced, as String.getBytes would
+                writeByte('?');
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) throws IOException {
+        ensure(6);
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            case '\b' -> buffer[position++] = 'b';
+            case '\f' -> buffer[position++] = 'f';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int width = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            width++;
+        }
+        int p = position + width;
+        position = p;
+        do {
+            buffer[--p] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+    }
+
+    /**
+     * Writes {@code value} as exactly {@code width} digits, zero-padded, at {@code p}.
+     */
+    private static int digits(byte[] buf, int p, int value, int width) {
+        for (int i = p + width - 1; i >= p; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + width;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (position == buffer.length) {
+                drain();
+            }
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -9,21 +9,102 @@ public class AppConstant {
     public static final String EXPENSE_BY_CATEGORY = "/category/{category}";
     public static final String EXPENSE_COUNT = "/count";
     public static final String EXPENSE_SUMMARY_CATEGORIES = "/summary/categories";
+    public static final String EXPENSE_SUMMARY_TIMESERIES = "/summary/timeseries";
+    public static final String EXPENSE_SUMMARY_QUANTILES = "/summary/quantiles";
+    public static final String EXPENSE_IMPORT = "/import";
+    public static final String EXPENSE_EXPORT = "/export";
+    public static final String EXPENSE_SEARCH = "/search";
+    public static final String EXPENSE_CATEGORIZE = "/categorize";
+    public static final String EXPENSE_ANOMALIES = "/anomalies";
+    public static final String EXPENSE_CHANGES = "/changes";
+    public static final String EXPENSE_BUDGETS = "/budgets";
+    public static final String EXPENSE_BUDGET_BY_CATEGORY = "/budgets/{category}";
+    public static final String EXPENSE_BUDGET_ALERTS = "/budget-alerts";
 
     // Response Messages
     public static final String EXPENSE_CREATED = "Expense created successfully with ID: ";
     public static final String EXPENSE_UPDATED = "Expense updated successfully with ID: ";
     public static final String EXPENSE_DELETED = "Expense deleted successfully with ID: ";
+    public static final String BUDGET_CREATED = "Budget created successfully for category: ";
+    public static final String BUDGET_UPDATED = "Budget updated successfully for category: ";
+    public static final String BUDGET_DELETED = "Budget deleted successfully for category: ";
 
     // Exception Messages
     public static final String EXPENSE_NOT_FOUND = "Expense not found with id: ";
+    public static final String BUDGET_NOT_FOUND = "Budget not found for category: ";
+    public static final String BUDGET_EXISTS = "A budget already exists for category: ";
+    public static final String INVALID_MONTH = "Month must be formatted as yyyy-MM, got: ";
+    public static final String EXPENSE_VERSION_CONFLICT = "Expense was modified by another request, id: ";
+    public static final String INVALID_IF_MATCH = "If-Match must be a quoted expense version, got: ";
     public static final String INVALID_EXPENSE_DATA = "Invalid expense data provided";
     public static final String EXPENSE_ID_REQUIRED = "Expense ID is required";
+    public static final String INVALID_CURSOR = "Invalid pagination cursor: ";
+    public static final String INVALID_SORT = "Sort must be one of 'id' or 'date', got: ";
+    public static final String INVALID_DIRECTION = "Direction must be one of 'asc' or 'desc', got: ";
+    public static final String INVALID_DATE_RANGE = "'from' must be before 'to'";
+    public static final String INVALID_GRANULARITY = "Granularity must be one of 'day', 'month' or 'year', got: ";
+    public static final String CATEGORY_REQUIRED = "Category is required until expenses have been stored to learn categories from";
+    public static final String INVALID_IDEMPOTENCY_KEY = "Idempotency-Key must be 1 to " + AppConstant.MAX_IDEMPOTENCY_KEY_LENGTH + " characters";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used for a different request: ";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "A request with this Idempotency-Key is still in progress: ";
+    public static final String INVALID_QUANTILE = "Quantiles must be between 0 and 1, got: ";
+    public static final String SEARCH_TERM_TOO_SHORT = "Search terms must be at least " + AppConstant.MIN_SEARCH_TERM_LENGTH + " characters, got: ";
+    public static final String RATE_LIMITED = "Request rate limit exceeded for: ";
+    public static final String OVERLOADED = "Server is overloaded, retry later";
+    public static final String TOO_MANY_BUCKETS = "Time series must not span more than " + AppConstant.MAX_ROLLUP_BUCKETS + " buckets";
 
     // Response Keys
     public static final String MESSAGE_KEY = "message";
     public static final String COUNT_KEY = "count";
 
+    // Response Headers
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    // Pagination
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_DATE = "date";
+    public static final String DIRECTION_ASC = "asc";
+    public static final String DIRECTION_DESC = "desc";
+
+    // Bulk Import / Export
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String EXPENSE_BINARY_MEDIA_TYPE = "application/x-expense-binary";
+    public static final int IMPORT_BATCH_SIZE = 1000;
+    public static final int MAX_IMPORT_ERRORS = 1000;
+    public static final int EXPORT_PAGE_SIZE = 500;
+    public static final int EXPORT_BUFFER_SIZE = 8192;
+
+    // Time Series
+    public static final String GRANULARITY_DAY = "day";
+    public static final String GRANULARITY_MONTH = "month";
+    public static final String GRANULARITY_YEAR = "year";
+    public static final int MAX_ROLLUP_BUCKETS = 1000;
+
+    // Quantiles
+    public static final String DEFAULT_QUANTILES = "0.5,0.95";
+    public static final int MAX_QUANTILES = 20;
+
+    // Search
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    public static final int MIN_SEARCH_TERM_LENGTH = 2;
+
+    // Categorization
+    public static final int DEFAULT_CATEGORY_SUGGESTIONS = 3;
+    public static final int MAX_CATEGORY_SUGGESTIONS = 20;
+
+    // Anomalies
+    public static final int DEFAULT_ANOMALY_LIMIT = 50;
+
+    // Budgets
+    public static final int DEFAULT_BUDGET_ALERT_LIMIT = 50;
+
     // Default Values
     public static final String DEFAULT_USER = "default-user";
 
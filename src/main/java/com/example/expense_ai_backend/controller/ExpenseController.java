@@ -1,55 +1,199 @@
 package com.example.expense_ai_backend.controller;
 
 import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.BudgetAlertDTO;
+import com.example.expense_ai_backend.dto.BudgetRequestDTO;
+import com.example.expense_ai_backend.dto.BudgetStatusDTO;
+import com.example.expense_ai_backend.dto.CategoryPredictionDTO;
+import com.example.expense_ai_backend.dto.CategoryQuantilesDTO;
 import com.example.expense_ai_backend.dto.CategorySummaryDTO;
 import com.example.expense_ai_backend.dto.CreateExpenseRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseAnomalyDTO;
+import com.example.expense_ai_backend.dto.ExpenseExportRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseImportResultDTO;
+import com.example.expense_ai_backend.dto.ExpensePageDTO;
+import com.example.expense_ai_backend.dto.ExpensePageRequestDTO;
 import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.dto.ExpenseResponseList;
+import com.example.expense_ai_backend.dto.ExpenseSearchRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesPointDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesRequestDTO;
+import com.example.expense_ai_backend.dto.UpdateBudgetRequestDTO;
 import com.example.expense_ai_backend.dto.UpdateExpenseRequestDTO;
+import com.example.expense_ai_backend.exception.BadRequestException;
+import com.example.expense_ai_backend.export.ExportFormat;
+import com.example.expense_ai_backend.ingest.ImportFormat;
+import com.example.expense_ai_backend.repository.ExpenseChangeCounters;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.service.BudgetService;
+import com.example.expense_ai_backend.service.ExpenseImportService;
 import com.example.expense_ai_backend.service.ExpenseService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @Validated
 @RequestMapping(AppConstant.EXPENSE_API)
-@CrossOrigin(AppConstant.FRONTEND_URL)
+@CrossOrigin(origins = AppConstant.FRONTEND_URL, exposedHeaders = {AppConstant.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 public class ExpenseController {
 
     ExpenseService expenseService;
 
-    public ExpenseController(ExpenseService expenseService){
+    ExpenseImportService expenseImportService;
+
+    BudgetService budgetService;
+
+    // Read directly so unchanged polls are answered with 304 before any service work
+    ExpenseChangeCounters changeCounters;
+
+    public ExpenseController(ExpenseService expenseService, ExpenseImportService expenseImportService,
+                             BudgetService budgetService, ExpenseRepository expenseRepository){
         this.expenseService = expenseService;
+        this.expenseImportService = expenseImportService;
+        this.budgetService = budgetService;
+        this.changeCounters = expenseRepository.changeCounters();
     }
 
     /**
-     * Create a new expense
+     * Create a new expense; without a category, the predicted one is used. Retries sent with the
+     * same Idempotency-Key get the original response instead of creating a duplicate
      * POST /api/expense
      */
     @PostMapping
     public ResponseEntity<Map<String,String>> createExpense(
-            @RequestBody @Valid @NotNull CreateExpenseRequestDTO createExpenseRequestDTO){
+            @RequestBody @Valid @NotNull CreateExpenseRequestDTO createExpenseRequestDTO,
+            @RequestHeader(value = AppConstant.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey){
 
-        String message = expenseService.createExpense(createExpenseRequestDTO);
+        String message = expenseService.createExpense(createExpenseRequestDTO, idempotencyKey);
         Map<String,String> responseBody = Collections.singletonMap(AppConstant.MESSAGE_KEY, message);
         return new ResponseEntity<>(responseBody, HttpStatus.CREATED);
     }
 
     /**
-     * Get all expenses
-     * GET /api/expense
+     * Suggest categories for a description, most likely first, with confidences
+     * GET /api/expense/categorize?description={text}&limit={limit}
+     */
+    @GetMapping(AppConstant.EXPENSE_CATEGORIZE)
+    public ResponseEntity<List<CategoryPredictionDTO>> suggestCategories(
+            @RequestParam @NotBlank String description,
+            @RequestParam(defaultValue = "" + AppConstant.DEFAULT_CATEGORY_SUGGESTIONS)
+            @Min(1) @Max(AppConstant.MAX_CATEGORY_SUGGESTIONS) int limit){
+        List<CategoryPredictionDTO> suggestions = expenseService.suggestCategories(description, limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+
+    /**
+     * Bulk-import expenses from an NDJSON or CSV body, streamed row by row
+     * POST /api/expense/import
+     */
+    @PostMapping(value = AppConstant.EXPENSE_IMPORT,
+            consumes = {AppConstant.NDJSON_MEDIA_TYPE, AppConstant.CSV_MEDIA_TYPE})
+    public ResponseEntity<ExpenseImportResultDTO> importExpenses(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body){
+
+        ImportFormat format = contentType.isCompatibleWith(MediaType.parseMediaType(AppConstant.CSV_MEDIA_TYPE)) ?
+                ImportFormat.CSV : ImportFormat.NDJSON;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        ExpenseImportResultDTO result = expenseImportService.importExpenses(format, new InputStreamReader(body, charset));
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Stream expenses in date order as NDJSON, CSV or the compact binary format, chosen by the
+     * Accept header
+     * GET /api/expense/export?userId={userId}&category={category}&from={dateTime}&to={dateTime}
+     */
+    @GetMapping(value = AppConstant.EXPENSE_EXPORT,
+            produces = {AppConstant.NDJSON_MEDIA_TYPE, AppConstant.CSV_MEDIA_TYPE,
+                    AppConstant.EXPENSE_BINARY_MEDIA_TYPE})
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            ExpenseExportRequestDTO exportRequest){
+
+        ExportFormat format = negotiateExportFormat(accept);
+        StreamingResponseBody body = expenseService.exportExpenses(format, exportRequest);
+        MediaType contentType = switch (format) {
+            case CSV -> new MediaType(MediaType.parseMediaType(AppConstant.CSV_MEDIA_TYPE), StandardCharsets.UTF_8);
+            case BINARY -> MediaType.parseMediaType(AppConstant.EXPENSE_BINARY_MEDIA_TYPE);
+            case NDJSON -> new MediaType(MediaType.parseMediaType(AppConstant.NDJSON_MEDIA_TYPE), StandardCharsets.UTF_8);
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(body);
+    }
+
+    /**
+     * Stream creates, updates and deletes as server-sent events, optionally for one user and/or
+     * category; resumes after the Last-Event-ID header (sent by EventSource on reconnect) or the
+     * since parameter
+     * GET /api/expense/changes?userId={userId}&category={category}&since={eventId}
+     */
+    @GetMapping(value = AppConstant.EXPENSE_CHANGES, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = AppConstant.LAST_EVENT_ID_HEADER, required = false) String lastEventId){
+        return expenseService.streamChanges(userId, category, lastEventId != null ? lastEventId : since);
+    }
+
+    /**
+     * Get all expenses, optionally narrowed to a user and/or category and a date range,
+     * keyset-paginated when a limit is given; 304 if unchanged since the If-None-Match ETag
+     * GET /api/expense?userId={userId}&category={category}&from={dateTime}&to={dateTime}
+     *     &limit={limit}&after={cursor}&sort={id|date}&direction={asc|desc}
      */
     @GetMapping
-    public ResponseEntity<List<ExpenseResponseDTO>> getAllExpenses(){
-        List<ExpenseResponseDTO> expenses = expenseService.getAllExpenses();
-        return new ResponseEntity<>(expenses, HttpStatus.OK);
+    public ResponseEntity<List<ExpenseResponseDTO>> getAllExpenses(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String category,
+            @Valid ExpensePageRequestDTO pageRequest,
+            WebRequest request){
+        if (request.checkNotModified(changeTag(userId, category))) {
+            return null;
+        }
+        ExpensePageDTO page = expenseService.getExpensePage(userId, category, pageRequest);
+        return toPageResponse(page);
+    }
+
+    /**
+     * Search descriptions by word prefix, newest first; 304 if unchanged since the If-None-Match ETag
+     * GET /api/expense/search?q={text}&userId={userId}&category={category}&limit={limit}
+     */
+    @GetMapping(AppConstant.EXPENSE_SEARCH)
+    public ResponseEntity<List<ExpenseResponseDTO>> searchExpenses(
+            @Valid ExpenseSearchRequestDTO searchRequest,
+            WebRequest request){
+        if (request.checkNotModified(changeTag(searchRequest.getUserId(), searchRequest.getCategory()))) {
+            return null;
+        }
+        List<ExpenseResponseDTO> expenses = expenseService.searchExpenses(searchRequest);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(expenses);
     }
 
     /**
@@ -63,70 +207,299 @@ public class ExpenseController {
     }
 
     /**
-     * Get expenses by user ID
+     * Get expenses by user ID, with the same paging parameters and ETags as GET /api/expense
      * GET /api/expense/user/{userId}
      */
     @GetMapping(AppConstant.EXPENSE_BY_USER)
     public ResponseEntity<List<ExpenseResponseDTO>> getExpensesByUserId(
-            @PathVariable @NotNull String userId){
-        List<ExpenseResponseDTO> expenses = expenseService.getExpensesByUserId(userId);
-        return new ResponseEntity<>(expenses, HttpStatus.OK);
+            @PathVariable @NotNull String userId,
+            @Valid ExpensePageRequestDTO pageRequest,
+            WebRequest request){
+        if (request.checkNotModified(changeTag(userId, null))) {
+            return null;
+        }
+        ExpensePageDTO page = expenseService.getExpensePage(userId, null, pageRequest);
+        return toPageResponse(page);
     }
 
     /**
-     * Get expenses by category
+     * Get expenses by category, with the same paging parameters and ETags as GET /api/expense
      * GET /api/expense/category/{category}
      */
     @GetMapping(AppConstant.EXPENSE_BY_CATEGORY)
     public ResponseEntity<List<ExpenseResponseDTO>> getExpensesByCategory(
-            @PathVariable @NotNull String category){
-        List<ExpenseResponseDTO> expenses = expenseService.getExpensesByCategory(category);
-        return new ResponseEntity<>(expenses, HttpStatus.OK);
+            @PathVariable @NotNull String category,
+            @Valid ExpensePageRequestDTO pageRequest,
+            WebRequest request){
+        if (request.checkNotModified(changeTag(null, category))) {
+            return null;
+        }
+        ExpensePageDTO page = expenseService.getExpensePage(null, category, pageRequest);
+        return toPageResponse(page);
     }
 
     /**
-     * Update an expense
+     * Update an expense; with If-Match: "{version}" (or a version in the body) only if unchanged
+     * since that version, 409 otherwise
      * PUT /api/expense/{id}
      */
     @PutMapping(AppConstant.EXPENSE_BY_ID)
     public ResponseEntity<Map<String,String>> updateExpense(
             @PathVariable @NotNull Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid @NotNull UpdateExpenseRequestDTO updateExpenseRequestDTO){
 
-        String message = expenseService.updateExpense(id, updateExpenseRequestDTO);
+        Long expectedVersion = ifMatch != null ? parseIfMatch(ifMatch) : updateExpenseRequestDTO.getVersion();
+        String message = expenseService.updateExpense(id, expectedVersion, updateExpenseRequestDTO);
         Map<String,String> responseBody = Collections.singletonMap(AppConstant.MESSAGE_KEY, message);
         return new ResponseEntity<>(responseBody, HttpStatus.OK);
     }
 
     /**
-     * Delete an expense
+     * Delete an expense; with If-Match: "{version}" only if unchanged since that version, 409 otherwise
      * DELETE /api/expense/{id}
      */
     @DeleteMapping(AppConstant.EXPENSE_BY_ID)
-    public ResponseEntity<Map<String,String>> deleteExpense(@PathVariable @NotNull Long id){
-        String message = expenseService.deleteExpense(id);
+    public ResponseEntity<Map<String,String>> deleteExpense(
+            @PathVariable @NotNull Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        String message = expenseService.deleteExpense(id, ifMatch != null ? parseIfMatch(ifMatch) : null);
         Map<String,String> responseBody = Collections.singletonMap(AppConstant.MESSAGE_KEY, message);
         return new ResponseEntity<>(responseBody, HttpStatus.OK);
     }
 
     /**
-     * Get total expense count
+     * Get total expense count; 304 if unchanged since the If-None-Match ETag
      * GET /api/expense/count
      */
     @GetMapping(AppConstant.EXPENSE_COUNT)
-    public ResponseEntity<Map<String,Long>> getTotalExpenseCount(){
+    public ResponseEntity<Map<String,Long>> getTotalExpenseCount(WebRequest request){
+        if (request.checkNotModified(changeTag(null, null))) {
+            return null;
+        }
         long count = expenseService.getTotalExpenseCount();
         Map<String,Long> responseBody = Collections.singletonMap(AppConstant.COUNT_KEY, count);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(responseBody);
+    }
+
+    /**
+     * Get expenses flagged as unusually high for their user and category, newest first
+     * GET /api/expense/anomalies?userId={userId}&limit={limit}
+     */
+    @GetMapping(AppConstant.EXPENSE_ANOMALIES)
+    public ResponseEntity<List<ExpenseAnomalyDTO>> getAnomalies(
+            @RequestParam(required = false) String userId,
+            @RequestParam(defaultValue = "" + AppConstant.DEFAULT_ANOMALY_LIMIT)
+            @Min(1) @Max(AppConstant.MAX_PAGE_SIZE) int limit){
+        List<ExpenseAnomalyDTO> anomalies = expenseService.getAnomalies(userId, limit);
+        return new ResponseEntity<>(anomalies, HttpStatus.OK);
+    }
+
+    /**
+     * Create a monthly budget for one of a user's categories; 409 if it already has one
+     * POST /api/expense/budgets
+     */
+    @PostMapping(AppConstant.EXPENSE_BUDGETS)
+    public ResponseEntity<Map<String,String>> createBudget(
+            @RequestBody @Valid @NotNull BudgetRequestDTO budgetRequestDTO){
+        String message = budgetService.createBudget(budgetRequestDTO);
+        Map<String,String> responseBody = Collections.singletonMap(AppConstant.MESSAGE_KEY, message);
+        return new ResponseEntity<>(responseBody, HttpStatus.CREATED);
+    }
+
+    /**
+     * Get a user's budgets with the spend against each in a month (the current one by default)
+     * GET /api/expense/budgets?userId={userId}&month={yyyy-MM}
+     */
+    @GetMapping(AppConstant.EXPENSE_BUDGETS)
+    public ResponseEntity<List<BudgetStatusDTO>> getBudgets(
+            @RequestParam(defaultValue = AppConstant.DEFAULT_USER) String userId,
+            @RequestParam(required = false) String month){
+        List<BudgetStatusDTO> budgets = budgetService.getBudgetStatuses(userId, month);
+        return new ResponseEntity<>(budgets, HttpStatus.OK);
+    }
+
+    /**
+     * Get one budget with the spend against it in a month (the current one by default)
+     * GET /api/expense/budgets/{category}?userId={userId}&month={yyyy-MM}
+     */
+    @GetMapping(AppConstant.EXPENSE_BUDGET_BY_CATEGORY)
+    public ResponseEntity<BudgetStatusDTO> getBudget(
+            @PathVariable @NotBlank String category,
+            @RequestParam(defaultValue = AppConstant.DEFAULT_USER) String userId,
+            @RequestParam(required = false) String month){
+        BudgetStatusDTO budget = budgetService.getBudgetStatus(userId, category, month);
+        return new ResponseEntity<>(budget, HttpStatus.OK);
+    }
+
+    /**
+     * Change a budget's monthly limit
+     * PUT /api/expense/budgets/{category}?userId={userId}
+     */
+    @PutMapping(AppConstant.EXPENSE_BUDGET_BY_CATEGORY)
+    public ResponseEntity<Map<String,String>> updateBudget(
+            @PathVariable @NotBlank String category,
+            @RequestParam(defaultValue = AppConstant.DEFAULT_USER) String userId,
+            @RequestBody @Valid @NotNull UpdateBudgetRequestDTO updateBudgetRequestDTO){
+        String message = budgetService.updateBudget(userId, category, updateBudgetRequestDTO);
+        Map<String,String> responseBody = Collections.singletonMap(AppConstant.MESSAGE_KEY, message);
         return new ResponseEntity<>(responseBody, HttpStatus.OK);
     }
 
     /**
-     * Get summary of expenses by category
-     * GET /api/expense/summary/categories
+     * Delete a budget
+     * DELETE /api/expense/budgets/{category}?userId={userId}
+     */
+    @DeleteMapping(AppConstant.EXPENSE_BUDGET_BY_CATEGORY)
+    public ResponseEntity<Map<String,String>> deleteBudget(
+            @PathVariable @NotBlank String category,
+            @RequestParam(defaultValue = AppConstant.DEFAULT_USER) String userId){
+        String message = budgetService.deleteBudget(userId, category);
+        Map<String,String> responseBody = Collections.singletonMap(AppConstant.MESSAGE_KEY, message);
+        return new ResponseEntity<>(responseBody, HttpStatus.OK);
+    }
+
+    /**
+     * Get the budget thresholds a user's spending has crossed, newest first
+     * GET /api/expense/budget-alerts?userId={userId}&limit={limit}
+     */
+    @GetMapping(AppConstant.EXPENSE_BUDGET_ALERTS)
+    public ResponseEntity<List<BudgetAlertDTO>> getBudgetAlerts(
+            @RequestParam(defaultValue = AppConstant.DEFAULT_USER) String userId,
+            @RequestParam(defaultValue = "" + AppConstant.DEFAULT_BUDGET_ALERT_LIMIT)
+            @Min(1) @Max(AppConstant.MAX_PAGE_SIZE) int limit){
+        List<BudgetAlertDTO> alerts = budgetService.getBudgetAlerts(userId, limit);
+        return new ResponseEntity<>(alerts, HttpStatus.OK);
+    }
+
+    /**
+     * Get summary of expenses by category, optionally for a single user; 304 if unchanged since
+     * the If-None-Match ETag
+     * GET /api/expense/summary/categories?userId={userId}
      */
     @GetMapping(AppConstant.EXPENSE_SUMMARY_CATEGORIES)
-    public ResponseEntity<List<CategorySummaryDTO>> getCategorySummary(){
-        List<CategorySummaryDTO> summary = expenseService.getCategorySummary();
-        return new ResponseEntity<>(summary, HttpStatus.OK);
+    public ResponseEntity<List<CategorySummaryDTO>> getCategorySummary(
+            @RequestParam(required = false) String userId,
+            WebRequest request){
+        if (request.checkNotModified(changeTag(userId, null))) {
+            return null;
+        }
+        List<CategorySummaryDTO> summary = userId == null ?
+                expenseService.getCategorySummary() :
+                expenseService.getCategorySummaryByUserId(userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(summary);
+    }
+
+    /**
+     * Get estimated amounts at the given quantiles per category, optionally for a single user and/or
+     * category; 304 if unchanged since the If-None-Match ETag
+     * GET /api/expense/summary/quantiles?userId={userId}&category={category}&quantiles=0.5,0.95
+     */
+    @GetMapping(AppConstant.EXPENSE_SUMMARY_QUANTILES)
+    public ResponseEntity<List<CategoryQuantilesDTO>> getCategoryQuantiles(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = AppConstant.DEFAULT_QUANTILES)
+            @Size(min = 1, max = AppConstant.MAX_QUANTILES) List<Double> quantiles,
+            WebRequest request){
+        if (request.checkNotModified(changeTag(userId, category))) {
+            return null;
+        }
+        List<CategoryQuantilesDTO> distribution = expenseService.getCategoryQuantiles(userId, category, quantiles);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(distribution);
+    }
+
+    /**
+     * Get a user's spend per category per day, month or year, answered from pre-computed rollups
+     * GET /api/expense/summary/timeseries?userId={userId}&category={category}
+     *     &granularity={day|month|year}&from={date}&to={date}
+     */
+    @GetMapping(AppConstant.EXPENSE_SUMMARY_TIMESERIES)
+    public ResponseEntity<List<ExpenseTimeSeriesPointDTO>> getTimeSeries(
+            @Valid ExpenseTimeSeriesRequestDTO timeSeriesRequest){
+        List<ExpenseTimeSeriesPointDTO> series = expenseService.getTimeSeries(timeSeriesRequest);
+        return new ResponseEntity<>(series, HttpStatus.OK);
+    }
+
+    /**
+     * Highest-quality Accept entry wins; wildcards and a missing header fall back to NDJSON
+     */
+    private ExportFormat negotiateExportFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return ExportFormat.NDJSON;
+        }
+        List<MediaType> acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        MediaType ndjson = MediaType.parseMediaType(AppConstant.NDJSON_MEDIA_TYPE);
+        MediaType csv = MediaType.parseMediaType(AppConstant.CSV_MEDIA_TYPE);
+        MediaType binary = MediaType.parseMediaType(AppConstant.EXPENSE_BINARY_MEDIA_TYPE);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.includes(ndjson)) {
+                return ExportFormat.NDJSON;
+            }
+            if (mediaType.includes(csv)) {
+                return ExportFormat.CSV;
+            }
+            // Opt-in only: a wildcard Accept gets NDJSON above
+            if (mediaType.includes(binary)) {
+                return ExportFormat.BINARY;
+            }
+        }
+        return ExportFormat.NDJSON;
+    }
+
+    /**
+     * If-Match carries the expense version as an entity tag ("3"; W/"3" and a bare 3 are accepted
+     * too). "*" matches any existing expense, which is no precondition beyond the 404 check.
+     */
+    private Long parseIfMatch(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException(AppConstant.INVALID_IF_MATCH + ifMatch);
+        }
+    }
+
+    /**
+     * Weak ETag for results scoped to a user and/or category (or the whole store when both are
+     * null), built from the repository's change counters: W/"{epoch}-u{n}-c{n}"
+     */
+    private String changeTag(String userId, String category) {
+        StringBuilder tag = new StringBuilder("W/\"").append(changeCounters.epoch());
+        if (userId == null && category == null) {
+            tag.append("-g").append(changeCounters.global());
+        }
+        if (userId != null) {
+            tag.append("-u").append(changeCounters.user(userId));
+        }
+        if (category != null) {
+            tag.append("-c").append(changeCounters.category(category));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Page items go in the body; the cursor for the next page, if any, goes in a response header.
+     * no-cache makes clients revalidate with If-None-Match on every poll, and Vary: Accept keeps
+     * caches from serving the JSON and binary bodies, which share an ETag, for each other.
+     */
+    private ResponseEntity<List<ExpenseResponseDTO>> toPageResponse(ExpensePageDTO page) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache());
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        if (page.getNextCursor() != null) {
+            headers.set(AppConstant.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(new ExpenseResponseList(page.getExpenses()), headers, HttpStatus.OK);
     }
-}
+}
\ No newline at end of file
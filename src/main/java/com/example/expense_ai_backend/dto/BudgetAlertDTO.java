@@ -0,0 +1,26 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a budget threshold crossed by a write: the month's spend right after the write of
+ * {@code expenseId}, and the threshold it reached (0.8 for 80%, 1.0 for the full budget)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlertDTO {
+    private String userId;
+    private String category;
+    private String month;
+    private double threshold;
+    private BigDecimal spent;
+    private BigDecimal monthlyLimit;
+    private long expenseId;
+    private LocalDateTime raisedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.expense_ai_backend.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for creating a monthly budget for one of a user's categories. Omitting {@code userId}
+ * budgets the default user, like expenses created without one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetRequestDTO {
+
+    private String userId;
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Monthly limit is required")
+    @DecimalMin(value = "0.01", message = "Monthly limit must be greater than 0")
+    private BigDecimal monthlyLimit;
+}
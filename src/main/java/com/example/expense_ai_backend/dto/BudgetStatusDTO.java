@@ -0,0 +1,26 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a budget and the user's spend against it in {@code month} ("2026-03"). {@code remaining}
+ * is negative once the budget is exceeded; {@code thresholdReached} is the highest alert threshold
+ * the spend has reached (0.8 for 80%), or null below all of them
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatusDTO {
+    private String userId;
+    private String category;
+    private String month;
+    private BigDecimal monthlyLimit;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private double percentUsed;
+    private Double thresholdReached;
+}
@@ -0,0 +1,16 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a suggested category and the model's confidence in it, between 0 and 1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryPredictionDTO {
+    private String category;
+    private double confidence;
+}
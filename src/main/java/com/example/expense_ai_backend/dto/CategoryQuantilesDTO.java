@@ -0,0 +1,21 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * DTO for a category's amount distribution: the expense count and the estimated amount at each
+ * requested quantile, keyed by percentile label ("p50", "p95", "p99.9") in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryQuantilesDTO {
+    private String category;
+    private long count;
+    private Map<String, BigDecimal> quantiles;
+}
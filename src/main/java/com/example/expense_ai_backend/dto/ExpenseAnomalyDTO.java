@@ -0,0 +1,20 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a flagged expense: the expense, the user's typical amount in its category when it was
+ * written, and how many standard deviations above that it was
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseAnomalyDTO {
+    private ExpenseResponseDTO expense;
+    private BigDecimal typicalAmount;
+    private double score;
+}
@@ -0,0 +1,28 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Export filters, bound from query parameters. Every filter is optional; dates are ISO-8601
+ * date-times and match {@code from <= date < to}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseExportRequestDTO {
+
+    private String userId;
+
+    private String category;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
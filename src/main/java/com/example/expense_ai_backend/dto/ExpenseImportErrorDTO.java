@@ -0,0 +1,16 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected import row; {@code line} is the 1-based line of the input the row starts on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportErrorDTO {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first errors are listed; {@code failed} counts them all.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportResultDTO {
+    private long imported;
+    private long failed;
+    private List<ExpenseImportErrorDTO> errors;
+}
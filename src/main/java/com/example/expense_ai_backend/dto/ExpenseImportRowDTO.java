@@ -0,0 +1,20 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a bulk import: the fields (and validation rules) of a single create, plus an
+ * optional date for rows exported from another system.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ExpenseImportRowDTO extends CreateExpenseRequestDTO {
+    private LocalDateTime date;
+}
@@ -0,0 +1,21 @@
+package com.example.expense_ai_backend.dto;
+
+import com.example.expense_ai_backend.model.Expense;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of expenses and the cursor to pass as {@code after} for the next page
+ * ({@code null} on the last page). Holds the stored records themselves, which are immutable, so
+ * a cached page is written to responses without a copy per row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePageDTO {
+    private List<Expense> expenses;
+    private String nextCursor;
+}
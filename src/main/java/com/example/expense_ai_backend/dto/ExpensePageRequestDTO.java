@@ -0,0 +1,38 @@
+package com.example.expense_ai_backend.dto;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset pagination parameters for expense listings, bound from query parameters.
+ * Omitting {@code limit} returns the first {@link AppConstant#DEFAULT_PAGE_SIZE} rows. The optional
+ * {@code from}/{@code to} ISO-8601 date-times restrict it to {@code from <= date < to}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePageRequestDTO {
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = AppConstant.MAX_PAGE_SIZE, message = "Limit must not exceed " + AppConstant.MAX_PAGE_SIZE)
+    private Integer limit = AppConstant.DEFAULT_PAGE_SIZE;
+
+    private String after;
+
+    private String sort = AppConstant.SORT_BY_ID;
+
+    private String direction = AppConstant.DIRECTION_ASC;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
@@ -17,5 +17,6 @@ public class ExpenseResponseDTO {
     private String category;
     private LocalDateTime date;
     private String userId;
+    private long version;
 }
 
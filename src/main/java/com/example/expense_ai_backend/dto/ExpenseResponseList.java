@@ -0,0 +1,40 @@
+package com.example.expense_ai_backend.dto;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of response DTOs backed by stored expenses. Listings return it so that their
+ * signature stays DTO-typed while the expense message converter writes the stored records as they
+ * are; any other reader gets a fresh DTO per element it reads.
+ */
+public final class ExpenseResponseList extends AbstractList<ExpenseResponseDTO> implements RandomAccess {
+
+    private final List<Expense> expenses;
+
+    public ExpenseResponseList(List<Expense> expenses) {
+        this.expenses = expenses;
+    }
+
+    /**
+     * The stored expenses behind this list.
+     */
+    public List<Expense> expenses() {
+        return expenses;
+    }
+
+    @Override
+    public ExpenseResponseDTO get(int index) {
+        Expense expense = expenses.get(index);
+        return new ExpenseResponseDTO(expense.getId(), expense.getDescription(), expense.getAmount(),
+                expense.getCategory(), expense.getDate(), expense.getUserId(), expense.getVersion());
+    }
+
+    @Override
+    public int size() {
+        return expenses.size();
+    }
+}
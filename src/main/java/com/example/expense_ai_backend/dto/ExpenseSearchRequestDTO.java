@@ -0,0 +1,32 @@
+package com.example.expense_ai_backend.dto;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Description search parameters, bound from query parameters. Every word of {@code q} must begin
+ * a word of the description, ignoring case and accents, and be at least
+ * {@link AppConstant#MIN_SEARCH_TERM_LENGTH} characters long (shorter words are a 400); {@code userId}
+ * and {@code category} narrow the search. Returns at most {@code limit} matches, newest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSearchRequestDTO {
+
+    @NotBlank(message = "Search query is required")
+    private String q;
+
+    private String userId;
+
+    private String category;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = AppConstant.MAX_SEARCH_LIMIT, message = "Limit must not exceed " + AppConstant.MAX_SEARCH_LIMIT)
+    private Integer limit = AppConstant.DEFAULT_SEARCH_LIMIT;
+}
@@ -0,0 +1,23 @@
+package com.example.expense_ai_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for one bucket of a category's spend time series; {@code period} is the ISO label of the
+ * bucket ("2026-03-01", "2026-03" or "2026")
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseTimeSeriesPointDTO {
+    private String category;
+    private String period;
+    private BigDecimal totalAmount;
+    private long count;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
@@ -0,0 +1,37 @@
+package com.example.expense_ai_backend.dto;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Time-series summary parameters, bound from query parameters. Covers the buckets overlapping
+ * {@code from <= date < to} at the given granularity ("day", "month" or "year"); omitting
+ * {@code category} returns a series for every category the user has spent in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseTimeSeriesRequestDTO {
+
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    private String category;
+
+    private String granularity = AppConstant.GRANULARITY_MONTH;
+
+    @NotNull(message = "'from' is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @NotNull(message = "'to' is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
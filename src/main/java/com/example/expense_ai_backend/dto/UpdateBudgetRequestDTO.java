@@ -0,0 +1,22 @@
+package com.example.expense_ai_backend.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for changing a budget's monthly limit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateBudgetRequestDTO {
+
+    @NotNull(message = "Monthly limit is required")
+    @DecimalMin(value = "0.01", message = "Monthly limit must be greater than 0")
+    private BigDecimal monthlyLimit;
+}
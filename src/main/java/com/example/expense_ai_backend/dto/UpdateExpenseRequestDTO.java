@@ -17,4 +17,6 @@ public class UpdateExpenseRequestDTO {
     private BigDecimal amount;
     @NotBlank(message = "Category is required")
     private String category;
+    // Optional expected version for optimistic concurrency; the If-Match header takes precedence
+    private Long version;
 }
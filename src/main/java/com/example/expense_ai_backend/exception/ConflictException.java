@@ -0,0 +1,7 @@
+package com.example.expense_ai_backend.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.expense_ai_backend.exception;
 
 import com.example.expense_ai_backend.dto.ErrorResponseDTO;
+import com.example.expense_ai_backend.metrics.ExpenseMetrics;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
@@ -14,6 +15,12 @@ import java.time.LocalDateTime;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final ExpenseMetrics metrics;
+
+    public GlobalExceptionHandler(ExpenseMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Handle ResourceNotFoundException
      */
@@ -21,6 +28,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDTO> handleResourceNotFoundException(
             ResourceNotFoundException ex, HttpServletRequest request) {
 
+        metrics.recordError(ex);
+
         ErrorResponseDTO errorResponse = new ErrorResponseDTO(
                 LocalDateTime.now(),
                 HttpStatus.NOT_FOUND.value(),
@@ -39,6 +48,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDTO> handleBadRequestException(
             BadRequestException ex, HttpServletRequest request) {
 
+        metrics.recordError(ex);
+
         ErrorResponseDTO errorResponse = new ErrorResponseDTO(
                 LocalDateTime.now(),
                 HttpStatus.BAD_REQUEST.value(),
@@ -50,6 +61,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle ConflictException (optimistic concurrency check failed)
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponseDTO> handleConflictException(
+            ConflictException ex, HttpServletRequest request) {
+
+        metrics.recordError(ex);
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handle validation errors from @Valid annotation
      */
@@ -57,6 +88,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDTO> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
 
+        metrics.recordError(ex);
+
         StringBuilder errorMessage = new StringBuilder("Validation failed: ");
         ex.getBindingResult().getFieldErrors().forEach(error ->
             errorMessage.append(error.getField())
@@ -83,6 +116,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDTO> handleConstraintViolationException(
             ConstraintViolationException ex, HttpServletRequest request) {
 
+        metrics.recordError(ex);
+
         ErrorResponseDTO errorResponse = new ErrorResponseDTO(
                 LocalDateTime.now(),
                 HttpStatus.BAD_REQUEST.value(),
@@ -101,6 +136,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDTO> handleGlobalException(
             Exception ex, HttpServletRequest request) {
 
+        metrics.recordError(ex);
+
         ErrorResponseDTO errorResponse = new ErrorResponseDTO(
                 LocalDateTime.now(),
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -0,0 +1,36 @@
+package com.example.expense_ai_backend.export;
+
+import com.example.expense_ai_backend.codec.ExpenseBinaryWriter;
+import com.example.expense_ai_backend.model.Expense;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the export as one {@link ExpenseBinaryWriter} stream; its end marker is written with the
+ * final flush, so a client can tell a complete export from a cut-off one.
+ */
+public class BinaryExpenseRowWriter implements ExpenseRowWriter {
+
+    private final ExpenseBinaryWriter writer;
+
+    public BinaryExpenseRowWriter(OutputStream out, int bufferSize) {
+        this.writer = new ExpenseBinaryWriter(out, bufferSize);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writer.writeHeader();
+    }
+
+    @Override
+    public void write(Expense expense) throws IOException {
+        writer.write(expense);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.writeEnd();
+        writer.flush();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.expense_ai_backend.export;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the columns read back by the CSV import, plus {@code id} and {@code userId}.
+ */
+public class CsvExpenseRowWriter implements ExpenseRowWriter {
+
+    private static final String HEADER = "id,description,amount,category,date,userId\r\n";
+
+    private final Writer out;
+
+    public CsvExpenseRowWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(Expense expense) throws IOException {
+        out.write(String.valueOf(expense.getId()));
+        out.write(',');
+        writeField(expense.getDescription());
+        out.write(',');
+        writeField(expense.getAmount() == null ? null : expense.getAmount().toPlainString());
+        out.write(',');
+        writeField(expense.getCategory());
+        out.write(',');
+        writeField(expense.getDate() == null ? null : expense.getDate().toString());
+        out.write(',');
+        writeField(expense.getUserId());
+        out.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.expense_ai_backend.export;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.io.IOException;
+
+/**
+ * Writes export rows to a bounded buffer in front of the response stream. When the client reads
+ * slowly the buffer fills and the write blocks, so a slow client holds one buffer, not the export.
+ * Rows are written straight from the stored expenses, without response DTOs in between.
+ */
+public interface ExpenseRowWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(Expense expense) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.example.expense_ai_backend.export;
+
+/**
+ * Body formats produced by the export endpoint, chosen from the request's Accept header.
+ */
+public enum ExportFormat {
+    /** One expense JSON object per line, in the same shape as the listing endpoints */
+    NDJSON,
+    /** RFC 4180 CSV with a header row */
+    CSV,
+    /** The compact binary format of {@code ExpenseBinaryWriter} */
+    BINARY
+}
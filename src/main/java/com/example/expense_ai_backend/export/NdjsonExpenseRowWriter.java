@@ -0,0 +1,32 @@
+package com.example.expense_ai_backend.export;
+
+import com.example.expense_ai_backend.codec.ExpenseJsonWriter;
+import com.example.expense_ai_backend.model.Expense;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonExpenseRowWriter implements ExpenseRowWriter {
+
+    private final ExpenseJsonWriter writer;
+
+    public NdjsonExpenseRowWriter(OutputStream out, int bufferSize) {
+        this.writer = new ExpenseJsonWriter(out, bufferSize);
+    }
+
+    @Override
+    public void writeHeader() {
+        // NDJSON has no header
+    }
+
+    @Override
+    public void write(Expense expense) throws IOException {
+        writer.write(expense);
+        writer.newline();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.expense_ai_backend.feed;
+
+import com.example.expense_ai_backend.model.Expense;
+
+/**
+ * One write as seen by the change feed. {@code expense} is the stored state, or the removed one
+ * for a delete; {@code previous} is the state an update replaced, so subscribers filtering on the
+ * old user or category also learn that the expense left their view. Sequence numbers are
+ * consecutive in write order.
+ */
+public record ExpenseChangeEvent(long sequence, ExpenseChangeType type, Expense expense, Expense previous) {
+
+    static ExpenseChangeEvent reset(long sequence) {
+        return new ExpenseChangeEvent(sequence, ExpenseChangeType.RESET, null, null);
+    }
+
+    /**
+     * Whether the event concerns the given user and category (null matches any), before or after
+     * the write.
+     */
+    boolean matches(String userId, String category) {
+        return type == ExpenseChangeType.RESET || matches(expense, userId, category)
+                || (previous != null && matches(previous, userId, category));
+    }
+
+    private static boolean matches(Expense expense, String userId, String category) {
+        return (userId == null || userId.equals(expense.getUserId()))
+                && (category == null || category.equals(expense.getCategory()));
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.expense_ai_backend.feed;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Server-sent change feed: every committed create, update and delete from the repository write
+ * path is numbered, kept in a ring buffer of the last {@code bufferSize} events and queued to the
+ * subscribers whose user/category filter it matches.
+ *
+ * Subscribers are indexed by their filter, so a write only visits the subscribers it concerns.
+ * An idle subscriber is an open async request, a small queue and a map entry: it holds no
+ * thread, and costs one heartbeat comment per interval. A small pool of sender threads drains the
+ * queues, or with {@code spring.threads.virtual.enabled} a virtual thread per drain, so a client
+ * whose socket is full never holds up the others; a queue that reaches {@code queueCapacity}
+ * because its client reads too slowly is handled by the {@link FeedOverflowPolicy}.
+ *
+ * Event ids are {@code {epoch}-{sequence}}. A subscriber passing the last id it saw (the
+ * Last-Event-ID an EventSource sends on reconnect) is first replayed the matching events after it;
+ * if they have left the ring buffer, belong to another process, or would not fit its queue, it
+ * gets a {@link ExpenseChangeType#RESET} instead.
+ */
+@Component
+public class ExpenseChangeFeed implements ExpenseChangeListener, DisposableBean {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final int queueCapacity;
+
+    private final FeedOverflowPolicy overflowPolicy;
+
+    private final Duration timeout;
+
+    // Guards the sequence, the ring buffer and the subscriber registry, so events are queued to
+    // every subscriber in sequence order
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ExpenseChangeEvent[] ring;
+
+    private long sequence;
+
+    private final List<Subscription> unfiltered = new ArrayList<>();
+    private final Map<String, List<Subscription>> byUser = new HashMap<>();
+    private final Map<String, List<Subscription>> byCategory = new HashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final LongAdder overflows = new LongAdder();
+
+    // Runs the heartbeat, and the drains too unless they get virtual threads
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final Executor senders;
+
+    public ExpenseChangeFeed(int bufferSize, int queueCapacity, FeedOverflowPolicy overflowPolicy,
+                             Duration heartbeatInterval, Duration timeout, int senderThreads,
+                             boolean virtualThreads) {
+        this.ring = new ExpenseChangeEvent[bufferSize];
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(virtualThreads ? 1 : senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "expense-feed-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtualSenders = new SimpleAsyncTaskExecutor("expense-feed-sender-");
+            virtualSenders.setVirtualThreads(true);
+            this.senders = virtualSenders;
+        } else {
+            this.senders = scheduler;
+        }
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Autowired
+    public ExpenseChangeFeed(FeedProperties properties,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(properties.getBufferSize(), properties.getQueueCapacity(), properties.getOverflowPolicy(),
+                properties.getHeartbeatInterval(), properties.getTimeout(), properties.getSenderThreads(),
+                virtualThreads);
+    }
+
+    /**
+     * Publishes only once the write has committed, so a subscriber never sees a change that was
+     * reverted or never made it into the journal.
+     */
+    @Override
+    public void afterExpenseSaved(Expense previous, Expense current) {
+        publish(previous == null ? ExpenseChangeType.CREATED : ExpenseChangeType.UPDATED, current, previous);
+    }
+
+    @Override
+    public void afterExpenseDeleted(Expense removed) {
+        publish(ExpenseChangeType.DELETED, removed, null);
+    }
+
+    /**
+     * Opens an SSE stream of the changes to one user's and/or category's expenses (null for any),
+     * starting after {@code lastEventId} when given. {@code payload} turns an event's expense into
+     * the event data.
+     */
+    public SseEmitter subscribe(String userId, String category, String lastEventId,
+                                Function<Expense, ?> payload) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = register(userId, category, lastEventId, new SseSink(emitter, payload));
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(error -> unregister(subscription));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Times a subscriber's queue overflowed and it was disconnected or sent a reset.
+     */
+    public long overflowCount() {
+        return overflows.sum();
+    }
+
+    @Override
+    public void destroy() {
+        List<Subscription> open = new ArrayList<>();
+        lock.lock();
+        try {
+            open.addAll(unfiltered);
+            byUser.values().forEach(open::addAll);
+            byCategory.values().forEach(open::addAll);
+        } finally {
+            lock.unlock();
+        }
+        scheduler.shutdownNow();
+        open.forEach(subscription -> subscription.sink.close());
+    }
+
+    Subscription register(String userId, String category, String lastEventId, ExpenseChangeSink sink) {
+        Subscription subscription = new Subscription(userId, category, sink);
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                replay(subscription, lastEventId);
+            }
+            listFor(subscription, true).add(subscription);
+            subscriberCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        schedule(subscription);
+        return subscription;
+    }
+
+    void unregister(Subscription subscription) {
+        lock.lock();
+        try {
+            if (subscription.closed) {
+                return;
+            }
+            subscription.closed = true;
+            List<Subscription> subscriptions = listFor(subscription, false);
+            if (subscriptions != null && subscriptions.remove(subscription)) {
+                subscriberCount.decrementAndGet();
+                if (subscriptions.isEmpty() && subscription.userId != null) {
+                    byUser.remove(subscription.userId);
+                } else if (subscriptions.isEmpty() && subscription.category != null) {
+                    byCategory.remove(subscription.category);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(ExpenseChangeType type, Expense expense, Expense previous) {
+        lock.lock();
+        try {
+            ExpenseChangeEvent event = new ExpenseChangeEvent(++sequence, type, expense, previous);
+            ring[(int) (event.sequence() % ring.length)] = event;
+            dispatch(event, unfiltered);
+            dispatch(event, byUser.get(expense.getUserId()));
+            dispatch(event, byCategory.get(expense.getCategory()));
+            if (previous != null) {
+                if (!Objects.equals(previous.getUserId(), expense.getUserId())) {
+                    dispatch(event, byUser.get(previous.getUserId()));
+                }
+                if (!Objects.equals(previous.getCategory(), expense.getCategory())) {
+                    dispatch(event, byCategory.get(previous.getCategory()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(ExpenseChangeEvent event, List<Subscription> subscriptions) {
+        if (subscriptions == null) {
+            return;
+        }
+        // Indexed copy: overflowing subscribers unregister, and remove themselves from the list
+        for (int i = subscriptions.size() - 1; i >= 0; i--) {
+            Subscription subscription = subscriptions.get(i);
+            if (event.matches(subscription.userId, subscription.category)) {
+                offer(subscription, event);
+            }
+        }
+    }
+
+    /**
+     * Queues the events after {@code lastEventId} that the new subscriber would have received, or
+     * a reset if that is not possible. Called with the lock held, before the subscriber is visible
+     * to writers, so nothing is missed or delivered twice.
+     */
+    private void replay(Subscription subscription, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        long oldest = Math.max(1, sequence - ring.length + 1);
+        if (after < oldest - 1 || after > sequence) {
+            subscription.queue.add(ExpenseChangeEvent.reset(sequence));
+            return;
+        }
+        List<ExpenseChangeEvent> missed = new ArrayList<>();
+        for (long next = after + 1; next <= sequence; next++) {
+            ExpenseChangeEvent event = ring[(int) (next % ring.length)];
+            if (event.matches(subscription.userId, subscription.category)) {
+                missed.add(event);
+            }
+        }
+        if (missed.size() > queueCapacity) {
+            subscription.queue.add(ExpenseChangeEvent.reset(sequence));
+        } else {
+            subscription.queue.addAll(missed);
+        }
+    }
+
+    /**
+     * Sequence number of an event id from this process, or -1 for ids of another process (or
+     * malformed ones), which cannot be resumed from.
+     */
+    private long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private void offer(Subscription subscription, ExpenseChangeEvent event) {
+        boolean overflow;
+        synchronized (subscription) {
+            overflow = subscription.queue.size() >= queueCapacity;
+            if (!overflow) {
+                subscription.queue.add(event);
+            } else if (overflowPolicy == FeedOverflowPolicy.DROP) {
+                subscription.queue.clear();
+                subscription.queue.add(ExpenseChangeEvent.reset(event.sequence()));
+            }
+        }
+        if (overflow) {
+            overflows.increment();
+            if (overflowPolicy == FeedOverflowPolicy.DISCONNECT) {
+                unregister(subscription);
+                senders.execute(subscription.sink::close);
+                return;
+            }
+        }
+        schedule(subscription);
+    }
+
+    private void schedule(Subscription subscription) {
+        synchronized (subscription) {
+            if (subscription.draining || (subscription.queue.isEmpty() && !subscription.heartbeatDue)) {
+                return;
+            }
+            subscription.draining = true;
+        }
+        senders.execute(() -> drain(subscription));
+    }
+
+    /**
+     * Writes the subscriber's queued events, then a pending heartbeat, one at a time outside its
+     * monitor so writers can keep queueing meanwhile.
+     */
+    private void drain(Subscription subscription) {
+        while (true) {
+            ExpenseChangeEvent event;
+            synchronized (subscription) {
+                event = subscription.queue.poll();
+                if (event == null && !subscription.heartbeatDue) {
+                    subscription.draining = false;
+                    return;
+                }
+                if (event == null) {
+                    subscription.heartbeatDue = false;
+                }
+            }
+            if (subscription.closed) {
+                return;
+            }
+            try {
+                if (event != null) {
+                    subscription.sink.send(epoch + "-" + event.sequence(), event);
+                } else {
+                    subscription.sink.heartbeat();
+                }
+            } catch (IOException | RuntimeException ex) {
+                // The client went away; the container reports it to the emitter as well
+                unregister(subscription);
+                subscription.sink.close();
+                return;
+            }
+        }
+    }
+
+    private void heartbeat() {
+        List<Subscription> open = new ArrayList<>(subscriberCount.get());
+        lock.lock();
+        try {
+            open.addAll(unfiltered);
+            byUser.values().forEach(open::addAll);
+            byCategory.values().forEach(open::addAll);
+        } finally {
+            lock.unlock();
+        }
+        for (Subscription subscription : open) {
+            synchronized (subscription) {
+                subscription.heartbeatDue = true;
+            }
+            schedule(subscription);
+        }
+    }
+
+    /**
+     * The registry list a subscriber belongs in: by user if it filters on one, else by category,
+     * else unfiltered. Called with the lock held.
+     */
+    private List<Subscription> listFor(Subscription subscription, boolean create) {
+        if (subscription.userId != null) {
+            return create ? byUser.computeIfAbsent(subscription.userId, user -> new ArrayList<>())
+                    : byUser.get(subscription.userId);
+        }
+        if (subscription.category != null) {
+            return create ? byCategory.computeIfAbsent(subscription.category, category -> new ArrayList<>())
+                    : byCategory.get(subscription.category);
+        }
+        return unfiltered;
+    }
+
+    static final class Subscription {
+
+        private final String userId;
+        private final String category;
+        private final ExpenseChangeSink sink;
+
+        // Guarded by the subscription's monitor
+        private final ArrayDeque<ExpenseChangeEvent> queue = new ArrayDeque<>(4);
+        private boolean draining;
+        private boolean heartbeatDue;
+
+        // Guarded by the feed lock; read without it by senders to stop early
+        private volatile boolean closed;
+
+        private Subscription(String userId, String category, ExpenseChangeSink sink) {
+            this.userId = userId;
+            this.category = category;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Writes events to an SSE stream: the event id, the change type as the event name and the
+     * expense as JSON data.
+     */
+    private static final class SseSink implements ExpenseChangeSink {
+
+        private final SseEmitter emitter;
+        private final Function<Expense, ?> payload;
+
+        private SseSink(SseEmitter emitter, Function<Expense, ?> payload) {
+            this.emitter = emitter;
+            this.payload = payload;
+        }
+
+        @Override
+        public void send(String id, ExpenseChangeEvent event) throws IOException {
+            Object data = event.type() == ExpenseChangeType.RESET ?
+                    Collections.emptyMap() : payload.apply(event.expense());
+            emitter.send(SseEmitter.event()
+                    .id(id)
+                    .name(event.type().name().toLowerCase(Locale.ROOT))
+                    .data(data, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                // Already completed by the container
+            }
+        }
+    }
+}
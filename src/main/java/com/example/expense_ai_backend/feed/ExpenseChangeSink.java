@@ -0,0 +1,16 @@
+package com.example.expense_ai_backend.feed;
+
+import java.io.IOException;
+
+/**
+ * Where a subscriber's events are written, an SSE stream in production. Calls for one subscriber
+ * never overlap and may block; a failure ends the subscription.
+ */
+interface ExpenseChangeSink {
+
+    void send(String id, ExpenseChangeEvent event) throws IOException;
+
+    void heartbeat() throws IOException;
+
+    void close();
+}
@@ -0,0 +1,19 @@
+package com.example.expense_ai_backend.feed;
+
+/**
+ * Kind of event on the change feed.
+ */
+public enum ExpenseChangeType {
+
+    CREATED,
+
+    UPDATED,
+
+    DELETED,
+
+    /**
+     * Not a change: the subscriber missed events (resumed from too far back, or fell behind) and
+     * should re-fetch what it displays before applying further events.
+     */
+    RESET
+}
@@ -0,0 +1,18 @@
+package com.example.expense_ai_backend.feed;
+
+/**
+ * What happens to a subscriber whose queue of undelivered events is full.
+ */
+public enum FeedOverflowPolicy {
+
+    /**
+     * Close the stream. An EventSource reconnects with Last-Event-ID and resumes from the replay
+     * buffer, or gets a reset if it has fallen out of it.
+     */
+    DISCONNECT,
+
+    /**
+     * Keep the stream open, discard the undelivered events and send a reset in their place.
+     */
+    DROP
+}
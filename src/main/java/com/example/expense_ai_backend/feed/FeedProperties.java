@@ -0,0 +1,43 @@
+package com.example.expense_ai_backend.feed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the server-sent change feed ({@code expense.feed.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.feed")
+public class FeedProperties {
+
+    /**
+     * Most recent events kept for subscribers resuming with Last-Event-ID.
+     */
+    private int bufferSize = 4096;
+
+    /**
+     * Undelivered events a subscriber may have queued before the overflow policy applies.
+     */
+    private int queueCapacity = 256;
+
+    private FeedOverflowPolicy overflowPolicy = FeedOverflowPolicy.DISCONNECT;
+
+    /**
+     * Interval of the comment lines that keep idle streams open through proxies and detect
+     * disconnected clients.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Lifetime of one stream; EventSource clients reconnect and resume transparently.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Threads writing events to subscribers, unless virtual threads are enabled; idle subscribers
+     * hold none.
+     */
+    private int senderThreads = 2;
+}
@@ -0,0 +1,211 @@
+package com.example.expense_ai_backend.idempotency;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an Idempotency-Key, so a client retrying after a
+ * timeout gets the original result instead of running the request again.
+ *
+ * The first request with a key registers a pending result and runs; requests with the same key
+ * that arrive while it runs wait up to {@code waitTimeout} for that result rather than running
+ * themselves (a {@link ConflictException} once it passes), and later ones are answered from it
+ * without touching the repository. A key is bound to the request it first
+ * came with: reusing it for a different request is a {@link ConflictException}. A failed request
+ * is forgotten, so its retry runs again.
+ *
+ * Keys are spread over segments, each an insertion-ordered map under its own lock with an equal
+ * share of {@code maxEntries}. Every key lives for the same {@code ttl}, so the oldest entry of a
+ * segment is always the next to expire: expired entries are dropped from the head as the segment
+ * is used, and a full segment forgets its oldest completed key first. A pending key is never
+ * dropped, since a duplicate arriving after it would run the request a second time; pending keys
+ * are bounded by the requests in flight.
+ */
+@Component
+public class IdempotencyCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final int segmentCapacity;
+
+    private final long ttlNanos;
+
+    private final long waitTimeoutNanos;
+
+    private final LongSupplier clock;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder replays = new LongAdder();
+
+    public IdempotencyCache(int maxEntries, Duration ttl, Duration waitTimeout) {
+        this(maxEntries, ttl, waitTimeout, System::nanoTime);
+    }
+
+    @Autowired
+    public IdempotencyCache(IdempotencyProperties properties) {
+        this(properties.getMaxEntries(), properties.getTtl(), properties.getWaitTimeout());
+    }
+
+    IdempotencyCache(int maxEntries, Duration ttl, Duration waitTimeout, LongSupplier clock) {
+        this.segmentCapacity = Math.max(1, maxEntries / SEGMENTS);
+        this.ttlNanos = ttl.toNanos();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.clock = clock;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Runs {@code action} once per key: returns the result of the first request made with
+     * {@code key}, waiting for it if it is still running. {@code request} identifies what the
+     * key was first used for and must have value equality. Throws {@link ConflictException} if
+     * the first request is still running after the wait timeout.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object request, Supplier<T> action) {
+        Segment segment = segmentFor(key);
+        Entry entry;
+        boolean owner = false;
+        segment.lock.lock();
+        try {
+            long now = clock.getAsLong();
+            segment.expire(now - ttlNanos);
+            entry = segment.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(request, now, new CompletableFuture<>());
+                segment.entries.put(key, entry);
+                if (segment.entries.size() > segmentCapacity) {
+                    segment.evictOldestCompleted();
+                }
+                owner = true;
+            } else if (!Objects.equals(entry.request, request)) {
+                throw new ConflictException(AppConstant.IDEMPOTENCY_KEY_REUSED + key);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (owner) {
+            try {
+                T result = action.get();
+                entry.result.complete(result);
+                return result;
+            } catch (RuntimeException | Error ex) {
+                forget(segment, key, entry);
+                entry.result.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        Object result;
+        try {
+            result = entry.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new ConflictException(AppConstant.IDEMPOTENCY_KEY_IN_PROGRESS + key);
+        } catch (ExecutionException ex) {
+            // The original request failed: fail the same way
+            replays.increment();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) ex.getCause();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the request with Idempotency-Key " + key, ex);
+        }
+        replays.increment();
+        return (T) result;
+    }
+
+    /**
+     * Requests answered from an earlier request with the same key instead of running.
+     */
+    public long replayCount() {
+        return replays.sum();
+    }
+
+    /**
+     * Keys currently remembered, including expired ones not yet dropped.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private void forget(Segment segment, String key, Entry entry) {
+        segment.lock.lock();
+        try {
+            segment.entries.remove(key, entry);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(Object request, long createdNanos, CompletableFuture<Object> result) {
+    }
+
+    /**
+     * Guarded by {@code lock}; entries are in creation order.
+     */
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        /**
+         * Drops the expired entries at the head, stepping over any still pending.
+         */
+        void expire(long createdBefore) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                Entry entry = oldest.next();
+                if (entry.createdNanos - createdBefore >= 0) {
+                    return;
+                }
+                if (entry.result.isDone()) {
+                    oldest.remove();
+                }
+            }
+        }
+
+        void evictOldestCompleted() {
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                if (oldest.next().result.isDone()) {
+                    oldest.remove();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.expense_ai_backend.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for Idempotency-Key handling on expense creation ({@code expense.idempotency.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Keys remembered at most; past it the oldest are forgotten first.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * How long a key's result is replayed to retries.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a duplicate waits for the first request with its key before getting 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,210 @@
+package com.example.expense_ai_backend.ingest;
+
+import com.example.expense_ai_backend.dto.ExpenseImportRowDTO;
+import com.example.expense_ai_backend.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads RFC 4180 CSV. The first record must be a header naming the {@code description},
+ * {@code amount} and {@code category} columns (any order, case-insensitive); an optional
+ * {@code date} column takes ISO-8601 date-times or plain dates. Other columns are ignored.
+ *
+ * Quoted fields may contain commas, doubled quotes and line breaks, so rows are parsed straight
+ * off the character stream rather than line by line.
+ */
+public class CsvExpenseRowReader implements ExpenseRowReader {
+
+    private static final int NO_COLUMN = -1;
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    // Line the next character belongs to, and whether a CR was just consumed (CRLF counts once)
+    private long line = 1;
+    private boolean afterCarriageReturn;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    private final int columnCount;
+    private final int descriptionColumn;
+    private final int amountColumn;
+    private final int categoryColumn;
+    private final int dateColumn;
+
+    public CsvExpenseRowReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("CSV import is empty; expected a header row");
+        }
+        // Spreadsheet exports often start with a byte order mark
+        if (header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        this.columnCount = header.size();
+        this.descriptionColumn = requiredColumn(header, "description");
+        this.amountColumn = requiredColumn(header, "amount");
+        this.categoryColumn = requiredColumn(header, "category");
+        this.dateColumn = column(header, "date");
+    }
+
+    @Override
+    public ExpenseImportRow next() throws IOException {
+        List<String> record;
+        long recordLine;
+        do {
+            recordLine = line;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isEmpty());
+
+        if (record.size() != columnCount) {
+            return ExpenseImportRow.failed(recordLine,
+                    "Expected " + columnCount + " columns, got " + record.size());
+        }
+
+        ExpenseImportRowDTO expense = new ExpenseImportRowDTO();
+        expense.setDescription(record.get(descriptionColumn));
+        expense.setCategory(record.get(categoryColumn));
+        String amount = record.get(amountColumn).trim();
+        if (!amount.isEmpty()) {
+            try {
+                expense.setAmount(new BigDecimal(amount));
+            } catch (NumberFormatException ex) {
+                return ExpenseImportRow.failed(recordLine, "amount - Amount must be a number");
+            }
+        }
+        if (dateColumn != NO_COLUMN) {
+            String date = record.get(dateColumn).trim();
+            if (!date.isEmpty()) {
+                try {
+                    expense.setDate(parseDate(date));
+                } catch (DateTimeParseException ex) {
+                    return ExpenseImportRow.failed(recordLine, "date - Date must be ISO-8601, got: " + date);
+                }
+            }
+        }
+        return ExpenseImportRow.parsed(recordLine, expense);
+    }
+
+    /**
+     * Reads one record, or returns {@code null} at end of input. The returned list is reused.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new BadRequestException("CSV import ends inside a quoted field");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            fieldStart = false;
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            if (!afterCarriageReturn) {
+                line++;
+            }
+        } else if (c == '\r') {
+            line++;
+        }
+        afterCarriageReturn = c == '\r';
+        return c;
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return;
+            }
+        }
+        if (buffer[position] == '\n') {
+            read();
+        }
+    }
+
+    private static LocalDateTime parseDate(String date) {
+        return date.length() == 10 ? LocalDate.parse(date).atStartOfDay() : LocalDateTime.parse(date);
+    }
+
+    private static int requiredColumn(List<String> header, String name) {
+        int index = column(header, name);
+        if (index == NO_COLUMN) {
+            throw new BadRequestException("CSV header is missing the '" + name + "' column");
+        }
+        return index;
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        return NO_COLUMN;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.expense_ai_backend.ingest;
+
+import com.example.expense_ai_backend.dto.ExpenseImportRowDTO;
+
+/**
+ * A parsed import row, or the reason it could not be parsed ({@code expense} is then null).
+ */
+public record ExpenseImportRow(long line, ExpenseImportRowDTO expense, String error) {
+
+    static ExpenseImportRow parsed(long line, ExpenseImportRowDTO expense) {
+        return new ExpenseImportRow(line, expense, null);
+    }
+
+    static ExpenseImportRow failed(long line, String error) {
+        return new ExpenseImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.expense_ai_backend.ingest;
+
+import java.io.IOException;
+
+/**
+ * Pulls import rows off a character stream one at a time, so an import never holds more than
+ * the current row (and the batch being inserted) in memory.
+ */
+public interface ExpenseRowReader {
+
+    /**
+     * The next row, or {@code null} once the input is exhausted. Malformed rows are returned as
+     * failed rows rather than thrown, so one bad line does not abort the import.
+     */
+    ExpenseImportRow next() throws IOException;
+}
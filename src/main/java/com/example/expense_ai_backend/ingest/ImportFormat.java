@@ -0,0 +1,11 @@
+package com.example.expense_ai_backend.ingest;
+
+/**
+ * Body formats accepted by the bulk import endpoint.
+ */
+public enum ImportFormat {
+    /** One JSON object per line, with the fields of a create request */
+    NDJSON,
+    /** RFC 4180 CSV with a header row naming the columns */
+    CSV
+}
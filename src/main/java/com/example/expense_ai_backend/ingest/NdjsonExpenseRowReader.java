@@ -0,0 +1,49 @@
+package com.example.expense_ai_backend.ingest;
+
+import com.example.expense_ai_backend.dto.ExpenseImportRowDTO;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads newline-delimited JSON, one expense object per line. Blank lines are skipped.
+ */
+public class NdjsonExpenseRowReader implements ExpenseRowReader {
+
+    private final BufferedReader reader;
+
+    private final ObjectReader rowReader;
+
+    private long line;
+
+    public NdjsonExpenseRowReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.rowReader = objectMapper.readerFor(ExpenseImportRowDTO.class);
+    }
+
+    @Override
+    public ExpenseImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        try {
+            ExpenseImportRowDTO expense = rowReader.readValue(text);
+            if (expense == null) {
+                return ExpenseImportRow.failed(line, "Expected a JSON object");
+            }
+            return ExpenseImportRow.parsed(line, expense);
+        } catch (JacksonException ex) {
+            return ExpenseImportRow.failed(line, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+}
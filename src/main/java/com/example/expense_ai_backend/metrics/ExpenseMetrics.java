@@ -0,0 +1,51 @@
+package com.example.expense_ai_backend.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request latencies per controller endpoint and error counts per exception type. Repository
+ * operation latencies are kept by the repository itself (see {@code ExpenseRepository#latency}).
+ *
+ * Histograms and counters are created on first use; after that, recording is a map lookup and a
+ * lock-free update with no allocation.
+ */
+@Component
+public class ExpenseMetrics {
+
+    // Keyed by handler method for allocation-free lookups, and by name for the exporter
+    private final ConcurrentHashMap<Method, LatencyHistogram> latencyByHandler = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, LatencyHistogram> endpointLatencies = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<Class<?>, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+    public LatencyHistogram endpointLatency(Method handler) {
+        LatencyHistogram histogram = latencyByHandler.get(handler);
+        if (histogram != null) {
+            return histogram;
+        }
+        return latencyByHandler.computeIfAbsent(handler, key -> endpointLatencies.computeIfAbsent(
+                key.getDeclaringClass().getSimpleName() + "." + key.getName(), name -> new LatencyHistogram()));
+    }
+
+    public void recordError(Throwable error) {
+        errorsByType.computeIfAbsent(error.getClass(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Endpoint histograms by "Controller.method" name, sorted by name.
+     */
+    public Map<String, LatencyHistogram> endpointLatencies() {
+        return Collections.unmodifiableMap(endpointLatencies);
+    }
+
+    public Map<Class<?>, LongAdder> errorCounts() {
+        return Collections.unmodifiableMap(errorsByType);
+    }
+}
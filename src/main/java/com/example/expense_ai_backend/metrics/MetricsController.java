@@ -0,0 +1,178 @@
+package com.example.expense_ai_backend.metrics;
+
+import com.example.expense_ai_backend.admission.AdmissionControl;
+import com.example.expense_ai_backend.anomaly.ExpenseAnomalyDetector;
+import com.example.expense_ai_backend.budget.BudgetTracker;
+import com.example.expense_ai_backend.cache.ExpenseResultCache;
+import com.example.expense_ai_backend.cache.ResultCacheStats;
+import com.example.expense_ai_backend.feed.ExpenseChangeFeed;
+import com.example.expense_ai_backend.idempotency.IdempotencyCache;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.repository.RepositoryOperation;
+import com.example.expense_ai_backend.search.ExpenseSearchIndex;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prometheus text exposition (format 0.0.4) of the endpoint and repository latency histograms,
+ * store and index sizes, flagged anomalies, budgets and their alerts, change feed subscribers,
+ * result cache statistics, and error counts.
+ */
+@RestController
+public class MetricsController {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final ExpenseMetrics metrics;
+
+    private final ExpenseRepository expenseRepository;
+
+    private final ExpenseResultCache resultCache;
+
+    private final ExpenseSearchIndex searchIndex;
+
+    private final ExpenseAnomalyDetector anomalyDetector;
+
+    private final BudgetTracker budgetTracker;
+
+    private final ExpenseChangeFeed changeFeed;
+
+    private final IdempotencyCache idempotencyCache;
+
+    private final AdmissionControl admission;
+
+    public MetricsController(ExpenseMetrics metrics, ExpenseRepository expenseRepository,
+                             ExpenseResultCache resultCache, ExpenseSearchIndex searchIndex,
+                             ExpenseAnomalyDetector anomalyDetector, BudgetTracker budgetTracker,
+                             ExpenseChangeFeed changeFeed, IdempotencyCache idempotencyCache,
+                             AdmissionControl admission) {
+        this.metrics = metrics;
+        this.expenseRepository = expenseRepository;
+        this.resultCache = resultCache;
+        this.searchIndex = searchIndex;
+        this.anomalyDetector = anomalyDetector;
+        this.budgetTracker = budgetTracker;
+        this.changeFeed = changeFeed;
+        this.idempotencyCache = idempotencyCache;
+        this.admission = admission;
+    }
+
+    @GetMapping(value = "metrics", produces = CONTENT_TYPE)
+    String metrics() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+
+        Map<String, LatencyHistogram> endpoints = metrics.endpointLatencies();
+        writeSummary(out, "expense_http_request_duration_seconds", "Request latency per endpoint",
+                "endpoint", endpoints);
+
+        Map<String, LatencyHistogram> operations = new TreeMap<>();
+        for (RepositoryOperation operation : RepositoryOperation.values()) {
+            operations.put(operation.name().toLowerCase(Locale.ROOT), expenseRepository.latency(operation));
+        }
+        writeSummary(out, "expense_repository_operation_duration_seconds", "Repository operation latency",
+                "operation", operations);
+
+        writeHeader(out, "expense_store_size", "Expenses currently stored", "gauge");
+        out.append("expense_store_size ").append(expenseRepository.count()).append('\n');
+
+        writeHeader(out, "expense_index_keys", "Distinct keys per secondary index", "gauge");
+        Map<String, Integer> indexSizes = new TreeMap<>(expenseRepository.indexSizes());
+        indexSizes.put("search", searchIndex.keyCount());
+        indexSizes.forEach((index, keys) ->
+                out.append("expense_index_keys{index=\"").append(index).append("\"} ").append(keys).append('\n'));
+
+        writeHeader(out, "expense_anomalies_flagged", "Expenses currently flagged as unusually high", "gauge");
+        out.append("expense_anomalies_flagged ").append(anomalyDetector.flaggedCount()).append('\n');
+
+        writeHeader(out, "expense_budgets", "Monthly category budgets currently set", "gauge");
+        out.append("expense_budgets ").append(budgetTracker.budgetCount()).append('\n');
+        writeHeader(out, "expense_budget_alerts_total", "Budget thresholds crossed by writes", "counter");
+        out.append("expense_budget_alerts_total ").append(budgetTracker.alertCount()).append('\n');
+
+        writeHeader(out, "expense_feed_subscribers", "Open change feed streams", "gauge");
+        out.append("expense_feed_subscribers ").append(changeFeed.subscriberCount()).append('\n');
+        writeHeader(out, "expense_feed_overflows_total", "Change feed subscribers that fell behind", "counter");
+        out.append("expense_feed_overflows_total ").append(changeFeed.overflowCount()).append('\n');
+
+        writeHeader(out, "expense_idempotency_keys", "Idempotency keys currently remembered", "gauge");
+        out.append("expense_idempotency_keys ").append(idempotencyCache.size()).append('\n');
+        writeHeader(out, "expense_idempotency_replays_total", "Creates answered from an earlier request with the same key", "counter");
+        out.append("expense_idempotency_replays_total ").append(idempotencyCache.replayCount()).append('\n');
+
+        writeHeader(out, "expense_admission_rejections_total", "Requests turned away by admission control, by cause and budget", "counter");
+        for (boolean expensive : new boolean[] {false, true}) {
+            String budget = expensive ? "expensive" : "standard";
+            out.append("expense_admission_rejections_total{cause=\"rate\",budget=\"").append(budget).append("\"} ")
+                    .append(admission.rateLimiter(expensive).rejectionCount()).append('\n');
+            out.append("expense_admission_rejections_total{cause=\"overload\",budget=\"").append(budget).append("\"} ")
+                    .append(admission.concurrencyLimiter(expensive).rejectionCount()).append('\n');
+        }
+        out.append("expense_admission_rejections_total{cause=\"global\",budget=\"all\"} ")
+                .append(admission.globalRejectionCount()).append('\n');
+        writeHeader(out, "expense_admission_in_flight", "Admitted requests in flight, by budget", "gauge");
+        out.append("expense_admission_in_flight{budget=\"standard\"} ")
+                .append(admission.concurrencyLimiter(false).inFlight()).append('\n');
+        out.append("expense_admission_in_flight{budget=\"expensive\"} ")
+                .append(admission.concurrencyLimiter(true).inFlight()).append('\n');
+
+        ResultCacheStats cache = resultCache.stats();
+        writeHeader(out, "expense_result_cache_requests_total", "Result cache lookups by outcome", "counter");
+        out.append("expense_result_cache_requests_total{result=\"hit\"} ").append(cache.hits()).append('\n');
+        out.append("expense_result_cache_requests_total{result=\"miss\"} ").append(cache.misses()).append('\n');
+        writeHeader(out, "expense_result_cache_removals_total", "Result cache entries dropped, by cause", "counter");
+        out.append("expense_result_cache_removals_total{cause=\"eviction\"} ").append(cache.evictions()).append('\n');
+        out.append("expense_result_cache_removals_total{cause=\"invalidation\"} ").append(cache.invalidations()).append('\n');
+        writeHeader(out, "expense_result_cache_entries", "Results currently cached", "gauge");
+        out.append("expense_result_cache_entries ").append(cache.entries()).append('\n');
+        writeHeader(out, "expense_result_cache_weight", "Rows currently cached (weight budget usage)", "gauge");
+        out.append("expense_result_cache_weight ").append(cache.weight()).append('\n');
+
+        writeHeader(out, "expense_errors_total", "Errors handled by GlobalExceptionHandler, by type", "counter");
+        Map<String, Long> errors = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : metrics.errorCounts().entrySet()) {
+            errors.put(entry.getKey().getSimpleName(), entry.getValue().sum());
+        }
+        errors.forEach((type, count) ->
+                out.append("expense_errors_total{type=\"").append(type).append("\"} ").append(count).append('\n'));
+
+        return out.toString();
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String help, String label,
+                                     Map<String, LatencyHistogram> histograms) {
+        writeHeader(out, name, help, "summary");
+        StringBuilder max = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            String labels = label + "=\"" + entry.getKey() + "\"";
+            for (double quantile : QUANTILES) {
+                out.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(snapshot.valueAt(quantile))).append('\n');
+            }
+            out.append(name).append("_sum{").append(labels).append("} ")
+                    .append(seconds(snapshot.totalNanos())).append('\n');
+            out.append(name).append("_count{").append(labels).append("} ")
+                    .append(snapshot.count()).append('\n');
+            max.append(name).append("_max{").append(labels).append("} ")
+                    .append(seconds(snapshot.maxNanos())).append('\n');
+        }
+        writeHeader(out, name + "_max", help + " (max since start)", "gauge");
+        out.append(max);
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
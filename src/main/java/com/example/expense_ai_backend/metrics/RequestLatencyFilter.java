@@ -0,0 +1,76 @@
+package com.example.expense_ai_backend.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every request that reaches a controller method, including response serialization, and
+ * records it under that method's histogram. Requests that match no handler are not recorded.
+ *
+ * A request that goes async (a streamed export, a change feed) is recorded when the async request
+ * completes, not when the first dispatch returns, so those endpoints report how long the whole
+ * response took rather than how long it took to start it.
+ */
+@Component
+public class RequestLatencyFilter extends OncePerRequestFilter {
+
+    private final ExpenseMetrics metrics;
+
+    public RequestLatencyFilter(ExpenseMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            if (handler instanceof HandlerMethod handlerMethod) {
+                LatencyHistogram latency = metrics.endpointLatency(handlerMethod.getMethod());
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new RecordOnCompletion(latency, start));
+                } else {
+                    latency.recordSince(start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records an async request once it completes; a timeout or error also ends in completion.
+     */
+    private record RecordOnCompletion(LatencyHistogram latency, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            latency.recordSince(start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are cleared when async processing restarts
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
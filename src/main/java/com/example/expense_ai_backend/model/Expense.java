@@ -1,20 +1,34 @@
 package com.example.expense_ai_backend.model;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.With;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-@Data
-@NoArgsConstructor
+/**
+ * Immutable expense record. Changes are made by saving a modified copy ({@code withX}), so a
+ * reader holding an instance always sees one consistent state. {@code version} is assigned by the
+ * repository: 1 on create, incremented by every save of the same id.
+ */
+@Value
+@With
 @AllArgsConstructor
 public class Expense {
-    private Long id;
-    private String description;
-    private BigDecimal amount;
-    private String category;
-    private LocalDateTime date;
-    private String userId;
+    Long id;
+    String description;
+    BigDecimal amount;
+    String category;
+    LocalDateTime date;
+    String userId;
+    long version;
+
+    /**
+     * An expense not yet stored; the repository assigns its version when it is saved.
+     */
+    public Expense(Long id, String description, BigDecimal amount, String category, LocalDateTime date,
+                   String userId) {
+        this(id, description, amount, category, date, userId, 0);
+    }
 }
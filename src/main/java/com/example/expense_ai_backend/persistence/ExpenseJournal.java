@@ -0,0 +1,64 @@
+package com.example.expense_ai_backend.persistence;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Durable log of repository writes.
+ *
+ * The repository appends a record inside the same per-id critical section that applies the
+ * change, so records for one expense are logged in the order they were applied. Once the change
+ * is visible it calls {@link #complete(long)} with the returned ticket, which may wait for the
+ * record to reach disk depending on the {@link FsyncPolicy}.
+ */
+public interface ExpenseJournal {
+
+    /**
+     * Journal used when persistence is disabled: nothing is logged or recovered.
+     */
+    ExpenseJournal NONE = new ExpenseJournal() {
+        @Override
+        public long recover(Consumer<Expense> saves, LongConsumer deletes) {
+            return 0;
+        }
+
+        @Override
+        public void start(LongSupplier nextId, Iterable<Expense> expenses) {
+        }
+
+        @Override
+        public long appendSave(Expense expense) {
+            return 0;
+        }
+
+        @Override
+        public long appendDelete(long id) {
+            return 0;
+        }
+
+        @Override
+        public void complete(long ticket) {
+        }
+    };
+
+    /**
+     * Replays the latest snapshot and the log written after it.
+     *
+     * @return the id generator value recorded by the snapshot, or 0 when there is none
+     */
+    long recover(Consumer<Expense> saves, LongConsumer deletes);
+
+    /**
+     * Opens the journal for appends and starts periodic snapshots of the given live view.
+     */
+    void start(LongSupplier nextId, Iterable<Expense> expenses);
+
+    long appendSave(Expense expense);
+
+    long appendDelete(long id);
+
+    void complete(long ticket);
+}
@@ -0,0 +1,108 @@
+package com.example.expense_ai_backend.persistence;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of journal records and snapshot entries.
+ *
+ * Amounts are stored as scale + unscaled two's-complement bytes, dates as UTC epoch seconds plus
+ * nanos, and strings as length-prefixed UTF-8 (length -1 for null). The version is the last
+ * field; records written before expenses were versioned end without it and read back as 0.
+ */
+final class ExpenseRecordCodec {
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private ExpenseRecordCodec() {
+    }
+
+    static void writeSave(RecordBuffer out, Expense expense) {
+        out.writeByte(SAVE);
+        writeExpense(out, expense);
+    }
+
+    static void writeDelete(RecordBuffer out, long id) {
+        out.writeByte(DELETE);
+        out.writeLong(id);
+    }
+
+    static void writeExpense(RecordBuffer out, Expense expense) {
+        out.writeLong(expense.getId());
+        writeString(out, expense.getDescription());
+        writeAmount(out, expense.getAmount());
+        writeString(out, expense.getCategory());
+        LocalDateTime date = expense.getDate();
+        if (date == null) {
+            out.writeLong(NO_DATE);
+        } else {
+            out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(date.getNano());
+        }
+        writeString(out, expense.getUserId());
+        out.writeLong(expense.getVersion());
+    }
+
+    static Expense readExpense(ByteBuffer in) {
+        long id = in.getLong();
+        String description = readString(in);
+        BigDecimal amount = readAmount(in);
+        String category = readString(in);
+        long epochSecond = in.getLong();
+        LocalDateTime date = epochSecond == NO_DATE ? null :
+                LocalDateTime.ofEpochSecond(epochSecond, in.getInt(), ZoneOffset.UTC);
+        String userId = readString(in);
+        long version = in.remaining() >= Long.BYTES ? in.getLong() : 0;
+        return new Expense(id, description, amount, category, date, userId, version);
+    }
+
+    private static void writeAmount(RecordBuffer out, BigDecimal amount) {
+        if (amount == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = amount.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled, 0, unscaled.length);
+        out.writeInt(amount.scale());
+    }
+
+    private static BigDecimal readAmount(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.getInt());
+    }
+
+    private static void writeString(RecordBuffer out, String value) {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,578 @@
+package com.example.expense_ai_backend.persistence;
+
+import com.example.expense_ai_backend.model.Expense;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * File-backed {@link ExpenseJournal}: an append-only log split into numbered segments, plus
+ * periodic binary snapshots that let old segments be deleted.
+ *
+ * <p>Log records are framed as {@code [int length][int crc32][payload]}. Appends only copy the
+ * encoded record into an in-memory buffer; a single flusher thread writes and fsyncs whole
+ * batches, so concurrent writers share one fsync (group commit).
+ *
+ * <p>A snapshot seals the current segment, waits until every write logged to it is visible in
+ * the store, then writes {@code snapshot-N.bin} covering everything before segment N. Writes
+ * that race with the scan land in segment N and are replayed on top; replay is idempotent.
+ * Recovery loads the newest snapshot and replays the segments after it, truncating a torn record
+ * at the tail of the last segment.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expense.persistence", name = "enabled", havingValue = "true")
+public class FileExpenseJournal implements ExpenseJournal, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FileExpenseJournal.class);
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final int SNAPSHOT_MAGIC = 0x45585053; // "EXPS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int FLUSH_THRESHOLD_BYTES = 1024 * 1024;
+    private static final int IO_BUFFER_BYTES = 1024 * 1024;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long groupCommitNanos;
+    private final Duration snapshotInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    // One checkpoint at a time. Not a monitor: checkpoints wait for the flusher and write files,
+    // and a virtual thread doing that inside a monitor would pin its carrier.
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    // Guarded by lock
+    private final RecordBuffer scratch = new RecordBuffer();
+    private final CRC32 crc = new CRC32();
+    private RecordBuffer pending = new RecordBuffer(64 * 1024);
+    private long appendedPosition;
+    private long durablePosition;
+    private boolean rotationRequested;
+    private boolean running;
+    private boolean flusherStopped;
+    private IOException failure;
+
+    // Written under lock, read without it by complete()
+    private volatile Segment current;
+    private volatile Segment draining;
+
+    // Owned by the flusher thread
+    private RecordBuffer writing = new RecordBuffer(64 * 1024);
+    private FileChannel channel;
+
+    private long lastSegmentNumber;
+    private long snapshotNumber;
+    private Thread flusher;
+    private ScheduledExecutorService snapshotScheduler;
+    private LongSupplier nextId;
+    private Iterable<Expense> expenses;
+
+    public FileExpenseJournal(PersistenceProperties properties) {
+        this(Path.of(properties.getDirectory()), properties.getFsyncPolicy(),
+                properties.getGroupCommitInterval(), properties.getSnapshotInterval());
+    }
+
+    public FileExpenseJournal(Path directory, FsyncPolicy fsyncPolicy, Duration groupCommitInterval,
+                              Duration snapshotInterval) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitNanos = groupCommitInterval.toNanos();
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public long recover(Consumer<Expense> saves, LongConsumer deletes) {
+        try {
+            Files.createDirectories(directory);
+            List<Long> snapshots = listNumbers(SNAPSHOT_FILE);
+            List<Long> segments = listNumbers(SEGMENT_FILE);
+
+            long recoveredNextId = 0;
+            if (!snapshots.isEmpty()) {
+                snapshotNumber = snapshots.get(snapshots.size() - 1);
+                recoveredNextId = readSnapshot(snapshotFile(snapshotNumber), saves);
+            }
+
+            long replayed = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                long number = segments.get(i);
+                if (number < snapshotNumber) {
+                    // Left behind by a snapshot that finished but crashed before cleanup
+                    Files.deleteIfExists(segmentFile(number));
+                    continue;
+                }
+                replayed += replaySegment(segmentFile(number), i == segments.size() - 1, saves, deletes);
+            }
+            lastSegmentNumber = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+            log.info("Recovered expense journal from {} (snapshot {}, {} log records replayed)",
+                    directory, snapshotNumber, replayed);
+            return recoveredNextId;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to recover expense journal from " + directory, ex);
+        }
+    }
+
+    @Override
+    public void start(LongSupplier nextId, Iterable<Expense> expenses) {
+        this.nextId = nextId;
+        this.expenses = expenses;
+        long number = Math.max(lastSegmentNumber + 1, Math.max(snapshotNumber, 1));
+        try {
+            channel = openSegment(number);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open expense journal segment " + number, ex);
+        }
+
+        lock.lock();
+        try {
+            current = new Segment(number, 0);
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+
+        flusher = new Thread(this::flushLoop, "expense-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "expense-journal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledCheckpoint,
+                    intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public long appendSave(Expense expense) {
+        lock.lock();
+        try {
+            scratch.reset();
+            ExpenseRecordCodec.writeSave(scratch, expense);
+            return appendScratch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendDelete(long id) {
+        lock.lock();
+        try {
+            scratch.reset();
+            ExpenseRecordCodec.writeDelete(scratch, id);
+            return appendScratch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void complete(long ticket) {
+        if (ticket == 0) {
+            return;
+        }
+        // A record belongs to the first segment whose start lies before it; only the current
+        // and the segment being sealed can still have writes in flight.
+        Segment segment = current;
+        if (ticket <= segment.startPosition) {
+            segment = draining;
+        }
+        segment.inFlight.decrement();
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            awaitDurable(ticket);
+        }
+    }
+
+    /**
+     * Seals the current segment, writes a snapshot of the store and deletes the log it covers.
+     */
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            writeCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint() {
+        Segment sealed;
+        lock.lock();
+        try {
+            checkHealthy();
+            rotationRequested = true;
+            flushRequested.signal();
+            while (rotationRequested && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            checkHealthy();
+            sealed = draining;
+        } finally {
+            lock.unlock();
+        }
+
+        // Every record in the sealed segment must be visible in the store before the scan
+        while (sealed.inFlight.sum() > 0) {
+            LockSupport.parkNanos(100_000);
+        }
+
+        long coveredFrom = sealed.number + 1;
+        try {
+            writeSnapshot(coveredFrom);
+            for (long number : listNumbers(SEGMENT_FILE)) {
+                if (number < coveredFrom) {
+                    Files.deleteIfExists(segmentFile(number));
+                }
+            }
+            for (long number : listNumbers(SNAPSHOT_FILE)) {
+                if (number < coveredFrom) {
+                    Files.deleteIfExists(snapshotFile(number));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write expense snapshot", ex);
+        } finally {
+            draining = null;
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        lock.lock();
+        try {
+            running = false;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.join();
+        }
+    }
+
+    private long appendScratch() {
+        checkHealthy();
+        crc.reset();
+        crc.update(scratch.array(), 0, scratch.size());
+        pending.writeInt(scratch.size());
+        pending.writeInt((int) crc.getValue());
+        scratch.writeTo(pending);
+        appendedPosition += RECORD_HEADER_BYTES + scratch.size();
+        current.inFlight.increment();
+        if (pending.size() >= FLUSH_THRESHOLD_BYTES) {
+            flushRequested.signal();
+        }
+        return appendedPosition;
+    }
+
+    private void awaitDurable(long ticket) {
+        lock.lock();
+        try {
+            flushRequested.signal();
+            while (durablePosition < ticket && failure == null && !flusherStopped) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durablePosition < ticket) {
+                checkHealthy();
+                throw new IllegalStateException("Expense journal stopped before the write was durable");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkHealthy() {
+        if (failure != null) {
+            throw new UncheckedIOException("Expense journal is unavailable", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Expense journal is not running");
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            RecordBuffer batch;
+            long batchEnd;
+            boolean rotate;
+            boolean stop;
+            lock.lock();
+            try {
+                if (running && pending.size() == 0 && !rotationRequested) {
+                    flushRequested.awaitNanos(groupCommitNanos);
+                }
+                batch = pending;
+                pending = writing;
+                writing = batch;
+                batchEnd = appendedPosition;
+                rotate = rotationRequested;
+                stop = !running;
+                if (rotate) {
+                    draining = current;
+                    current = new Segment(current.number + 1, batchEnd);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                if (batch.size() > 0) {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch.array(), 0, batch.size());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    if (fsyncPolicy != FsyncPolicy.NEVER) {
+                        channel.force(false);
+                    }
+                }
+                if (rotate || stop) {
+                    channel.force(false);
+                    channel.close();
+                }
+                if (rotate) {
+                    channel = openSegment(current.number);
+                }
+            } catch (IOException ex) {
+                log.error("Expense journal write failed; further writes will be rejected", ex);
+                error = ex;
+            } finally {
+                batch.reset();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durablePosition = batchEnd;
+                }
+                if (rotate) {
+                    rotationRequested = false;
+                }
+                if (stop || error != null) {
+                    flusherStopped = true;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (stop || error != null) {
+                return;
+            }
+        }
+    }
+
+    private void scheduledCheckpoint() {
+        try {
+            checkpoint();
+        } catch (RuntimeException ex) {
+            log.error("Scheduled expense snapshot failed", ex);
+        }
+    }
+
+    private void writeSnapshot(long number) throws IOException {
+        Path target = snapshotFile(number);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long written = 0;
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(file), IO_BUFFER_BYTES), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(nextId.getAsLong());
+
+            RecordBuffer record = new RecordBuffer();
+            for (Expense expense : expenses) {
+                record.reset();
+                ExpenseRecordCodec.writeExpense(record, expense);
+                out.writeByte(1);
+                out.writeInt(record.size());
+                record.writeTo(out);
+                written++;
+            }
+            out.writeByte(0);
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Wrote expense snapshot {} with {} expenses", target.getFileName(), written);
+    }
+
+    private long readSnapshot(Path file, Consumer<Expense> saves) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_BYTES), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognised snapshot format: " + file);
+            }
+            long snapshotNextId = in.readLong();
+
+            byte[] payload = new byte[256];
+            while (in.readByte() == 1) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    throw new IOException("Corrupt snapshot record in " + file);
+                }
+                if (length > payload.length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+                saves.accept(ExpenseRecordCodec.readExpense(ByteBuffer.wrap(payload, 0, length)));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            return snapshotNextId;
+        }
+    }
+
+    /**
+     * Replays one segment and returns the number of records applied. A short or corrupt record is
+     * the signature of a crash mid-append, which is only legitimate at the tail of the newest
+     * segment; there it is truncated away, anywhere else it is reported as corruption.
+     */
+    private long replaySegment(Path file, boolean newest, Consumer<Expense> saves, LongConsumer deletes)
+            throws IOException {
+        long size = Files.size(file);
+        long validBytes = 0;
+        long records = 0;
+        CRC32 checksum = new CRC32();
+        byte[] payload = new byte[256];
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_BYTES))) {
+            while (validBytes + RECORD_HEADER_BYTES <= size) {
+                int length = in.readInt();
+                int expected = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES || validBytes + RECORD_HEADER_BYTES + length > size) {
+                    break;
+                }
+                if (length > payload.length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+                checksum.reset();
+                checksum.update(payload, 0, length);
+                if ((int) checksum.getValue() != expected) {
+                    break;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(payload, 0, length);
+                byte type = record.get();
+                if (type == ExpenseRecordCodec.SAVE) {
+                    saves.accept(ExpenseRecordCodec.readExpense(record));
+                } else if (type == ExpenseRecordCodec.DELETE) {
+                    deletes.accept(record.getLong());
+                } else {
+                    throw new IOException("Unknown journal record type " + type + " in " + file);
+                }
+                validBytes += RECORD_HEADER_BYTES + length;
+                records++;
+            }
+        }
+
+        if (validBytes < size) {
+            if (!newest) {
+                throw new IOException("Corrupt journal segment " + file + " at offset " + validBytes);
+            }
+            log.warn("Truncating torn journal record at offset {} of {} ({} bytes)", validBytes, file, size);
+            try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                truncate.truncate(validBytes);
+                truncate.force(true);
+            }
+        }
+        return records;
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        lastSegmentNumber = number;
+        return FileChannel.open(segmentFile(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(String.format("wal-%020d.log", number));
+    }
+
+    private Path snapshotFile(long number) {
+        return directory.resolve(String.format("snapshot-%020d.bin", number));
+    }
+
+    private List<Long> listNumbers(Pattern pattern) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = pattern.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    /**
+     * One log file. {@code startPosition} is the logical journal position where it begins, so a
+     * ticket (the end position of a record) identifies its segment.
+     */
+    private static final class Segment {
+        private final long number;
+        private final long startPosition;
+        private final LongAdder inFlight = new LongAdder();
+
+        private Segment(long number, long startPosition) {
+            this.number = number;
+            this.startPosition = startPosition;
+        }
+    }
+}
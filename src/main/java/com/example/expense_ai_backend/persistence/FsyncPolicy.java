@@ -0,0 +1,24 @@
+package com.example.expense_ai_backend.persistence;
+
+/**
+ * When journal writes are forced to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every write waits until it has been fsynced. Writers that arrive while an fsync is in
+     * progress are committed together by the next one (group commit).
+     */
+    ALWAYS,
+
+    /**
+     * Writes return once buffered; the journal is fsynced every group-commit interval, so a
+     * crash can lose at most that window.
+     */
+    BATCH,
+
+    /**
+     * Writes are handed to the OS every group-commit interval and never explicitly fsynced.
+     */
+    NEVER
+}
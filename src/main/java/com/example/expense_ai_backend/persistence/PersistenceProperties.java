@@ -0,0 +1,24 @@
+package com.example.expense_ai_backend.persistence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the optional write-ahead log and snapshot persistence ({@code expense.persistence.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.persistence")
+public class PersistenceProperties {
+
+    private boolean enabled = false;
+
+    private String directory = "data";
+
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCH;
+
+    private Duration groupCommitInterval = Duration.ofMillis(5);
+
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
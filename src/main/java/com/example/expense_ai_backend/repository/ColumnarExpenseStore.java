@@ -0,0 +1,321 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Memory-compact store that keeps expenses in primitive column arrays instead of one object
+ * graph per row ({@code expense.storage.layout=columnar}).
+ *
+ * <p>Amounts are held as unscaled longs plus a scale byte, dates as UTC epoch nanoseconds, and
+ * category and user id as dictionary codes (amounts and dates that do not fit are kept aside),
+ * so a row costs roughly 48 bytes plus its description instead of several hundred.
+ * {@link Expense} objects are only materialized when a row is read.
+ * Columns are split into fixed-size pages so growth never copies existing rows.
+ *
+ * <p>{@link #compute} is made atomic per id by a striped {@link ReentrantLock}, as in
+ * {@link MapExpenseStore}, so the remapping (journal append, index updates, change listeners) runs
+ * concurrently for different ids. Only the column write at the end takes the single
+ * {@link StampedLock} write lock. Reads first try an optimistic read and only take the read lock
+ * if a write raced with them. With {@code expense.storage.shards} above 1 every shard gets its
+ * own instance, and so its own write lock.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+@ConditionalOnProperty(prefix = "expense.storage", name = "layout", havingValue = "columnar")
+public class ColumnarExpenseStore implements ExpenseStore {
+
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final long FREE_ROW = 0;
+    // Matches ExpenseDateKey.timestampOf(null)
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final byte WIDE_AMOUNT = Byte.MIN_VALUE;
+    private static final byte NO_AMOUNT = Byte.MIN_VALUE + 1;
+
+    private static final int STRIPES = 256;
+
+    private final StampedLock lock = new StampedLock();
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    // Guarded by lock; read optimistically
+    private long[][] ids = new long[0][];
+    private long[][] unscaledAmounts = new long[0][];
+    private byte[][] amountScales = new byte[0][];
+    private long[][] dates = new long[0][];
+    private int[][] categoryCodes = new int[0][];
+    private int[][] userCodes = new int[0][];
+    private String[][] descriptions = new String[0][];
+    private long[][] versions = new long[0][];
+
+    private final LongIntHashMap rowsById = new LongIntHashMap(PAGE_SIZE);
+    private final StringDictionary categories = new StringDictionary();
+    private final StringDictionary users = new StringDictionary();
+    // Amounts whose unscaled value does not fit a long (rare)
+    private final ConcurrentHashMap<Integer, BigDecimal> wideAmounts = new ConcurrentHashMap<>();
+
+    // Dates outside the epoch-nanosecond range, whose timestamps are clamped
+    private final ConcurrentHashMap<Integer, LocalDateTime> wideDates = new ConcurrentHashMap<>();
+
+    private int[] freeRows = new int[64];
+    private int freeRowCount;
+    private int rowCount;
+    private volatile int size;
+
+    public ColumnarExpenseStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Expense get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Expense expense = readById(id);
+                if (lock.validate(stamp)) {
+                    return expense;
+                }
+            } catch (RuntimeException ex) {
+                // Raced with a write that moved or resized columns; retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return readById(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Expense compute(long id, UnaryOperator<Expense> remapping) {
+        ReentrantLock stripe = stripes[stripeOf(id)];
+        stripe.lock();
+        try {
+            // Only the holder of this id's stripe writes its row, so it cannot change until we do
+            Expense current = get(id);
+            Expense next = remapping.apply(current);
+            if (next == null && current == null) {
+                return null;
+            }
+            long stamp = lock.writeLock();
+            try {
+                int row = rowsById.get(id);
+                if (next == null) {
+                    freeRow(row, id);
+                } else {
+                    if (row == LongIntHashMap.MISSING) {
+                        row = allocateRow(id);
+                    }
+                    writeRow(row, next);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return next;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Expense> iterator() {
+        return new Iterator<>() {
+            private int row;
+            private Expense next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Expense next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Expense current = next;
+                next = advance();
+                return current;
+            }
+
+            private Expense advance() {
+                while (true) {
+                    long stamp = lock.readLock();
+                    try {
+                        if (row >= rowCount) {
+                            return null;
+                        }
+                        Expense expense = readRow(row++);
+                        if (expense != null) {
+                            return expense;
+                        }
+                    } finally {
+                        lock.unlockRead(stamp);
+                    }
+                }
+            }
+        };
+    }
+
+    private Expense readById(long id) {
+        int row = rowsById.get(id);
+        return row == LongIntHashMap.MISSING ? null : readRow(row);
+    }
+
+    private Expense readRow(int row) {
+        int page = row >>> PAGE_BITS;
+        int offset = row & PAGE_MASK;
+        long id = ids[page][offset];
+        if (id == FREE_ROW) {
+            return null;
+        }
+        return new Expense(
+                id,
+                descriptions[page][offset],
+                decodeAmount(row, unscaledAmounts[page][offset], amountScales[page][offset]),
+                categories.decode(categoryCodes[page][offset]),
+                decodeDate(row, dates[page][offset]),
+                users.decode(userCodes[page][offset]),
+                versions[page][offset]
+        );
+    }
+
+    private void writeRow(int row, Expense expense) {
+        int page = row >>> PAGE_BITS;
+        int offset = row & PAGE_MASK;
+        BigDecimal amount = expense.getAmount();
+        wideAmounts.remove(row);
+        if (amount == null) {
+            unscaledAmounts[page][offset] = 0;
+            amountScales[page][offset] = NO_AMOUNT;
+        } else if (amount.unscaledValue().bitLength() < Long.SIZE && amount.scale() > NO_AMOUNT
+                && amount.scale() <= Byte.MAX_VALUE) {
+            unscaledAmounts[page][offset] = amount.unscaledValue().longValue();
+            amountScales[page][offset] = (byte) amount.scale();
+        } else {
+            wideAmounts.put(row, amount);
+            unscaledAmounts[page][offset] = 0;
+            amountScales[page][offset] = WIDE_AMOUNT;
+        }
+        long timestamp = ExpenseDateKey.timestampOf(expense.getDate());
+        if (timestamp == ExpenseDateKey.BEFORE_RANGE || timestamp == ExpenseDateKey.AFTER_RANGE) {
+            wideDates.put(row, expense.getDate());
+        } else {
+            wideDates.remove(row);
+        }
+        dates[page][offset] = timestamp;
+        categoryCodes[page][offset] = categories.encode(expense.getCategory());
+        userCodes[page][offset] = users.encode(expense.getUserId());
+        descriptions[page][offset] = expense.getDescription();
+        versions[page][offset] = expense.getVersion();
+        ids[page][offset] = expense.getId();
+    }
+
+    private int allocateRow(long id) {
+        int row;
+        if (freeRowCount > 0) {
+            row = freeRows[--freeRowCount];
+        } else {
+            row = rowCount++;
+            if ((row >>> PAGE_BITS) == ids.length) {
+                addPage();
+            }
+        }
+        rowsById.put(id, row);
+        size++;
+        return row;
+    }
+
+    private void freeRow(int row, long id) {
+        int page = row >>> PAGE_BITS;
+        int offset = row & PAGE_MASK;
+        ids[page][offset] = FREE_ROW;
+        descriptions[page][offset] = null;
+        wideAmounts.remove(row);
+        wideDates.remove(row);
+        rowsById.remove(id);
+        if (freeRowCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeRowCount * 2);
+        }
+        freeRows[freeRowCount++] = row;
+        size--;
+    }
+
+    private void addPage() {
+        int pages = ids.length + 1;
+        unscaledAmounts = Arrays.copyOf(unscaledAmounts, pages);
+        unscaledAmounts[pages - 1] = new long[PAGE_SIZE];
+        amountScales = Arrays.copyOf(amountScales, pages);
+        amountScales[pages - 1] = new byte[PAGE_SIZE];
+        dates = Arrays.copyOf(dates, pages);
+        dates[pages - 1] = new long[PAGE_SIZE];
+        categoryCodes = Arrays.copyOf(categoryCodes, pages);
+        categoryCodes[pages - 1] = new int[PAGE_SIZE];
+        userCodes = Arrays.copyOf(userCodes, pages);
+        userCodes[pages - 1] = new int[PAGE_SIZE];
+        descriptions = Arrays.copyOf(descriptions, pages);
+        descriptions[pages - 1] = new String[PAGE_SIZE];
+        versions = Arrays.copyOf(versions, pages);
+        versions[pages - 1] = new long[PAGE_SIZE];
+        // ids last: a reader that can see the page through ids can see the other columns too
+        long[][] grownIds = Arrays.copyOf(ids, pages);
+        grownIds[pages - 1] = new long[PAGE_SIZE];
+        ids = grownIds;
+    }
+
+    private BigDecimal decodeAmount(int row, long unscaled, byte scale) {
+        if (scale == NO_AMOUNT) {
+            return null;
+        }
+        if (scale == WIDE_AMOUNT) {
+            return wideAmounts.get(row);
+        }
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static int stripeOf(long id) {
+        int hash = Long.hashCode(id);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private LocalDateTime decodeDate(int row, long timestamp) {
+        if (timestamp == NO_DATE) {
+            return null;
+        }
+        if (timestamp == ExpenseDateKey.BEFORE_RANGE || timestamp == ExpenseDateKey.AFTER_RANGE) {
+            return wideDates.get(row);
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(timestamp, 1_000_000_000L),
+                (int) Math.floorMod(timestamp, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
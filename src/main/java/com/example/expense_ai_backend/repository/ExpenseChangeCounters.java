@@ -0,0 +1,77 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic change counters for the whole store and per user and per category, for deriving
+ * ETags. A counter moves whenever any result scoped to it could have changed, so an unchanged
+ * counter means an unchanged response.
+ *
+ * {@link ExpenseRepository} bumps the counters after a write becomes visible, never before: a
+ * reader that samples a counter and then builds a response can only pair new data with an old
+ * counter (one redundant refetch later), not old data with a new counter (a stale 304 until the
+ * next write). Counters are never removed, so a value is never reused within a process;
+ * {@link #epoch()} tells processes apart.
+ */
+public final class ExpenseChangeCounters {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final AtomicLong global = new AtomicLong();
+
+    private final ConcurrentHashMap<String, AtomicLong> byUser = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, AtomicLong> byCategory = new ConcurrentHashMap<>();
+
+    /**
+     * Random per-process token, so counters restarting at zero cannot reproduce an earlier tag.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    public long global() {
+        return global.get();
+    }
+
+    public long user(String userId) {
+        AtomicLong counter = byUser.get(userId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public long category(String category) {
+        AtomicLong counter = byCategory.get(category);
+        return counter == null ? 0 : counter.get();
+    }
+
+    void recordSave(Expense previous, Expense current) {
+        global.incrementAndGet();
+        bump(byUser, current.getUserId());
+        bump(byCategory, current.getCategory());
+        if (previous != null) {
+            if (!Objects.equals(previous.getUserId(), current.getUserId())) {
+                bump(byUser, previous.getUserId());
+            }
+            if (!Objects.equals(previous.getCategory(), current.getCategory())) {
+                bump(byCategory, previous.getCategory());
+            }
+        }
+    }
+
+    void recordDelete(Expense removed) {
+        global.incrementAndGet();
+        bump(byUser, removed.getUserId());
+        bump(byCategory, removed.getCategory());
+    }
+
+    private static void bump(ConcurrentHashMap<String, AtomicLong> counters, String key) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+
+/**
+ * Callback for components that derive state from the expense store (aggregates, caches, feeds).
+ *
+ * The {@code onExpense*} callbacks run inside the repository's per-id critical section, before the
+ * write is journaled, so changes to one expense are always delivered in the order they were
+ * applied; if the write then fails they are undone through the {@code onExpense*Reverted}
+ * callbacks. Implementations must be quick and must not write back to the repository.
+ *
+ * The {@code afterExpense*} callbacks run on the writing thread once the write is visible and its
+ * journal record is complete, outside the critical section, and never for a write that failed.
+ * They are the place for side effects that cannot be taken back, such as publishing an event;
+ * racing writes to one expense may reach them out of order, which its version tells apart.
+ */
+public interface ExpenseChangeListener {
+
+    /**
+     * @param previous the expense that was replaced, or {@code null} when the expense is new
+     * @param current  the expense now stored under the same id
+     */
+    default void onExpenseSaved(Expense previous, Expense current) {
+    }
+
+    default void onExpenseDeleted(Expense removed) {
+    }
+
+    /**
+     * Undoes an {@link #onExpenseSaved} whose write failed afterwards. By default reports the
+     * reverse change: a delete when the expense was new, else a save back to {@code previous}.
+     */
+    default void onExpenseSaveReverted(Expense previous, Expense current) {
+        if (previous == null) {
+            onExpenseDeleted(current);
+        } else {
+            onExpenseSaved(current, previous);
+        }
+    }
+
+    /**
+     * Undoes an {@link #onExpenseDeleted} whose write failed afterwards; by default reports the
+     * expense saved again.
+     */
+    default void onExpenseDeleteReverted(Expense removed) {
+        onExpenseSaved(null, removed);
+    }
+
+    /**
+     * Called once the save reported to {@link #onExpenseSaved} has committed.
+     */
+    default void afterExpenseSaved(Expense previous, Expense current) {
+    }
+
+    /**
+     * Called once the delete reported to {@link #onExpenseDeleted} has committed.
+     */
+    default void afterExpenseDeleted(Expense removed) {
+    }
+}
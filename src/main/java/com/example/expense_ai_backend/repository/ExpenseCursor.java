@@ -0,0 +1,15 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+
+/**
+ * Position of the last expense on a page. Listings resume strictly after it, so the cost of a
+ * page does not depend on how deep into the listing it is. {@code timestamp} is only used for
+ * {@link ExpenseSort#DATE}.
+ */
+public record ExpenseCursor(ExpenseSort sort, long timestamp, long id) {
+
+    public static ExpenseCursor of(ExpenseSort sort, Expense expense) {
+        return new ExpenseCursor(sort, ExpenseDateKey.timestampOf(expense.getDate()), expense.getId());
+    }
+}
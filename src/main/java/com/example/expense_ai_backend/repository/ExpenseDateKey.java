@@ -0,0 +1,47 @@
+package com.example.expense_ai_backend.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Ordering key for date-sorted postings: expense date as UTC epoch nanoseconds, ties broken by id.
+ */
+record ExpenseDateKey(long timestamp, long id) implements Comparable<ExpenseDateKey> {
+
+    // Epoch nanoseconds only reach from 1677-09-21 to 2262-04-11; dates outside clamp to these
+    static final long BEFORE_RANGE = Long.MIN_VALUE + 1;
+    static final long AFTER_RANGE = Long.MAX_VALUE - 1;
+
+    /**
+     * The date's UTC epoch nanoseconds, {@link Long#MIN_VALUE} for no date. Dates outside the range
+     * a long can hold saturate to {@link #BEFORE_RANGE} or {@link #AFTER_RANGE}, so they still order
+     * before or after every other date (among themselves by id) and range bounds stay monotonic.
+     */
+    static long timestampOf(LocalDateTime date) {
+        if (date == null) {
+            return Long.MIN_VALUE;
+        }
+        long epochSecond = date.toEpochSecond(ZoneOffset.UTC);
+        try {
+            long timestamp = Math.addExact(Math.multiplyExact(epochSecond, 1_000_000_000L), date.getNano());
+            return Math.min(Math.max(timestamp, BEFORE_RANGE), AFTER_RANGE);
+        } catch (ArithmeticException outOfRange) {
+            return epochSecond < 0 ? BEFORE_RANGE : AFTER_RANGE;
+        }
+    }
+
+    /**
+     * Exclusive upper bound for a range ending at {@code to}: {@link Long#MAX_VALUE}, no bound, for
+     * none or one past the end of the range, which must still admit the dates clamped there.
+     */
+    static long upperBoundOf(LocalDateTime to) {
+        long timestamp = timestampOf(to);
+        return to == null || timestamp == AFTER_RANGE ? Long.MAX_VALUE : timestamp;
+    }
+
+    @Override
+    public int compareTo(ExpenseDateKey other) {
+        int byTimestamp = Long.compare(timestamp, other.timestamp);
+        return byTimestamp != 0 ? byTimestamp : Long.compare(id, other.id);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.expense_ai_backend.repository;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent secondary index mapping a lookup key (user, category, ...) to the ids of the
+ * expenses that carry it.
+ *
+ * Posting sets are created and dropped inside {@link ConcurrentHashMap#compute}, so an add can
+ * never land in a set that a concurrent remove is about to discard. Ids are kept sorted by id
+ * and by date, which gives stable results and lets listings seek straight to a cursor.
+ */
+class ExpenseIndex<K> {
+
+    private final ConcurrentHashMap<K, ExpensePostings> postings = new ConcurrentHashMap<>();
+
+    void add(K key, long id, long timestamp) {
+        postings.compute(key, (k, ids) -> {
+            if (ids == null) {
+                ids = new ExpensePostings();
+            }
+            ids.add(id, timestamp);
+            return ids;
+        });
+    }
+
+    void remove(K key, long id, long timestamp) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id, timestamp);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Read-only view of the ids indexed under the given key, in ascending order.
+     */
+    NavigableSet<Long> ids(K key) {
+        ExpensePostings ids = postings.get(key);
+        return ids == null ? Collections.emptyNavigableSet() : ids.ids();
+    }
+
+    /**
+     * Postings for the key, or {@code null} when nothing is indexed under it.
+     */
+    ExpensePostings postings(K key) {
+        return postings.get(key);
+    }
+
+    Set<K> keys() {
+        return Collections.unmodifiableSet(postings.keySet());
+    }
+
+    int keyCount() {
+        return postings.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.expense_ai_backend.repository;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ids of the expenses under one index key, kept sorted both by id and by date so that
+ * keyset-paginated listings can seek straight to the cursor.
+ */
+final class ExpensePostings {
+
+    private final ConcurrentSkipListSet<Long> byId = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<ExpenseDateKey> byDate = new ConcurrentSkipListSet<>();
+
+    void add(long id, long timestamp) {
+        byId.add(id);
+        byDate.add(new ExpenseDateKey(timestamp, id));
+    }
+
+    void remove(long id, long timestamp) {
+        byId.remove(id);
+        byDate.remove(new ExpenseDateKey(timestamp, id));
+    }
+
+    boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    NavigableSet<Long> ids() {
+        return Collections.unmodifiableNavigableSet(byId);
+    }
+
+    /**
+     * Ids in the requested order, starting strictly after the cursor when one is given. Date-sorted
+     * iteration is limited to timestamps in {@code [from, to)}; id-sorted iteration is not (see
+     * {@link #idsInRange}).
+     */
+    Iterator<Long> ids(ExpenseSort sort, boolean descending, ExpenseCursor after, long from, long to) {
+        if (sort == ExpenseSort.DATE) {
+            NavigableSet<ExpenseDateKey> keys = byDate;
+            if (from != Long.MIN_VALUE || to != Long.MAX_VALUE) {
+                // Ids are positive, so (t, MIN_VALUE) sorts before every expense dated t
+                keys = keys.subSet(new ExpenseDateKey(from, Long.MIN_VALUE), true,
+                        new ExpenseDateKey(to, Long.MIN_VALUE), false);
+            }
+            if (descending) {
+                keys = keys.descendingSet();
+            }
+            if (after != null) {
+                keys = keys.tailSet(new ExpenseDateKey(after.timestamp(), after.id()), false);
+            }
+            Iterator<ExpenseDateKey> iterator = keys.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Long next() {
+                    return iterator.next().id();
+                }
+            };
+        }
+        NavigableSet<Long> ids = descending ? byId.descendingSet() : byId;
+        if (after != null) {
+            ids = ids.tailSet(after.id(), false);
+        }
+        return ids.iterator();
+    }
+
+    /**
+     * The first {@code limit} ids in id order, after the cursor, whose timestamp lies in
+     * {@code [from, to)}. Walks the date range and keeps the best {@code limit} ids in a bounded
+     * heap, so it costs O(log n + k log limit) for k expenses in the range instead of a scan of
+     * every id.
+     */
+    long[] idsInRange(long from, long to, boolean descending, ExpenseCursor after, int limit) {
+        // Head of the heap is the id that would be dropped first
+        Comparator<Long> order = descending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        PriorityQueue<Long> best = new PriorityQueue<>(Math.min(limit, 1024), order);
+        NavigableSet<ExpenseDateKey> keys = byDate.subSet(new ExpenseDateKey(from, Long.MIN_VALUE), true,
+                new ExpenseDateKey(to, Long.MIN_VALUE), false);
+        for (ExpenseDateKey key : keys) {
+            long id = key.id();
+            if (after != null && (descending ? id >= after.id() : id <= after.id())) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(id);
+            } else if (order.compare(id, best.peek()) > 0) {
+                best.poll();
+                best.add(id);
+            }
+        }
+        long[] ids = new long[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.expense_ai_backend.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter, ordering and keyset position for a listing. A {@code null} user, category or date bound
+ * means "any"; dates match {@code from <= date < to}. {@code after} is the cursor of the last
+ * expense on the previous page.
+ */
+@Value
+@Builder
+public class ExpenseQuery {
+    String userId;
+    String category;
+    LocalDateTime from;
+    LocalDateTime to;
+    @Builder.Default
+    ExpenseSort sort = ExpenseSort.ID;
+    boolean descending;
+    ExpenseCursor after;
+    @Builder.Default
+    int limit = Integer.MAX_VALUE;
+}
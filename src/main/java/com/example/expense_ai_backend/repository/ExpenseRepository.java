@@ -1,64 +1,594 @@
 package com.example.expense_ai_backend.repository;
 
+import com.example.expense_ai_backend.metrics.LatencyHistogram;
 import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.persistence.ExpenseJournal;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
 
 @Repository
 public class ExpenseRepository {
 
-    // Thread-safe in-memory storage using ConcurrentHashMap
-    private final Map<Long, Expense> expenseStore = new ConcurrentHashMap<>();
+    // Expected version that skips the optimistic check
+    private static final long ANY_VERSION = -1;
 
-    // Auto-increment ID generator
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    // Partitions by user: each has its own row store (ConcurrentHashMap by default, or columnar),
+    // secondary indexes and id allocator, so writes for different shards share no hot spot
+    private final ExpenseShard[] shards;
 
+    // Users with rows outside their home shard (re-assigned by an update, or numbered under another
+    // shard count); their lookups visit every shard. Only grows.
+    private final Set<String> strayUsers = ConcurrentHashMap.newKeySet();
+
+    private final List<ExpenseChangeListener> changeListeners;
+
+    // Bumped once each write is visible; see ExpenseChangeCounters for why not inside the compute
+    private final ExpenseChangeCounters changeCounters = new ExpenseChangeCounters();
+
+    private final ExpenseJournal journal;
+
+    // One latency histogram per RepositoryOperation, indexed by ordinal
+    private final LatencyHistogram[] latencies = new LatencyHistogram[RepositoryOperation.values().length];
+
+    public ExpenseRepository() {
+        this(List.of());
+    }
+
+    public ExpenseRepository(List<ExpenseChangeListener> changeListeners) {
+        this(changeListeners, ExpenseJournal.NONE);
+    }
+
+    public ExpenseRepository(List<ExpenseChangeListener> changeListeners, ExpenseJournal journal) {
+        this(changeListeners, journal, new MapExpenseStore());
+    }
+
+    public ExpenseRepository(List<ExpenseChangeListener> changeListeners, ExpenseJournal journal,
+                             ExpenseStore expenseStore) {
+        this(changeListeners, journal, () -> expenseStore, 1);
+    }
+
+    /**
+     * Creates {@code shardCount} shards, each with a store from {@code storeFactory}, and recovers
+     * any journaled state (notifying listeners as it is replayed) before accepting writes.
+     */
+    public ExpenseRepository(List<ExpenseChangeListener> changeListeners, ExpenseJournal journal,
+                             Supplier<ExpenseStore> storeFactory, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1: " + shardCount);
+        }
+        this.changeListeners = List.copyOf(changeListeners);
+        this.journal = journal;
+        this.shards = new ExpenseShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ExpenseShard(i, shardCount, storeFactory.get());
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+
+        long[] maxId = new long[1];
+        long recoveredNextId = journal.recover(
+                expense -> {
+                    Write write = new Write();
+                    apply(expense, ANY_VERSION, false, write);
+                    committed(write);
+                    maxId[0] = Math.max(maxId[0], expense.getId());
+                },
+                id -> {
+                    Write write = new Write();
+                    remove(id, ANY_VERSION, false, write);
+                    committed(write);
+                });
+        long nextId = Math.max(recoveredNextId, maxId[0] + 1);
+        for (ExpenseShard shard : shards) {
+            shard.advanceNextId(nextId);
+        }
+        journal.start(this::nextId, this::iterateAll);
+    }
+
+    /**
+     * Wires the configured listeners, journal and store layout; the store bean is prototype-scoped
+     * so that every shard gets its own instance.
+     */
+    @Autowired
+    public ExpenseRepository(ObjectProvider<ExpenseChangeListener> changeListeners,
+                             ObjectProvider<ExpenseJournal> journal,
+                             ObjectProvider<ExpenseStore> expenseStore,
+                             StorageProperties storageProperties) {
+        this(changeListeners.orderedStream().toList(),
+                journal.getIfAvailable(() -> ExpenseJournal.NONE),
+                () -> expenseStore.getIfAvailable(MapExpenseStore::new),
+                storageProperties.getShards());
+    }
+
+    /**
+     * Stores the expense, replacing any expense with the same id, and re-indexes it. An expense
+     * without an id gets the next id of its user's shard. Returns the stored copy, which carries the
+     * id and the version the repository assigned.
+     */
     public Expense save(Expense expense) {
-        if (expense.getId() == null) {
-            expense.setId(idGenerator.getAndIncrement());
+        long start = System.nanoTime();
+        try {
+            if (expense.getId() == null) {
+                expense = expense.withId(homeShard(expense.getUserId()).allocateId());
+            }
+            Write write = new Write();
+            try {
+                apply(expense, ANY_VERSION, true, write);
+            } finally {
+                journal.complete(write.ticket);
+            }
+            committed(write);
+            return write.stored;
+        } finally {
+            latency(RepositoryOperation.SAVE).recordSince(start);
+        }
+    }
+
+    /**
+     * Optimistic update: stores {@code replacement} only if the expense with its id is still at
+     * {@code expectedVersion}, atomically with that check. Returns the stored copy, or empty if the
+     * expense was changed or deleted in the meantime. Readers never wait on this; the check and
+     * swap happen inside the store's per-id compute.
+     */
+    public Optional<Expense> compareAndSave(Expense replacement, long expectedVersion) {
+        long start = System.nanoTime();
+        try {
+            Write write = new Write();
+            try {
+                apply(replacement, expectedVersion, true, write);
+            } finally {
+                journal.complete(write.ticket);
+            }
+            committed(write);
+            return Optional.ofNullable(write.stored);
+        } finally {
+            latency(RepositoryOperation.COMPARE_AND_SAVE).recordSince(start);
+        }
+    }
+
+    /**
+     * Saves a batch for a bulk load; rows without an id are numbered from their user's shard. Each
+     * row is applied in its own per-id critical section exactly like {@link #save}; journal tickets
+     * are completed once the whole batch is visible, so the batch shares a single group-commit wait.
+     * If a row fails, the rows before it stay saved (and reach the post-commit callbacks) and the
+     * failure is rethrown.
+     */
+    public void saveAll(List<Expense> expenses) {
+        long start = System.nanoTime();
+        try {
+            Write[] writes = new Write[expenses.size()];
+            int applied = 0;
+            try {
+                for (; applied < writes.length; applied++) {
+                    Expense expense = expenses.get(applied);
+                    if (expense.getId() == null) {
+                        expense = expense.withId(homeShard(expense.getUserId()).allocateId());
+                    }
+                    writes[applied] = new Write();
+                    apply(expense, ANY_VERSION, true, writes[applied]);
+                }
+            } finally {
+                // A row that failed has a 0 ticket, which completes nothing; rows not reached have none
+                for (Write write : writes) {
+                    if (write != null) {
+                        journal.complete(write.ticket);
+                    }
+                }
+                for (int i = 0; i < applied; i++) {
+                    committed(writes[i]);
+                }
+            }
+        } finally {
+            latency(RepositoryOperation.SAVE_ALL).recordSince(start);
         }
-        expenseStore.put(expense.getId(), expense);
-        return expense;
     }
 
     public Optional<Expense> findById(Long id) {
-        return Optional.ofNullable(expenseStore.get(id));
+        long start = System.nanoTime();
+        try {
+            return Optional.ofNullable(shardOf(id).store().get(id));
+        } finally {
+            latency(RepositoryOperation.FIND_BY_ID).recordSince(start);
+        }
     }
 
     public List<Expense> findAll() {
-        return new ArrayList<>(expenseStore.values());
+        long start = System.nanoTime();
+        try {
+            return concat(eachShard(ExpenseShard::findAll));
+        } finally {
+            latency(RepositoryOperation.FIND_ALL).recordSince(start);
+        }
     }
 
     public List<Expense> findByUserId(String userId) {
-        return expenseStore.values().stream()
-                .filter(expense -> userId.equals(expense.getUserId()))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            if (isLocal(userId)) {
+                return homeShard(userId).findByUserId(userId);
+            }
+            return mergeById(eachShard(shard -> shard.findByUserId(userId)));
+        } finally {
+            latency(RepositoryOperation.FIND_BY_USER_ID).recordSince(start);
+        }
     }
 
     public List<Expense> findByCategory(String category) {
-        return expenseStore.values().stream()
-                .filter(expense -> category.equals(expense.getCategory()))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            return mergeById(eachShard(shard -> shard.findByCategory(category)));
+        } finally {
+            latency(RepositoryOperation.FIND_BY_CATEGORY).recordSince(start);
+        }
+    }
+
+    public List<Expense> findByUserIdAndCategory(String userId, String category) {
+        long start = System.nanoTime();
+        try {
+            if (isLocal(userId)) {
+                return homeShard(userId).findByUserIdAndCategory(userId, category);
+            }
+            return mergeById(eachShard(shard -> shard.findByUserIdAndCategory(userId, category)));
+        } finally {
+            latency(RepositoryOperation.FIND_BY_USER_ID_AND_CATEGORY).recordSince(start);
+        }
+    }
+
+    /**
+     * One page of a listing in the query's order, resuming after its cursor. Seeks the sorted
+     * postings of the narrowest matching index, so every page costs O(log n + limit). A date range
+     * is served from the same index's date postings: date-sorted pages seek straight into it, and
+     * id-sorted pages pick the lowest ids from it in O(log n + k log limit) for k rows in range.
+     * A listing for one user reads only that user's shard; any other listing reads a page from every
+     * shard in parallel and keeps the first {@code limit} rows of their merge.
+     */
+    public List<Expense> findPage(ExpenseQuery query) {
+        long start = System.nanoTime();
+        try {
+            if (isLocal(query.getUserId())) {
+                return homeShard(query.getUserId()).page(query);
+            }
+            List<List<Expense>> pages = eachShard(shard -> shard.page(query));
+            if (pages.size() == 1) {
+                return pages.get(0);
+            }
+            List<Expense> page = concat(pages);
+            page.sort(pageOrder(query));
+            return page.size() > query.getLimit() ? new ArrayList<>(page.subList(0, query.getLimit())) : page;
+        } finally {
+            latency(RepositoryOperation.FIND_PAGE).recordSince(start);
+        }
     }
 
     public boolean deleteById(Long id) {
-        return expenseStore.remove(id) != null;
+        long start = System.nanoTime();
+        try {
+            Write write = new Write();
+            try {
+                remove(id, ANY_VERSION, true, write);
+            } finally {
+                journal.complete(write.ticket);
+            }
+            committed(write);
+            return write.previous != null;
+        } finally {
+            latency(RepositoryOperation.DELETE_BY_ID).recordSince(start);
+        }
+    }
+
+    /**
+     * Deletes the expense only if it is still at {@code expectedVersion}. Returns false if it is
+     * missing or was changed in the meantime.
+     */
+    public boolean compareAndDelete(Long id, long expectedVersion) {
+        long start = System.nanoTime();
+        try {
+            Write write = new Write();
+            try {
+                remove(id, expectedVersion, true, write);
+            } finally {
+                journal.complete(write.ticket);
+            }
+            committed(write);
+            return write.previous != null;
+        } finally {
+            latency(RepositoryOperation.COMPARE_AND_DELETE).recordSince(start);
+        }
     }
 
+    /**
+     * Removes every expense one id at a time, shards in parallel, so writers running concurrently
+     * with the clear still leave the indexes consistent with the store.
+     */
     public void deleteAll() {
-        expenseStore.clear();
+        long start = System.nanoTime();
+        try {
+            eachShard(shard -> {
+                for (Expense expense : shard.store()) {
+                    deleteById(expense.getId());
+                }
+                return shard;
+            });
+        } finally {
+            latency(RepositoryOperation.DELETE_ALL).recordSince(start);
+        }
     }
 
     public long count() {
-        return expenseStore.size();
+        long start = System.nanoTime();
+        try {
+            long count = 0;
+            for (ExpenseShard shard : shards) {
+                count += shard.store().size();
+            }
+            return count;
+        } finally {
+            latency(RepositoryOperation.COUNT).recordSince(start);
+        }
     }
 
     public boolean existsById(Long id) {
-        return expenseStore.containsKey(id);
+        long start = System.nanoTime();
+        try {
+            return shardOf(id).store().contains(id);
+        } finally {
+            latency(RepositoryOperation.EXISTS_BY_ID).recordSince(start);
+        }
+    }
+
+    /**
+     * Latency of one repository operation since startup, for the metrics endpoint.
+     */
+    public LatencyHistogram latency(RepositoryOperation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    /**
+     * Change counters for conditional requests; see {@link ExpenseChangeCounters}.
+     */
+    public ExpenseChangeCounters changeCounters() {
+        return changeCounters;
     }
-}
 
+    /**
+     * Number of keys in each secondary index, summed over shards (a key present in several shards
+     * counts once per shard).
+     */
+    public Map<String, Integer> indexSizes() {
+        int[] sizes = new int[3];
+        for (ExpenseShard shard : shards) {
+            int[] shardSizes = shard.indexSizes();
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] += shardSizes[i];
+            }
+        }
+        return Map.of("user", sizes[0], "category", sizes[1], "user_category", sizes[2]);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    List<ExpenseShard> shards() {
+        return List.of(shards);
+    }
+
+    /**
+     * Applies a save inside the per-id critical section of the shard that owns the id: version
+     * check, indexes, listeners, then journal. The stored copy gets the next version, except during
+     * replay where the journaled version is kept (records written before versioning replay as 0 and
+     * are numbered afresh). The replaced and stored copies (none when {@code expectedVersion} did
+     * not match) and the journal ticket to complete once the change is visible are left in
+     * {@code write}.
+     *
+     * The record is appended last, so a write is only logged once everything else has accepted
+     * it. If a listener or the append throws, the indexes and the listeners already notified are
+     * reverted, the store keeps the previous expense and nothing is logged.
+     */
+    private void apply(Expense expense, long expectedVersion, boolean journaled, Write write) {
+        long id = expense.getId();
+        ExpenseShard shard = shardOf(id);
+        if (expense.getUserId() != null && shard != homeShard(expense.getUserId())) {
+            // Registered before the row is visible: a reader that misses the flag also misses the row
+            strayUsers.add(expense.getUserId());
+        }
+        shard.store().compute(id, previous -> {
+            if (expectedVersion != ANY_VERSION && (previous == null || previous.getVersion() != expectedVersion)) {
+                return previous;
+            }
+            Expense next = !journaled && expense.getVersion() > 0 ? expense :
+                    expense.withVersion(previous == null ? 1 : previous.getVersion() + 1);
+            shard.reindex(id, previous, next);
+            int notified = 0;
+            try {
+                for (; notified < changeListeners.size(); notified++) {
+                    changeListeners.get(notified).onExpenseSaved(previous, next);
+                }
+                if (journaled) {
+                    write.ticket = journal.appendSave(next);
+                }
+            } catch (RuntimeException | Error ex) {
+                revertSave(shard, id, previous, next, notified);
+                throw ex;
+            }
+            write.previous = previous;
+            write.stored = next;
+            return next;
+        });
+        if (write.stored != null) {
+            changeCounters.recordSave(write.previous, write.stored);
+        }
+    }
+
+    /**
+     * Removes an expense inside its per-id critical section. The removed expense (none when there
+     * was nothing to remove or {@code expectedVersion} did not match) and the journal ticket to
+     * complete are left in {@code write}. As for a save, the record is appended last and a failure
+     * part-way leaves the expense stored.
+     */
+    private void remove(long id, long expectedVersion, boolean journaled, Write write) {
+        ExpenseShard shard = shardOf(id);
+        shard.store().compute(id, existing -> {
+            if (existing == null) {
+                return null;
+            }
+            if (expectedVersion != ANY_VERSION && existing.getVersion() != expectedVersion) {
+                return existing;
+            }
+            shard.unindex(id, existing);
+            int notified = 0;
+            try {
+                for (; notified < changeListeners.size(); notified++) {
+                    changeListeners.get(notified).onExpenseDeleted(existing);
+                }
+                if (journaled) {
+                    write.ticket = journal.appendDelete(id);
+                }
+            } catch (RuntimeException | Error ex) {
+                revertDelete(shard, id, existing, notified);
+                throw ex;
+            }
+            write.previous = existing;
+            return null;
+        });
+        if (write.previous != null) {
+            changeCounters.recordDelete(write.previous);
+        }
+    }
+
+    /**
+     * Runs the listeners' post-commit callbacks for a write whose journal ticket has completed;
+     * a write that did not match, or whose completion threw, never gets here.
+     */
+    private void committed(Write write) {
+        if (write.stored != null) {
+            for (ExpenseChangeListener listener : changeListeners) {
+                listener.afterExpenseSaved(write.previous, write.stored);
+            }
+        } else if (write.previous != null) {
+            for (ExpenseChangeListener listener : changeListeners) {
+                listener.afterExpenseDeleted(write.previous);
+            }
+        }
+    }
+
+    /**
+     * Undoes a save that failed part-way, still inside its critical section: the first
+     * {@code notified} listeners are told the save was reverted, last notified first, and the
+     * indexes return to {@code previous}.
+     */
+    private void revertSave(ExpenseShard shard, long id, Expense previous, Expense next, int notified) {
+        for (int i = notified - 1; i >= 0; i--) {
+            changeListeners.get(i).onExpenseSaveReverted(previous, next);
+        }
+        if (previous == null) {
+            shard.unindex(id, next);
+        } else {
+            shard.reindex(id, next, previous);
+        }
+    }
+
+    /**
+     * Undoes a delete that failed part-way: the first {@code notified} listeners are told the
+     * delete was reverted and the expense is re-indexed.
+     */
+    private void revertDelete(ExpenseShard shard, long id, Expense existing, int notified) {
+        for (int i = notified - 1; i >= 0; i--) {
+            changeListeners.get(i).onExpenseDeleteReverted(existing);
+        }
+        shard.reindex(id, null, existing);
+    }
+
+    private ExpenseShard shardOf(long id) {
+        return shards[ExpenseShard.shardOf(id, shards.length)];
+    }
+
+    /**
+     * Shard that numbers and holds the user's new expenses.
+     */
+    private ExpenseShard homeShard(String userId) {
+        if (userId == null || shards.length == 1) {
+            return shards[0];
+        }
+        int hash = userId.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    /**
+     * Whether every expense of the user is in its home shard, so a lookup can skip the others.
+     */
+    private boolean isLocal(String userId) {
+        return userId != null && (shards.length == 1 || !strayUsers.contains(userId));
+    }
+
+    /**
+     * Runs {@code task} on every shard, in parallel on the common fork-join pool when there is
+     * more than one, and returns the results in shard order.
+     */
+    private <T> List<T> eachShard(Function<ExpenseShard, T> task) {
+        if (shards.length == 1) {
+            return List.of(task.apply(shards[0]));
+        }
+        return Arrays.stream(shards).parallel().map(task).toList();
+    }
+
+    private long nextId() {
+        long nextId = 0;
+        for (ExpenseShard shard : shards) {
+            nextId = Math.max(nextId, shard.nextId());
+        }
+        return nextId;
+    }
+
+    private Iterator<Expense> iterateAll() {
+        return Arrays.stream(shards)
+                .flatMap(shard -> StreamSupport.stream(shard.store().spliterator(), false))
+                .iterator();
+    }
+
+    private static List<Expense> concat(List<List<Expense>> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        List<Expense> expenses = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(expenses::addAll);
+        return expenses;
+    }
+
+    /**
+     * Per-shard results in ascending id order, merged into one list in the same order.
+     */
+    private static List<Expense> mergeById(List<List<Expense>> parts) {
+        List<Expense> expenses = concat(parts);
+        if (parts.size() > 1) {
+            expenses.sort(Comparator.comparing(Expense::getId));
+        }
+        return expenses;
+    }
+
+    /**
+     * Outcome of one save or delete: the expense it replaced or removed, the stored copy (saves
+     * only) and its journal ticket, 0 when nothing was appended.
+     */
+    private static final class Write {
+        Expense previous;
+        Expense stored;
+        long ticket;
+    }
+
+    private static Comparator<Expense> pageOrder(ExpenseQuery query) {
+        Comparator<Expense> order = query.getSort() == ExpenseSort.DATE ?
+                Comparator.comparingLong((Expense expense) -> ExpenseDateKey.timestampOf(expense.getDate()))
+                        .thenComparing(Expense::getId) :
+                Comparator.comparing(Expense::getId);
+        return query.isDescending() ? order.reversed() : order;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One partition of {@link ExpenseRepository}: a row store, its secondary indexes and an id
+ * allocator, shared with no other shard. Writes to different shards never touch the same lock,
+ * counter or posting set.
+ *
+ * Ids are handed out in blocks of {@link #ID_BLOCK}: block {@code b} belongs to shard
+ * {@code b mod shards}, so the shard holding an id follows from the id alone and a shard draws
+ * ids from its own counter. With a single shard ids are simply consecutive.
+ */
+final class ExpenseShard {
+
+    static final long ID_BLOCK = 1024;
+
+    private final int index;
+
+    private final int shardCount;
+
+    private final ExpenseStore store;
+
+    // Next id to hand out; always an id owned by this shard
+    private final AtomicLong nextId;
+
+    private final ExpenseIndex<String> userIndex = new ExpenseIndex<>();
+    private final ExpenseIndex<String> categoryIndex = new ExpenseIndex<>();
+    private final ExpenseIndex<UserCategoryKey> userCategoryIndex = new ExpenseIndex<>();
+    private final ExpensePostings allPostings = new ExpensePostings();
+
+    ExpenseShard(int index, int shardCount, ExpenseStore store) {
+        this.index = index;
+        this.shardCount = shardCount;
+        this.store = store;
+        this.nextId = new AtomicLong(firstOwnedId(1, index, shardCount));
+    }
+
+    /**
+     * Shard that owns {@code id} among {@code shardCount} shards.
+     */
+    static int shardOf(long id, int shardCount) {
+        return (int) Math.floorMod(Math.floorDiv(id, ID_BLOCK), (long) shardCount);
+    }
+
+    /**
+     * Smallest id at or above {@code floor} owned by the shard.
+     */
+    static long firstOwnedId(long floor, int index, int shardCount) {
+        long block = Math.floorDiv(floor, ID_BLOCK);
+        long skip = Math.floorMod(index - block, (long) shardCount);
+        return skip == 0 ? floor : (block + skip) * ID_BLOCK;
+    }
+
+    int index() {
+        return index;
+    }
+
+    ExpenseStore store() {
+        return store;
+    }
+
+    long allocateId() {
+        while (true) {
+            long id = nextId.get();
+            long next = id + 1;
+            if (next % ID_BLOCK == 0) {
+                // Skip the blocks of the other shards
+                next += (shardCount - 1) * ID_BLOCK;
+            }
+            if (nextId.compareAndSet(id, next)) {
+                return id;
+            }
+        }
+    }
+
+    long nextId() {
+        return nextId.get();
+    }
+
+    /**
+     * Moves the allocator past every id below {@code floor}, e.g. the ids recovered from the journal.
+     */
+    void advanceNextId(long floor) {
+        nextId.accumulateAndGet(firstOwnedId(floor, index, shardCount), Math::max);
+    }
+
+    ExpenseIndex<String> userIndex() {
+        return userIndex;
+    }
+
+    ExpenseIndex<String> categoryIndex() {
+        return categoryIndex;
+    }
+
+    ExpenseIndex<UserCategoryKey> userCategoryIndex() {
+        return userCategoryIndex;
+    }
+
+    List<Expense> findAll() {
+        List<Expense> expenses = new ArrayList<>(store.size());
+        store.forEach(expenses::add);
+        return expenses;
+    }
+
+    List<Expense> findByUserId(String userId) {
+        return resolve(userIndex.ids(userId), userId, null);
+    }
+
+    List<Expense> findByCategory(String category) {
+        return resolve(categoryIndex.ids(category), null, category);
+    }
+
+    List<Expense> findByUserIdAndCategory(String userId, String category) {
+        return resolve(userCategoryIndex.ids(new UserCategoryKey(userId, category)), userId, category);
+    }
+
+    List<Expense> page(ExpenseQuery query) {
+        String userId = query.getUserId();
+        String category = query.getCategory();
+        ExpensePostings postings = postingsFor(userId, category);
+        long from = query.getFrom() == null ? Long.MIN_VALUE : ExpenseDateKey.timestampOf(query.getFrom());
+        long to = ExpenseDateKey.upperBoundOf(query.getTo());
+        if (postings == null || from >= to) {
+            return List.of();
+        }
+        boolean ranged = from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+        if (ranged && query.getSort() == ExpenseSort.ID) {
+            return resolve(postings.idsInRange(from, to, query.isDescending(), query.getAfter(), query.getLimit()),
+                    userId, category, from, to);
+        }
+        Iterator<Long> ids = postings.ids(query.getSort(), query.isDescending(), query.getAfter(), from, to);
+        List<Expense> page = new ArrayList<>(Math.min(query.getLimit(), postings.size()));
+        while (page.size() < query.getLimit() && ids.hasNext()) {
+            Expense expense = store.get(ids.next());
+            if (expense == null || !matches(expense, userId, category)) {
+                continue;
+            }
+            if (ranged) {
+                long timestamp = ExpenseDateKey.timestampOf(expense.getDate());
+                if (timestamp < from || timestamp >= to) {
+                    continue;
+                }
+            }
+            page.add(expense);
+        }
+        return page;
+    }
+
+    /**
+     * Number of distinct keys in each secondary index of this shard.
+     */
+    int[] indexSizes() {
+        return new int[]{userIndex.keyCount(), categoryIndex.keyCount(), userCategoryIndex.keyCount()};
+    }
+
+    void reindex(long id, Expense previous, Expense current) {
+        if (previous != null) {
+            if (Objects.equals(previous.getUserId(), current.getUserId())
+                    && Objects.equals(previous.getCategory(), current.getCategory())
+                    && Objects.equals(previous.getDate(), current.getDate())) {
+                return;
+            }
+            unindex(id, previous);
+        }
+        String userId = current.getUserId();
+        String category = current.getCategory();
+        long timestamp = ExpenseDateKey.timestampOf(current.getDate());
+        allPostings.add(id, timestamp);
+        if (userId != null) {
+            userIndex.add(userId, id, timestamp);
+        }
+        if (category != null) {
+            categoryIndex.add(category, id, timestamp);
+        }
+        if (userId != null && category != null) {
+            userCategoryIndex.add(new UserCategoryKey(userId, category), id, timestamp);
+        }
+    }
+
+    void unindex(long id, Expense expense) {
+        String userId = expense.getUserId();
+        String category = expense.getCategory();
+        long timestamp = ExpenseDateKey.timestampOf(expense.getDate());
+        allPostings.remove(id, timestamp);
+        if (userId != null) {
+            userIndex.remove(userId, id, timestamp);
+        }
+        if (category != null) {
+            categoryIndex.remove(category, id, timestamp);
+        }
+        if (userId != null && category != null) {
+            userCategoryIndex.remove(new UserCategoryKey(userId, category), id, timestamp);
+        }
+    }
+
+    private ExpensePostings postingsFor(String userId, String category) {
+        if (userId != null && category != null) {
+            return userCategoryIndex.postings(new UserCategoryKey(userId, category));
+        }
+        if (userId != null) {
+            return userIndex.postings(userId);
+        }
+        if (category != null) {
+            return categoryIndex.postings(category);
+        }
+        return allPostings;
+    }
+
+    /**
+     * Maps index ids back to expenses. A row is indexed under its new keys before the store holds it, so
+     * ids removed or moved to another user or category between the index read and the lookup are skipped.
+     */
+    private List<Expense> resolve(Collection<Long> ids, String userId, String category) {
+        List<Expense> expenses = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Expense expense = store.get(id);
+            if (expense != null && matches(expense, userId, category)) {
+                expenses.add(expense);
+            }
+        }
+        return expenses;
+    }
+
+    /**
+     * Maps ids picked from the date postings back to expenses, re-checking each row's user, category and
+     * date so that an update racing with the index read cannot leak a row from outside the filter.
+     */
+    private List<Expense> resolve(long[] ids, String userId, String category, long from, long to) {
+        List<Expense> expenses = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Expense expense = store.get(id);
+            if (expense != null && matches(expense, userId, category)) {
+                long timestamp = ExpenseDateKey.timestampOf(expense.getDate());
+                if (timestamp >= from && timestamp < to) {
+                    expenses.add(expense);
+                }
+            }
+        }
+        return expenses;
+    }
+
+    private static boolean matches(Expense expense, String userId, String category) {
+        return (userId == null || userId.equals(expense.getUserId()))
+                && (category == null || category.equals(expense.getCategory()));
+    }
+}
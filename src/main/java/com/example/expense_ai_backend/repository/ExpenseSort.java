@@ -0,0 +1,9 @@
+package com.example.expense_ai_backend.repository;
+
+/**
+ * Stable orderings supported by keyset-paginated listings. Both break ties on id.
+ */
+public enum ExpenseSort {
+    ID,
+    DATE
+}
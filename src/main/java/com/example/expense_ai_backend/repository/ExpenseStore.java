@@ -0,0 +1,28 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Primary row storage behind {@link ExpenseRepository}. The repository owns ids, indexes,
+ * journaling and listeners; a store only keeps rows by id.
+ *
+ * Iteration is weakly consistent: it never fails under concurrent writes and may or may not
+ * reflect writes made after it started.
+ */
+public interface ExpenseStore extends Iterable<Expense> {
+
+    Expense get(long id);
+
+    boolean contains(long id);
+
+    int size();
+
+    /**
+     * Replaces the expense stored under {@code id} with the result of {@code remapping}, which
+     * receives the current expense or {@code null}; returning {@code null} removes it. Calls for
+     * the same id are serialized, and {@code remapping} must not call back into the store.
+     */
+    Expense compute(long id, UnaryOperator<Expense> remapping);
+}
@@ -0,0 +1,78 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Default store: expense objects in a ConcurrentHashMap. Reads never block and per-id writes
+ * only contend on their own lock stripe.
+ *
+ * Writes take a striped {@link ReentrantLock} rather than using {@link ConcurrentHashMap#compute}:
+ * the remapping runs the journal append, index updates and change listeners, which take locks of
+ * their own, and compute would run all of that inside the hash bin's monitor. A virtual thread
+ * that parks inside a monitor pins its carrier thread, so under virtual threads a contended lock
+ * there would stall a carrier; a ReentrantLock lets it unmount instead.
+ */
+public class MapExpenseStore implements ExpenseStore {
+
+    private static final int STRIPES = 256;
+
+    private final ConcurrentHashMap<Long, Expense> expenses = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public MapExpenseStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Expense get(long id) {
+        return expenses.get(id);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return expenses.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return expenses.size();
+    }
+
+    @Override
+    public Expense compute(long id, UnaryOperator<Expense> remapping) {
+        ReentrantLock lock = stripes[stripeOf(id)];
+        lock.lock();
+        try {
+            Expense current = expenses.get(id);
+            Expense next = remapping.apply(current);
+            if (next == null) {
+                if (current != null) {
+                    expenses.remove(id);
+                }
+            } else if (next != current) {
+                expenses.put(id, next);
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Expense> iterator() {
+        return expenses.values().iterator();
+    }
+
+    private static int stripeOf(long id) {
+        int hash = Long.hashCode(id);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.expense_ai_backend.repository;
+
+/**
+ * Repository operations that {@link ExpenseRepository} times, one latency histogram each.
+ */
+public enum RepositoryOperation {
+    SAVE,
+    SAVE_ALL,
+    COMPARE_AND_SAVE,
+    FIND_BY_ID,
+    FIND_ALL,
+    FIND_BY_USER_ID,
+    FIND_BY_CATEGORY,
+    FIND_BY_USER_ID_AND_CATEGORY,
+    FIND_PAGE,
+    DELETE_BY_ID,
+    COMPARE_AND_DELETE,
+    DELETE_ALL,
+    COUNT,
+    EXISTS_BY_ID
+}
@@ -0,0 +1,23 @@
+package com.example.expense_ai_backend.repository;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the in-memory expense storage ({@code expense.storage.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "expense.storage")
+public class StorageProperties {
+
+    /**
+     * Row layout, {@code map} or {@code columnar}; selects the {@link ExpenseStore} bean.
+     */
+    private String layout = "map";
+
+    /**
+     * Number of partitions expenses are spread over by user; each has its own store, indexes and
+     * id allocator.
+     */
+    private int shards = 1;
+}
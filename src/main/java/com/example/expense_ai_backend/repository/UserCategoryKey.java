@@ -0,0 +1,7 @@
+package com.example.expense_ai_backend.repository;
+
+/**
+ * Composite key for the combined user + category index.
+ */
+record UserCategoryKey(String userId, String category) {
+}
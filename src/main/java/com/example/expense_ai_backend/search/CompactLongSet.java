@@ -0,0 +1,219 @@
+package com.example.expense_ai_backend.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative longs for search postings. Values are split into chunks by their
+ * high 48 bits; a chunk stores its low 16 bits either as a sorted {@code char[]} (2 bytes per value)
+ * or, once it holds more than {@link #ARRAY_MAX} values, as a 65536-bit bitmap (8 KiB, under 1 bit
+ * per possible value). Expense ids are handed out densely, so postings of common terms end up as
+ * bitmaps and rare ones as short arrays.
+ *
+ * Not thread-safe; {@link ExpenseSearchIndex} guards every set with its segment lock.
+ */
+final class CompactLongSet {
+
+    /**
+     * Returned by {@link #floor} when no value qualifies.
+     */
+    static final long NONE = -1;
+
+    // A bitmap chunk costs the same as an array of 4096 chars
+    private static final int ARRAY_MAX = 4096;
+    // Convert back below this, not at ARRAY_MAX, so a chunk at the boundary does not flip on every write
+    private static final int ARRAY_MIN = ARRAY_MAX / 2;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private long[] keys = new long[1];
+    // char[] (sorted, first cardinalities[i] entries used) or long[BITMAP_WORDS]
+    private Object[] chunks = new Object[1];
+    private int[] cardinalities = new int[1];
+    private int chunkCount;
+    private long size;
+
+    long size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean add(long value) {
+        long high = value >>> 16;
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, chunkCount, high);
+        if (index < 0) {
+            index = insertChunk(-index - 1, high);
+        }
+        Object chunk = chunks[index];
+        int cardinality = cardinalities[index];
+        if (chunk instanceof long[] bitmap) {
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= bit;
+        } else {
+            char[] array = (char[]) chunk;
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (cardinality == ARRAY_MAX) {
+                long[] bitmap = toBitmap(array, cardinality);
+                bitmap[low >>> 6] |= 1L << low;
+                chunks[index] = bitmap;
+            } else {
+                if (cardinality == array.length) {
+                    array = Arrays.copyOf(array, Math.min(ARRAY_MAX, cardinality * 2));
+                    chunks[index] = array;
+                }
+                System.arraycopy(array, position, array, position + 1, cardinality - position);
+                array[position] = low;
+            }
+        }
+        cardinalities[index]++;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        long high = value >>> 16;
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, chunkCount, high);
+        if (index < 0) {
+            return false;
+        }
+        Object chunk = chunks[index];
+        int cardinality = cardinalities[index];
+        if (chunk instanceof long[] bitmap) {
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            bitmap[low >>> 6] &= ~bit;
+            if (cardinality - 1 < ARRAY_MIN) {
+                chunks[index] = toArray(bitmap, cardinality - 1);
+            }
+        } else {
+            char[] array = (char[]) chunk;
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(array, position + 1, array, position, cardinality - position - 1);
+        }
+        size--;
+        if (--cardinalities[index] == 0) {
+            removeChunk(index);
+        }
+        return true;
+    }
+
+    boolean contains(long value) {
+        int index = Arrays.binarySearch(keys, 0, chunkCount, value >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        if (chunks[index] instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunks[index], 0, cardinalities[index], low) >= 0;
+    }
+
+    /**
+     * Largest value in the set that is {@code <= value}, or {@link #NONE}. Walking a set downwards
+     * with {@code floor(previous - 1)} visits it in descending order; several sets are intersected
+     * by leapfrogging their floors.
+     */
+    long floor(long value) {
+        if (value < 0 || chunkCount == 0) {
+            return NONE;
+        }
+        long high = value >>> 16;
+        int index = Arrays.binarySearch(keys, 0, chunkCount, high);
+        if (index >= 0) {
+            int low = floorInChunk(index, (char) value);
+            if (low >= 0) {
+                return (high << 16) | low;
+            }
+            index--;
+        } else {
+            index = -index - 2;
+        }
+        return index < 0 ? NONE : (keys[index] << 16) | floorInChunk(index, Character.MAX_VALUE);
+    }
+
+    /**
+     * Largest low half in the chunk that is {@code <= low}, or -1.
+     */
+    private int floorInChunk(int index, char low) {
+        if (chunks[index] instanceof long[] bitmap) {
+            int word = low >>> 6;
+            long bits = bitmap[word] & (-1L >>> (63 - (low & 63)));
+            while (bits == 0) {
+                if (--word < 0) {
+                    return -1;
+                }
+                bits = bitmap[word];
+            }
+            return word * 64 + 63 - Long.numberOfLeadingZeros(bits);
+        }
+        char[] array = (char[]) chunks[index];
+        int position = Arrays.binarySearch(array, 0, cardinalities[index], low);
+        if (position >= 0) {
+            return array[position];
+        }
+        position = -position - 2;
+        return position < 0 ? -1 : array[position];
+    }
+
+    private int insertChunk(int index, long high) {
+        if (chunkCount == keys.length) {
+            int capacity = chunkCount * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, chunkCount - index);
+        keys[index] = high;
+        chunks[index] = new char[4];
+        cardinalities[index] = 0;
+        chunkCount++;
+        return index;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, chunkCount - index - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    private static long[] toBitmap(char[] array, int cardinality) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            bitmap[array[i] >>> 6] |= 1L << array[i];
+        }
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap, int cardinality) {
+        char[] array = new char[Math.max(4, cardinality)];
+        int position = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                array[position++] = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return array;
+    }
+}
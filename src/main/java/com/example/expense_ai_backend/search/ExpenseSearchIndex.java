@@ -0,0 +1,297 @@
+package com.example.expense_ai_backend.search;
+
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over expense descriptions, kept up to date from the repository write path like
+ * the aggregate stores, so searching never scans descriptions.
+ *
+ * Descriptions are split into lowercase tokens with accents stripped ("Café" matches "cafe").
+ * Every token is indexed under each of its prefixes from {@link #MIN_PREFIX} to {@link #MAX_PREFIX}
+ * characters (edge n-grams), so a query term matches any word it begins: "uber" finds "Uber" and
+ * "UberEats", "coff" finds "coffee". A query matches an expense when all of its terms do; user and
+ * category filters are postings in the same index and simply join the intersection. Words and
+ * query terms shorter than {@code MIN_PREFIX} are not indexed and match nothing; the search
+ * endpoint rejects such terms rather than answer them with an empty result.
+ *
+ * Postings are {@link CompactLongSet}s of expense ids, spread over segments by key, each guarded
+ * by its own lock. A search intersects the postings from the highest id down and stops after
+ * {@code limit} hits, so newest matches come first and a common term costs no more than a rare one.
+ * An update only touches the keys whose presence changed.
+ */
+@Component
+public class ExpenseSearchIndex implements ExpenseChangeListener {
+
+    public static final int MIN_PREFIX = AppConstant.MIN_SEARCH_TERM_LENGTH;
+
+    /**
+     * Longest indexed prefix. Longer query terms are looked up by their first {@code MAX_PREFIX}
+     * characters and can over-match; see {@link #matches}.
+     */
+    public static final int MAX_PREFIX = 12;
+
+    private static final int SEGMENTS = 16;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Filter keys cannot collide with tokens, which never contain control characters
+    private static final String USER_KEY = "\u0000u";
+    private static final String CATEGORY_KEY = "\u0000c";
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public ExpenseSearchIndex() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public void onExpenseSaved(Expense previous, Expense current) {
+        Set<String> added = keys(current);
+        if (previous != null) {
+            Set<String> removed = keys(previous);
+            if (previous.getId().equals(current.getId())) {
+                // Keys in both are already indexed for this id
+                Set<String> kept = new LinkedHashSet<>(removed);
+                kept.retainAll(added);
+                removed.removeAll(kept);
+                added.removeAll(kept);
+            }
+            update(previous.getId(), removed, false);
+        }
+        update(current.getId(), added, true);
+    }
+
+    @Override
+    public void onExpenseDeleted(Expense removed) {
+        update(removed.getId(), keys(removed), false);
+    }
+
+    /**
+     * Ids of up to {@code limit} expenses whose description matches every term of {@code query},
+     * optionally only for one user and/or category, highest id first (newest first, up to the id
+     * blocks of a sharded repository).
+     * A query without terms, or with a term shorter than {@link #MIN_PREFIX}, matches nothing.
+     */
+    public long[] search(String query, String userId, String category, int limit) {
+        List<String> keys = new ArrayList<>();
+        for (String term : tokenize(query)) {
+            keys.add(term.length() > MAX_PREFIX ? term.substring(0, MAX_PREFIX) : term);
+        }
+        if (keys.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+        if (userId != null) {
+            keys.add(USER_KEY + userId);
+        }
+        if (category != null) {
+            keys.add(CATEGORY_KEY + category);
+        }
+
+        // Read-lock every segment involved, in index order, for a consistent intersection
+        boolean[] involved = new boolean[SEGMENTS];
+        for (String key : keys) {
+            involved[segmentIndex(key)] = true;
+        }
+        long[] stamps = new long[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            if (involved[i]) {
+                stamps[i] = segments[i].lock.readLock();
+            }
+        }
+        try {
+            List<CompactLongSet> postings = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                CompactLongSet set = segments[segmentIndex(key)].postings.get(key);
+                if (set == null) {
+                    return new long[0];
+                }
+                postings.add(set);
+            }
+            postings.sort(Comparator.comparingLong(CompactLongSet::size));
+            return intersect(postings, limit);
+        } finally {
+            for (int i = 0; i < SEGMENTS; i++) {
+                if (involved[i]) {
+                    segments[i].lock.unlockRead(stamps[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether every term of {@code query} begins a word of {@code description}: the exact form of
+     * the prefix match the index answers, for re-checking terms longer than {@link #MAX_PREFIX}.
+     */
+    public static boolean matches(String description, String query) {
+        List<String> words = tokenize(description);
+        for (String term : tokenize(query)) {
+            if (words.stream().noneMatch(word -> word.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of distinct keys (prefixes, users and categories) in the index.
+     */
+    public int keyCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                count += segment.postings.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lowercase, accent-free words of the text, in order and without duplicates.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = text;
+        if (!Normalizer.isNormalized(folded, Normalizer.Form.NFKD)) {
+            folded = MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFKD)).replaceAll("");
+        }
+        folded = folded.toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i < folded.length(); ) {
+            int codePoint = folded.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            tokens.add(folded.substring(start));
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static long[] intersect(List<CompactLongSet> postings, int limit) {
+        long[] hits = new long[(int) Math.min(limit, postings.get(0).size())];
+        int found = 0;
+        long candidate = Long.MAX_VALUE;
+        while (found < hits.length) {
+            // Lower the candidate to each set's floor until a full pass agrees
+            boolean agreed = true;
+            for (CompactLongSet set : postings) {
+                long floor = set.floor(candidate);
+                if (floor == CompactLongSet.NONE) {
+                    return Arrays.copyOf(hits, found);
+                }
+                if (floor < candidate) {
+                    candidate = floor;
+                    agreed = false;
+                }
+            }
+            if (agreed) {
+                hits[found++] = candidate;
+                candidate--;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Index keys for an expense: the edge n-grams of its description words, its user and its category.
+     */
+    private static Set<String> keys(Expense expense) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String token : tokenize(expense.getDescription())) {
+            for (int length = MIN_PREFIX; length <= Math.min(token.length(), MAX_PREFIX); length++) {
+                keys.add(token.substring(0, length));
+            }
+        }
+        if (expense.getUserId() != null) {
+            keys.add(USER_KEY + expense.getUserId());
+        }
+        if (expense.getCategory() != null) {
+            keys.add(CATEGORY_KEY + expense.getCategory());
+        }
+        return keys;
+    }
+
+    /**
+     * Adds or removes the id under every key, taking each segment's lock once.
+     */
+    private void update(Long id, Set<String> keys, boolean add) {
+        if (id == null || keys.isEmpty()) {
+            return;
+        }
+        String[] keyArray = keys.toArray(new String[0]);
+        int[] keySegments = new int[keyArray.length];
+        int involved = 0;
+        for (int k = 0; k < keyArray.length; k++) {
+            keySegments[k] = segmentIndex(keyArray[k]);
+            involved |= 1 << keySegments[k];
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            if ((involved & (1 << i)) == 0) {
+                continue;
+            }
+            Segment segment = segments[i];
+            long stamp = segment.lock.writeLock();
+            try {
+                for (int k = 0; k < keyArray.length; k++) {
+                    if (keySegments[k] != i) {
+                        continue;
+                    }
+                    String key = keyArray[k];
+                    if (add) {
+                        segment.postings.computeIfAbsent(key, ignored -> new CompactLongSet()).add(id);
+                    } else {
+                        CompactLongSet set = segment.postings.get(key);
+                        if (set != null && set.remove(id) && set.isEmpty()) {
+                            segment.postings.remove(key);
+                        }
+                    }
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private static int segmentIndex(String key) {
+        int hash = Objects.hashCode(key);
+        return (hash ^ (hash >>> 16)) & (SEGMENTS - 1);
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private final Map<String, CompactLongSet> postings = new HashMap<>();
+    }
+}
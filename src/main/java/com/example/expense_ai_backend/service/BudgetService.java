@@ -0,0 +1,37 @@
+package com.example.expense_ai_backend.service;
+
+import com.example.expense_ai_backend.dto.BudgetAlertDTO;
+import com.example.expense_ai_backend.dto.BudgetRequestDTO;
+import com.example.expense_ai_backend.dto.BudgetStatusDTO;
+import com.example.expense_ai_backend.dto.UpdateBudgetRequestDTO;
+
+import java.util.List;
+
+public interface BudgetService {
+
+    /**
+     * Creates a monthly budget for the user's category; 409 if it already has one. Spend already
+     * recorded for the current month counts against it immediately.
+     */
+    String createBudget(BudgetRequestDTO budgetRequestDTO);
+
+    String updateBudget(String userId, String category, UpdateBudgetRequestDTO updateBudgetRequestDTO);
+
+    String deleteBudget(String userId, String category);
+
+    /**
+     * The budget and the spend against it in {@code month} ("2026-03"), the current month when
+     * null, read from running counters rather than by scanning expenses.
+     */
+    BudgetStatusDTO getBudgetStatus(String userId, String category, String month);
+
+    /**
+     * Status of each of the user's budgets, by category, for {@code month} as above.
+     */
+    List<BudgetStatusDTO> getBudgetStatuses(String userId, String month);
+
+    /**
+     * Budget thresholds the user's writes have crossed, most recent first.
+     */
+    List<BudgetAlertDTO> getBudgetAlerts(String userId, int limit);
+}
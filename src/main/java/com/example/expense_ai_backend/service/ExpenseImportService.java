@@ -0,0 +1,15 @@
+package com.example.expense_ai_backend.service;
+
+import com.example.expense_ai_backend.dto.ExpenseImportResultDTO;
+import com.example.expense_ai_backend.ingest.ImportFormat;
+
+import java.io.Reader;
+
+public interface ExpenseImportService {
+
+    /**
+     * Streams rows off the reader, validating each like a single create and inserting valid rows
+     * in batches. Invalid rows are reported and skipped; they do not abort the import.
+     */
+    ExpenseImportResultDTO importExpenses(ImportFormat format, Reader reader);
+}
@@ -1,29 +1,102 @@
 package com.example.expense_ai_backend.service;
 
+import com.example.expense_ai_backend.dto.CategoryPredictionDTO;
+import com.example.expense_ai_backend.dto.CategoryQuantilesDTO;
 import com.example.expense_ai_backend.dto.CategorySummaryDTO;
 import com.example.expense_ai_backend.dto.CreateExpenseRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseAnomalyDTO;
+import com.example.expense_ai_backend.dto.ExpenseExportRequestDTO;
+import com.example.expense_ai_backend.dto.ExpensePageDTO;
+import com.example.expense_ai_backend.dto.ExpensePageRequestDTO;
 import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.dto.ExpenseSearchRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesPointDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesRequestDTO;
 import com.example.expense_ai_backend.dto.UpdateExpenseRequestDTO;
+import com.example.expense_ai_backend.export.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 public interface ExpenseService {
 
+    /**
+     * Stores a new expense; without a category, the most likely one for its description is used.
+     */
     String createExpense(CreateExpenseRequestDTO createExpenseRequestDTO);
 
-    List<ExpenseResponseDTO> getAllExpenses();
+    /**
+     * Creates the expense once per {@code idempotencyKey}: a retry with the same key and request
+     * gets the original result without creating anything, and concurrent duplicates wait for the
+     * first. Without a key this is {@link #createExpense(CreateExpenseRequestDTO)}.
+     */
+    String createExpense(CreateExpenseRequestDTO createExpenseRequestDTO, String idempotencyKey);
 
-    ExpenseResponseDTO getExpenseById(Long id);
+    /**
+     * Categories most likely to fit the description according to the stored expenses, most likely
+     * first, each with the model's confidence.
+     */
+    List<CategoryPredictionDTO> suggestCategories(String description, int limit);
+
+    /**
+     * Keyset-paginated listing; {@code userId} and {@code category} are optional filters.
+     */
+    ExpensePageDTO getExpensePage(String userId, String category, ExpensePageRequestDTO pageRequest);
+
+    /**
+     * Date-ordered export that writes rows to the response as it pages through the store, so
+     * memory use does not grow with the number of rows exported.
+     */
+    StreamingResponseBody exportExpenses(ExportFormat format, ExpenseExportRequestDTO exportRequest);
 
-    List<ExpenseResponseDTO> getExpensesByUserId(String userId);
+    /**
+     * Server-sent events for every create, update and delete of one user's and/or category's
+     * expenses from now on, or from after {@code lastEventId} when resuming a stream.
+     */
+    SseEmitter streamChanges(String userId, String category, String lastEventId);
+
+    ExpenseResponseDTO getExpenseById(Long id);
 
-    List<ExpenseResponseDTO> getExpensesByCategory(String category);
+    /**
+     * Expenses whose description matches every word of the query by prefix, newest first,
+     * answered from the search index rather than by scanning descriptions.
+     */
+    List<ExpenseResponseDTO> searchExpenses(ExpenseSearchRequestDTO searchRequest);
 
-    String updateExpense(Long id, UpdateExpenseRequestDTO updateExpenseRequestDTO);
+    /**
+     * Replaces description, amount and category. With an {@code expectedVersion} the update only
+     * succeeds if the expense is still at that version (409 otherwise); without one, concurrent
+     * updates are retried so none is lost.
+     */
+    String updateExpense(Long id, Long expectedVersion, UpdateExpenseRequestDTO updateExpenseRequestDTO);
 
-    String deleteExpense(Long id);
+    /**
+     * Deletes the expense, only if it is still at {@code expectedVersion} when one is given.
+     */
+    String deleteExpense(Long id, Long expectedVersion);
 
     long getTotalExpenseCount();
 
+    /**
+     * Expenses flagged as unusually high for their user and category when they were written,
+     * optionally for one user, most recently created first.
+     */
+    List<ExpenseAnomalyDTO> getAnomalies(String userId, int limit);
+
     List<CategorySummaryDTO> getCategorySummary();
+
+    List<CategorySummaryDTO> getCategorySummaryByUserId(String userId);
+
+    /**
+     * Estimated amounts at the given quantiles (0 to 1) per category, across all users or for one
+     * user, optionally for a single category, within the sketches' relative accuracy.
+     */
+    List<CategoryQuantilesDTO> getCategoryQuantiles(String userId, String category, List<Double> quantiles);
+
+    /**
+     * Per-category spend for a user in day, month or year buckets, read from pre-computed rollups.
+     * Buckets with no expenses are omitted.
+     */
+    List<ExpenseTimeSeriesPointDTO> getTimeSeries(ExpenseTimeSeriesRequestDTO timeSeriesRequest);
 }
@@ -0,0 +1,125 @@
+package com.example.expense_ai_backend.service.Impl;
+
+import com.example.expense_ai_backend.aggregate.ExpenseRollupStore;
+import com.example.expense_ai_backend.budget.Budget;
+import com.example.expense_ai_backend.budget.BudgetAlert;
+import com.example.expense_ai_backend.budget.BudgetTracker;
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.BudgetAlertDTO;
+import com.example.expense_ai_backend.dto.BudgetRequestDTO;
+import com.example.expense_ai_backend.dto.BudgetStatusDTO;
+import com.example.expense_ai_backend.dto.UpdateBudgetRequestDTO;
+import com.example.expense_ai_backend.exception.BadRequestException;
+import com.example.expense_ai_backend.exception.ConflictException;
+import com.example.expense_ai_backend.exception.ResourceNotFoundException;
+import com.example.expense_ai_backend.service.BudgetService;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Service
+public class BudgetServiceImpl implements BudgetService {
+
+    private final BudgetTracker budgetTracker;
+
+    public BudgetServiceImpl(BudgetTracker budgetTracker) {
+        this.budgetTracker = budgetTracker;
+    }
+
+    @Override
+    public String createBudget(BudgetRequestDTO budgetRequestDTO) {
+        String userId = budgetRequestDTO.getUserId() != null ? budgetRequestDTO.getUserId() : AppConstant.DEFAULT_USER;
+        String category = budgetRequestDTO.getCategory();
+        if (budgetTracker.createBudget(userId, category, budgetRequestDTO.getMonthlyLimit()) == null) {
+            throw new ConflictException(AppConstant.BUDGET_EXISTS + category);
+        }
+        return AppConstant.BUDGET_CREATED + category;
+    }
+
+    @Override
+    public String updateBudget(String userId, String category, UpdateBudgetRequestDTO updateBudgetRequestDTO) {
+        if (budgetTracker.updateBudget(userId, category, updateBudgetRequestDTO.getMonthlyLimit()) == null) {
+            throw new ResourceNotFoundException(AppConstant.BUDGET_NOT_FOUND + category);
+        }
+        return AppConstant.BUDGET_UPDATED + category;
+    }
+
+    @Override
+    public String deleteBudget(String userId, String category) {
+        if (!budgetTracker.deleteBudget(userId, category)) {
+            throw new ResourceNotFoundException(AppConstant.BUDGET_NOT_FOUND + category);
+        }
+        return AppConstant.BUDGET_DELETED + category;
+    }
+
+    @Override
+    public BudgetStatusDTO getBudgetStatus(String userId, String category, String month) {
+        YearMonth yearMonth = parseMonth(month);
+        Budget budget = budgetTracker.getBudget(userId, category);
+        if (budget == null) {
+            throw new ResourceNotFoundException(AppConstant.BUDGET_NOT_FOUND + category);
+        }
+        return toStatus(budget, yearMonth);
+    }
+
+    @Override
+    public List<BudgetStatusDTO> getBudgetStatuses(String userId, String month) {
+        YearMonth yearMonth = parseMonth(month);
+        return budgetTracker.getBudgets(userId)
+                .stream()
+                .map(budget -> toStatus(budget, yearMonth))
+                .toList();
+    }
+
+    @Override
+    public List<BudgetAlertDTO> getBudgetAlerts(String userId, int limit) {
+        return budgetTracker.alerts(userId, limit)
+                .stream()
+                .map(BudgetServiceImpl::toAlertDTO)
+                .toList();
+    }
+
+    private BudgetStatusDTO toStatus(Budget budget, YearMonth month) {
+        long spentUnits = budgetTracker.spentUnits(budget.userId(), budget.category(), month);
+        // Tenths of a percent are plenty for display
+        double percentUsed = Math.round(spentUnits * 1000.0 / budget.limitUnits()) / 10.0;
+        BigDecimal spent = ExpenseRollupStore.toAmount(spentUnits);
+        return new BudgetStatusDTO(
+                budget.userId(),
+                budget.category(),
+                month.toString(),
+                budget.monthlyLimit(),
+                spent,
+                budget.monthlyLimit().subtract(spent),
+                percentUsed,
+                budgetTracker.thresholdReached(budget, spentUnits)
+        );
+    }
+
+    private static BudgetAlertDTO toAlertDTO(BudgetAlert alert) {
+        return new BudgetAlertDTO(
+                alert.userId(),
+                alert.category(),
+                alert.month().toString(),
+                alert.threshold(),
+                alert.spent(),
+                alert.monthlyLimit(),
+                alert.expenseId(),
+                alert.raisedAt()
+        );
+    }
+
+    private static YearMonth parseMonth(String month) {
+        if (month == null) {
+            return YearMonth.now();
+        }
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(AppConstant.INVALID_MONTH + month);
+        }
+    }
+}
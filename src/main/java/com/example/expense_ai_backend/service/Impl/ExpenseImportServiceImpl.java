@@ -0,0 +1,139 @@
+package com.example.expense_ai_backend.service.Impl;
+
+import com.example.expense_ai_backend.categorize.CategoryPrediction;
+import com.example.expense_ai_backend.categorize.ExpenseCategorizer;
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.ExpenseImportErrorDTO;
+import com.example.expense_ai_backend.dto.ExpenseImportResultDTO;
+import com.example.expense_ai_backend.dto.ExpenseImportRowDTO;
+import com.example.expense_ai_backend.ingest.CsvExpenseRowReader;
+import com.example.expense_ai_backend.ingest.ExpenseImportRow;
+import com.example.expense_ai_backend.ingest.ExpenseRowReader;
+import com.example.expense_ai_backend.ingest.ImportFormat;
+import com.example.expense_ai_backend.ingest.NdjsonExpenseRowReader;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.service.ExpenseImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ExpenseImportServiceImpl implements ExpenseImportService {
+
+    private final ExpenseRepository expenseRepository;
+
+    private final ExpenseCategorizer categorizer;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public ExpenseImportServiceImpl(ExpenseRepository expenseRepository, ExpenseCategorizer categorizer,
+                                    Validator validator, ObjectMapper objectMapper) {
+        this.expenseRepository = expenseRepository;
+        this.categorizer = categorizer;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExpenseImportResultDTO importExpenses(ImportFormat format, Reader reader) {
+        // One clock read per import; rows without a date share it
+        LocalDateTime importedAt = LocalDateTime.now();
+        List<Expense> batch = new ArrayList<>(AppConstant.IMPORT_BATCH_SIZE);
+        List<ExpenseImportErrorDTO> errors = new ArrayList<>();
+        long imported = 0;
+        long failed = 0;
+
+        try {
+            ExpenseRowReader rows = format == ImportFormat.CSV ?
+                    new CsvExpenseRowReader(reader) :
+                    new NdjsonExpenseRowReader(reader, objectMapper);
+            for (ExpenseImportRow row = rows.next(); row != null; row = rows.next()) {
+                String error = row.error() != null ? row.error() : validate(row.expense());
+                String category = error == null ? categoryOf(row.expense()) : null;
+                if (error == null && category == null) {
+                    error = AppConstant.CATEGORY_REQUIRED;
+                }
+                if (error != null) {
+                    failed++;
+                    if (errors.size() < AppConstant.MAX_IMPORT_ERRORS) {
+                        errors.add(new ExpenseImportErrorDTO(row.line(), error));
+                    }
+                    continue;
+                }
+                batch.add(toExpense(row.expense(), category, importedAt));
+                if (batch.size() == AppConstant.IMPORT_BATCH_SIZE) {
+                    imported += insert(batch);
+                }
+            }
+            imported += insert(batch);
+        } catch (IOException ex) {
+            // Batches inserted before the stream broke stay imported
+            throw new UncheckedIOException(ex);
+        }
+        return new ExpenseImportResultDTO(imported, failed, errors);
+    }
+
+    /**
+     * Inserts the batch, numbered by the repository from each user's shard, then clears it for reuse
+     */
+    private int insert(List<Expense> batch) {
+        int size = batch.size();
+        if (size == 0) {
+            return 0;
+        }
+        expenseRepository.saveAll(batch);
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Same constraints as a single create, reported in the same "field - message" form
+     */
+    private String validate(ExpenseImportRowDTO row) {
+        Set<ConstraintViolation<ExpenseImportRowDTO>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + " - " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * The row's category, or as for a single create the one predicted from its description;
+     * null when there is nothing to predict from yet
+     */
+    private String categoryOf(ExpenseImportRowDTO row) {
+        if (row.getCategory() != null && !row.getCategory().isBlank()) {
+            return row.getCategory();
+        }
+        CategoryPrediction prediction = categorizer.predict(row.getDescription());
+        return prediction == null ? null : prediction.category();
+    }
+
+    private Expense toExpense(ExpenseImportRowDTO row, String category, LocalDateTime importedAt) {
+        return new Expense(
+                null,
+                row.getDescription(),
+                row.getAmount(),
+                category,
+                row.getDate() != null ? row.getDate() : importedAt,
+                AppConstant.DEFAULT_USER
+        );
+    }
+}
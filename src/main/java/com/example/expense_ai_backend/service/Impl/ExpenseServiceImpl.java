@@ -1,95 +1,317 @@
 package com.example.expense_ai_backend.service.Impl;
 
+import com.example.expense_ai_backend.aggregate.CategoryAggregate;
+import com.example.expense_ai_backend.anomaly.ExpenseAnomalyDetector;
+import com.example.expense_ai_backend.aggregate.CategoryAggregateStore;
+import com.example.expense_ai_backend.aggregate.CategoryQuantileStore;
+import com.example.expense_ai_backend.aggregate.ExpenseRollupStore;
+import com.example.expense_ai_backend.aggregate.QuantileSketch;
+import com.example.expense_ai_backend.aggregate.RollupCell;
+import com.example.expense_ai_backend.aggregate.RollupGranularity;
+import com.example.expense_ai_backend.cache.ExpenseResultCache;
+import com.example.expense_ai_backend.cache.ResultCacheKey;
+import com.example.expense_ai_backend.categorize.CategoryPrediction;
+import com.example.expense_ai_backend.categorize.ExpenseCategorizer;
 import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.CategoryPredictionDTO;
+import com.example.expense_ai_backend.dto.CategoryQuantilesDTO;
 import com.example.expense_ai_backend.dto.CategorySummaryDTO;
 import com.example.expense_ai_backend.dto.CreateExpenseRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseAnomalyDTO;
+import com.example.expense_ai_backend.dto.ExpenseExportRequestDTO;
+import com.example.expense_ai_backend.dto.ExpensePageDTO;
+import com.example.expense_ai_backend.dto.ExpensePageRequestDTO;
 import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.dto.ExpenseSearchRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesPointDTO;
+import com.example.expense_ai_backend.dto.ExpenseTimeSeriesRequestDTO;
 import com.example.expense_ai_backend.dto.UpdateExpenseRequestDTO;
+import com.example.expense_ai_backend.exception.BadRequestException;
+import com.example.expense_ai_backend.exception.ConflictException;
 import com.example.expense_ai_backend.exception.ResourceNotFoundException;
+import com.example.expense_ai_backend.export.BinaryExpenseRowWriter;
+import com.example.expense_ai_backend.export.CsvExpenseRowWriter;
+import com.example.expense_ai_backend.export.ExpenseRowWriter;
+import com.example.expense_ai_backend.export.ExportFormat;
+import com.example.expense_ai_backend.export.NdjsonExpenseRowWriter;
+import com.example.expense_ai_backend.feed.ExpenseChangeFeed;
+import com.example.expense_ai_backend.idempotency.IdempotencyCache;
 import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseCursor;
+import com.example.expense_ai_backend.repository.ExpenseQuery;
 import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.repository.ExpenseSort;
+import com.example.expense_ai_backend.search.ExpenseSearchIndex;
 import com.example.expense_ai_backend.service.ExpenseService;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class ExpenseServiceImpl implements ExpenseService {
 
+    // Result cache query names
+    private static final String CACHE_PAGE = "page";
+    private static final String CACHE_SUMMARY = "summary";
+    private static final String CACHE_QUANTILES = "quantiles";
+
     private final ExpenseRepository expenseRepository;
 
-    public ExpenseServiceImpl(ExpenseRepository expenseRepository) {
+    private final CategoryAggregateStore categoryAggregateStore;
+
+    private final ExpenseRollupStore expenseRollupStore;
+
+    private final CategoryQuantileStore categoryQuantileStore;
+
+    private final ExpenseSearchIndex searchIndex;
+
+    private final ExpenseCategorizer categorizer;
+
+    private final ExpenseAnomalyDetector anomalyDetector;
+
+    private final ExpenseChangeFeed changeFeed;
+
+    private final ExpenseResultCache resultCache;
+
+    private final IdempotencyCache idempotencyCache;
+
+    public ExpenseServiceImpl(ExpenseRepository expenseRepository, CategoryAggregateStore categoryAggregateStore,
+                              ExpenseRollupStore expenseRollupStore, CategoryQuantileStore categoryQuantileStore,
+                              ExpenseSearchIndex searchIndex, ExpenseCategorizer categorizer,
+                              ExpenseAnomalyDetector anomalyDetector, ExpenseChangeFeed changeFeed,
+                              ExpenseResultCache resultCache, IdempotencyCache idempotencyCache) {
         this.expenseRepository = expenseRepository;
+        this.categoryAggregateStore = categoryAggregateStore;
+        this.expenseRollupStore = expenseRollupStore;
+        this.categoryQuantileStore = categoryQuantileStore;
+        this.searchIndex = searchIndex;
+        this.categorizer = categorizer;
+        this.anomalyDetector = anomalyDetector;
+        this.changeFeed = changeFeed;
+        this.resultCache = resultCache;
+        this.idempotencyCache = idempotencyCache;
     }
 
     @Override
     public String createExpense(CreateExpenseRequestDTO createExpenseRequestDTO) {
-        Expense expense = new Expense();
-        expense.setDescription(createExpenseRequestDTO.getDescription());
-        expense.setAmount(createExpenseRequestDTO.getAmount());
-        expense.setCategory(createExpenseRequestDTO.getCategory());
-        expense.setDate(LocalDateTime.now());
-        expense.setUserId(AppConstant.DEFAULT_USER);
+        String category = createExpenseRequestDTO.getCategory();
+        if (category == null || category.isBlank()) {
+            CategoryPrediction prediction = categorizer.predict(createExpenseRequestDTO.getDescription());
+            if (prediction == null) {
+                throw new BadRequestException(AppConstant.CATEGORY_REQUIRED);
+            }
+            category = prediction.category();
+        }
+        Expense expense = new Expense(
+                null,
+                createExpenseRequestDTO.getDescription(),
+                createExpenseRequestDTO.getAmount(),
+                category,
+                LocalDateTime.now(),
+                AppConstant.DEFAULT_USER
+        );
 
         Expense savedExpense = expenseRepository.save(expense);
+        resultCache.invalidate(savedExpense.getUserId(), savedExpense.getCategory());
         return AppConstant.EXPENSE_CREATED + savedExpense.getId();
     }
 
     @Override
-    public List<ExpenseResponseDTO> getAllExpenses() {
-        return expenseRepository.findAll()
+    public String createExpense(CreateExpenseRequestDTO createExpenseRequestDTO, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createExpense(createExpenseRequestDTO);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > AppConstant.MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException(AppConstant.INVALID_IDEMPOTENCY_KEY);
+        }
+        return idempotencyCache.execute(idempotencyKey, createExpenseRequestDTO,
+                () -> createExpense(createExpenseRequestDTO));
+    }
+
+    @Override
+    public List<CategoryPredictionDTO> suggestCategories(String description, int limit) {
+        return categorizer.predict(description, limit)
                 .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .map(prediction -> new CategoryPredictionDTO(prediction.category(), prediction.confidence()))
+                .toList();
     }
 
     @Override
-    public ExpenseResponseDTO getExpenseById(Long id) {
-        Expense expense = expenseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(AppConstant.EXPENSE_NOT_FOUND + id));
-        return convertToDTO(expense);
+    public ExpensePageDTO getExpensePage(String userId, String category, ExpensePageRequestDTO pageRequest) {
+        List<Object> params = Arrays.asList(pageRequest.getLimit(), pageRequest.getAfter(), pageRequest.getSort(),
+                pageRequest.getDirection(), pageRequest.getFrom(), pageRequest.getTo());
+        return resultCache.get(new ResultCacheKey(CACHE_PAGE, userId, category, params),
+                () -> loadExpensePage(userId, category, pageRequest),
+                page -> page.getExpenses().size());
+    }
+
+    private ExpensePageDTO loadExpensePage(String userId, String category, ExpensePageRequestDTO pageRequest) {
+        ExpenseSort sort = parseSort(pageRequest.getSort());
+        boolean descending = parseDescending(pageRequest.getDirection());
+        checkDateRange(pageRequest.getFrom(), pageRequest.getTo());
+        int limit = pageRequest.getLimit() != null ? pageRequest.getLimit() : AppConstant.DEFAULT_PAGE_SIZE;
+
+        // Fetch one extra row to learn whether another page follows
+        List<Expense> expenses = expenseRepository.findPage(ExpenseQuery.builder()
+                .userId(userId)
+                .category(category)
+                .from(pageRequest.getFrom())
+                .to(pageRequest.getTo())
+                .sort(sort)
+                .descending(descending)
+                .after(decodeCursor(pageRequest.getAfter(), sort))
+                .limit(limit + 1)
+                .build());
+
+        String nextCursor = null;
+        if (expenses.size() > limit) {
+            expenses = expenses.subList(0, limit);
+            nextCursor = encodeCursor(ExpenseCursor.of(sort, expenses.get(limit - 1)));
+        }
+
+        return new ExpensePageDTO(expenses, nextCursor);
     }
 
     @Override
-    public List<ExpenseResponseDTO> getExpensesByUserId(String userId) {
-        return expenseRepository.findByUserId(userId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public StreamingResponseBody exportExpenses(ExportFormat format, ExpenseExportRequestDTO exportRequest) {
+        // Validate before the response is committed, so a bad range is still a 400
+        checkDateRange(exportRequest.getFrom(), exportRequest.getTo());
+        ExpenseQuery.ExpenseQueryBuilder query = ExpenseQuery.builder()
+                .userId(exportRequest.getUserId())
+                .category(exportRequest.getCategory())
+                .from(exportRequest.getFrom())
+                .to(exportRequest.getTo())
+                .sort(ExpenseSort.DATE)
+                .limit(AppConstant.EXPORT_PAGE_SIZE);
+
+        return out -> {
+            ExpenseRowWriter writer = switch (format) {
+                case CSV -> new CsvExpenseRowWriter(new BufferedWriter(
+                        new OutputStreamWriter(out, StandardCharsets.UTF_8), AppConstant.EXPORT_BUFFER_SIZE));
+                case BINARY -> new BinaryExpenseRowWriter(out, AppConstant.EXPORT_BUFFER_SIZE);
+                case NDJSON -> new NdjsonExpenseRowWriter(out, AppConstant.EXPORT_BUFFER_SIZE);
+            };
+            writer.writeHeader();
+
+            // Walk the store one keyset page at a time; only the current page is ever held
+            List<Expense> page;
+            ExpenseCursor after = null;
+            do {
+                page = expenseRepository.findPage(query.after(after).build());
+                for (Expense expense : page) {
+                    writer.write(expense);
+                }
+                if (!page.isEmpty()) {
+                    after = ExpenseCursor.of(ExpenseSort.DATE, page.get(page.size() - 1));
+                }
+            } while (page.size() == AppConstant.EXPORT_PAGE_SIZE);
+            writer.flush();
+        };
     }
 
     @Override
-    public List<ExpenseResponseDTO> getExpensesByCategory(String category) {
-        return expenseRepository.findByCategory(category)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public SseEmitter streamChanges(String userId, String category, String lastEventId) {
+        return changeFeed.subscribe(userId, category, lastEventId, this::convertToDTO);
     }
 
     @Override
-    public String updateExpense(Long id, UpdateExpenseRequestDTO updateExpenseRequestDTO) {
+    public ExpenseResponseDTO getExpenseById(Long id) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(AppConstant.EXPENSE_NOT_FOUND + id));
+        return convertToDTO(expense);
+    }
 
-        expense.setDescription(updateExpenseRequestDTO.getDescription());
-        expense.setAmount(updateExpenseRequestDTO.getAmount());
-        expense.setCategory(updateExpenseRequestDTO.getCategory());
+    @Override
+    public List<ExpenseResponseDTO> searchExpenses(ExpenseSearchRequestDTO searchRequest) {
+        String query = searchRequest.getQ();
+        String userId = searchRequest.getUserId();
+        String category = searchRequest.getCategory();
+        int limit = searchRequest.getLimit() != null ? searchRequest.getLimit() : AppConstant.DEFAULT_SEARCH_LIMIT;
+        for (String term : ExpenseSearchIndex.tokenize(query)) {
+            if (term.length() < ExpenseSearchIndex.MIN_PREFIX) {
+                throw new BadRequestException(AppConstant.SEARCH_TERM_TOO_SHORT + term);
+            }
+        }
+
+        // Hits are re-checked against the row, which may have changed since the index read and
+        // which long query terms over-match; ask the index for more while rejects leave a gap
+        List<ExpenseResponseDTO> results = new ArrayList<>(limit);
+        int wanted = limit;
+        while (true) {
+            long[] ids = searchIndex.search(query, userId, category, wanted);
+            results.clear();
+            for (long id : ids) {
+                expenseRepository.findById(id)
+                        .filter(expense -> userId == null || userId.equals(expense.getUserId()))
+                        .filter(expense -> category == null || category.equals(expense.getCategory()))
+                        .filter(expense -> ExpenseSearchIndex.matches(expense.getDescription(), query))
+                        .ifPresent(expense -> results.add(convertToDTO(expense)));
+                if (results.size() == limit) {
+                    return results;
+                }
+            }
+            if (ids.length < wanted || wanted >= AppConstant.MAX_PAGE_SIZE) {
+                return results;
+            }
+            wanted = Math.min(wanted * 4, AppConstant.MAX_PAGE_SIZE);
+        }
+    }
+
+    @Override
+    public String updateExpense(Long id, Long expectedVersion, UpdateExpenseRequestDTO updateExpenseRequestDTO) {
+        // Lock-free read-modify-write: build the new state from a snapshot and swap it in only if
+        // nobody saved in between; otherwise re-read and try again
+        while (true) {
+            Expense expense = expenseRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(AppConstant.EXPENSE_NOT_FOUND + id));
+            if (expectedVersion != null && expense.getVersion() != expectedVersion) {
+                throw new ConflictException(AppConstant.EXPENSE_VERSION_CONFLICT + id);
+            }
+
+            Expense updatedExpense = expense
+                    .withDescription(updateExpenseRequestDTO.getDescription())
+                    .withAmount(updateExpenseRequestDTO.getAmount())
+                    .withCategory(updateExpenseRequestDTO.getCategory());
 
-        expenseRepository.save(expense);
-        return AppConstant.EXPENSE_UPDATED + id;
+            if (expenseRepository.compareAndSave(updatedExpense, expense.getVersion()).isPresent()) {
+                resultCache.invalidate(expense.getUserId(), expense.getCategory());
+                resultCache.invalidate(updatedExpense.getUserId(), updatedExpense.getCategory());
+                return AppConstant.EXPENSE_UPDATED + id;
+            }
+        }
     }
 
     @Override
-    public String deleteExpense(Long id) {
-        if (!expenseRepository.existsById(id)) {
+    public String deleteExpense(Long id, Long expectedVersion) {
+        Expense expense = expenseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(AppConstant.EXPENSE_NOT_FOUND + id));
+        boolean deleted = expectedVersion == null ?
+                expenseRepository.deleteById(id) :
+                expenseRepository.compareAndDelete(id, expectedVersion);
+        if (!deleted) {
+            if (expectedVersion != null && expenseRepository.existsById(id)) {
+                throw new ConflictException(AppConstant.EXPENSE_VERSION_CONFLICT + id);
+            }
             throw new ResourceNotFoundException(AppConstant.EXPENSE_NOT_FOUND + id);
         }
-        expenseRepository.deleteById(id);
+        // Best effort if a concurrent update moved it first; stamps keep the cache correct regardless
+        resultCache.invalidate(expense.getUserId(), expense.getCategory());
         return AppConstant.EXPENSE_DELETED + id;
     }
 
@@ -98,30 +320,195 @@ public class ExpenseServiceImpl implements ExpenseService {
         return expenseRepository.count();
     }
 
+    @Override
+    public List<ExpenseAnomalyDTO> getAnomalies(String userId, int limit) {
+        // Flags of expenses deleted since the detector was read are skipped
+        return anomalyDetector.anomalies(userId, limit)
+                .stream()
+                .flatMap(anomaly -> expenseRepository.findById(anomaly.expenseId())
+                        .map(expense -> new ExpenseAnomalyDTO(
+                                convertToDTO(expense),
+                                BigDecimal.valueOf(anomaly.typicalAmount()).setScale(2, RoundingMode.HALF_UP),
+                                anomaly.score()))
+                        .stream())
+                .toList();
+    }
+
     @Override
     public List<CategorySummaryDTO> getCategorySummary() {
-        Map<String, List<Expense>> groupedByCategory = expenseRepository.findAll().stream()
-                .collect(Collectors.groupingBy(Expense::getCategory));
+        return resultCache.get(ResultCacheKey.of(CACHE_SUMMARY, null, null),
+                () -> toSummary(categoryAggregateStore.categoryTotals()),
+                List::size);
+    }
 
-        return groupedByCategory.entrySet().stream()
-                .map(entry -> {
-                    String category = entry.getKey();
-                    List<Expense> expenses = entry.getValue();
+    @Override
+    public List<CategorySummaryDTO> getCategorySummaryByUserId(String userId) {
+        return resultCache.get(ResultCacheKey.of(CACHE_SUMMARY, userId, null),
+                () -> toSummary(categoryAggregateStore.categoryTotals(userId)),
+                List::size);
+    }
 
-                    BigDecimal totalAmount = expenses.stream()
-                            .map(Expense::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    public List<CategoryQuantilesDTO> getCategoryQuantiles(String userId, String category, List<Double> quantiles) {
+        for (Double quantile : quantiles) {
+            if (quantile == null || !(quantile >= 0 && quantile <= 1)) {
+                throw new BadRequestException(AppConstant.INVALID_QUANTILE + quantile);
+            }
+        }
+        List<Double> requested = List.copyOf(quantiles);
+        return resultCache.get(new ResultCacheKey(CACHE_QUANTILES, userId, category, requested),
+                () -> {
+                    Map<String, QuantileSketch> sketches = category != null ?
+                            categoryQuantileStore.categorySketch(userId, category)
+                                    .map(sketch -> Map.of(category, sketch))
+                                    .orElse(Map.of()) :
+                            userId != null ?
+                                    categoryQuantileStore.categorySketches(userId) :
+                                    categoryQuantileStore.categorySketches();
+                    return toQuantiles(sketches, requested);
+                },
+                List::size);
+    }
 
-                    long count = expenses.size();
-                    BigDecimal averageAmount = count > 0 ?
-                            totalAmount.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) :
-                            BigDecimal.ZERO;
+    @Override
+    public List<ExpenseTimeSeriesPointDTO> getTimeSeries(ExpenseTimeSeriesRequestDTO timeSeriesRequest) {
+        RollupGranularity granularity = parseGranularity(timeSeriesRequest.getGranularity());
+        if (!timeSeriesRequest.getFrom().isBefore(timeSeriesRequest.getTo())) {
+            throw new BadRequestException(AppConstant.INVALID_DATE_RANGE);
+        }
+        int firstBucket = granularity.bucketOf(timeSeriesRequest.getFrom());
+        int lastBucket = granularity.bucketOf(timeSeriesRequest.getTo().minusDays(1));
+        if ((long) lastBucket - firstBucket >= AppConstant.MAX_ROLLUP_BUCKETS) {
+            throw new BadRequestException(AppConstant.TOO_MANY_BUCKETS);
+        }
 
-                    return new CategorySummaryDTO(category, totalAmount, count, averageAmount);
-                })
+        String userId = timeSeriesRequest.getUserId();
+        return expenseRollupStore.cells(userId, timeSeriesRequest.getCategory(), granularity, firstBucket, lastBucket)
+                .stream()
+                .map(cell -> cell.stale() ? repairRollup(userId, cell) : cell)
+                .sorted(Comparator.comparing(RollupCell::category).thenComparingInt(RollupCell::bucket))
+                .map(cell -> new ExpenseTimeSeriesPointDTO(
+                        cell.category(),
+                        granularity.label(cell.bucket()),
+                        cell.totalAmount(),
+                        cell.count(),
+                        cell.minAmount(),
+                        cell.maxAmount()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A delete removed this bucket's min or max; rescan just the bucket through the indexes
+     */
+    private RollupCell repairRollup(String userId, RollupCell cell) {
+        RollupGranularity granularity = cell.granularity();
+        List<Expense> expenses = expenseRepository.findPage(ExpenseQuery.builder()
+                .userId(userId)
+                .category(cell.category())
+                .from(granularity.startOf(cell.bucket()).atStartOfDay())
+                .to(granularity.startOf(cell.bucket() + 1).atStartOfDay())
+                .sort(ExpenseSort.DATE)
+                .limit(Integer.MAX_VALUE)
+                .build());
+        return expenseRollupStore.repair(userId, cell, expenses);
+    }
+
+    /**
+     * Helper method to convert running category aggregates to summary DTOs
+     */
+    private List<CategorySummaryDTO> toSummary(Map<String, CategoryAggregate> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> new CategorySummaryDTO(
+                        entry.getKey(),
+                        entry.getValue().totalAmount(),
+                        entry.getValue().count(),
+                        entry.getValue().averageAmount()))
+                .toList();
+    }
+
+    /**
+     * Helper method to read the requested quantiles off category sketches, by category name
+     */
+    private List<CategoryQuantilesDTO> toQuantiles(Map<String, QuantileSketch> sketches, List<Double> quantiles) {
+        List<CategoryQuantilesDTO> rows = new ArrayList<>(sketches.size());
+        new TreeMap<>(sketches).forEach((category, sketch) -> {
+            Map<String, BigDecimal> values = new LinkedHashMap<>();
+            for (double quantile : quantiles) {
+                String label = "p" + BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+                values.put(label, BigDecimal.valueOf(sketch.quantile(quantile)).setScale(2, RoundingMode.HALF_UP));
+            }
+            rows.add(new CategoryQuantilesDTO(category, sketch.count(), values));
+        });
+        return rows;
+    }
+
+    private ExpenseSort parseSort(String sort) {
+        if (sort == null || AppConstant.SORT_BY_ID.equalsIgnoreCase(sort)) {
+            return ExpenseSort.ID;
+        }
+        if (AppConstant.SORT_BY_DATE.equalsIgnoreCase(sort)) {
+            return ExpenseSort.DATE;
+        }
+        throw new BadRequestException(AppConstant.INVALID_SORT + sort);
+    }
+
+    private boolean parseDescending(String direction) {
+        if (direction == null || AppConstant.DIRECTION_ASC.equalsIgnoreCase(direction)) {
+            return false;
+        }
+        if (AppConstant.DIRECTION_DESC.equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new BadRequestException(AppConstant.INVALID_DIRECTION + direction);
+    }
+
+    private RollupGranularity parseGranularity(String granularity) {
+        if (granularity == null || AppConstant.GRANULARITY_MONTH.equalsIgnoreCase(granularity)) {
+            return RollupGranularity.MONTH;
+        }
+        if (AppConstant.GRANULARITY_DAY.equalsIgnoreCase(granularity)) {
+            return RollupGranularity.DAY;
+        }
+        if (AppConstant.GRANULARITY_YEAR.equalsIgnoreCase(granularity)) {
+            return RollupGranularity.YEAR;
+        }
+        throw new BadRequestException(AppConstant.INVALID_GRANULARITY + granularity);
+    }
+
+    private void checkDateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException(AppConstant.INVALID_DATE_RANGE);
+        }
+    }
+
+    /**
+     * Cursors are opaque to clients: "id:{id}" or "date:{epochNanos}:{id}", base64url-encoded
+     */
+    private String encodeCursor(ExpenseCursor cursor) {
+        String raw = cursor.sort() == ExpenseSort.DATE ?
+                AppConstant.SORT_BY_DATE + ":" + cursor.timestamp() + ":" + cursor.id() :
+                AppConstant.SORT_BY_ID + ":" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ExpenseCursor decodeCursor(String cursor, ExpenseSort sort) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (sort == ExpenseSort.ID && parts.length == 2 && AppConstant.SORT_BY_ID.equals(parts[0])) {
+                return new ExpenseCursor(sort, 0, Long.parseLong(parts[1]));
+            }
+            if (sort == ExpenseSort.DATE && parts.length == 3 && AppConstant.SORT_BY_DATE.equals(parts[0])) {
+                return new ExpenseCursor(sort, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException ex) {
+            // Malformed base64 or number, reported below
+        }
+        throw new BadRequestException(AppConstant.INVALID_CURSOR + cursor);
+    }
+
     /**
      * Helper method to convert Expense entity to ExpenseResponseDTO
      */
@@ -132,7 +519,8 @@ public class ExpenseServiceImpl implements ExpenseService {
                 expense.getAmount(),
                 expense.getCategory(),
                 expense.getDate(),
-                expense.getUserId()
+                expense.getUserId(),
+                expense.getVersion()
         );
     }
 }
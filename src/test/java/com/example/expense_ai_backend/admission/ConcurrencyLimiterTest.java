@@ -0,0 +1,46 @@
+package com.example.expense_ai_backend.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void admitsUpToTheLimitAndShedsAfterTheQueueTarget() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+
+        // Overloaded: the next request is shed without queueing
+        start = System.nanoTime();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(limiter.rejectionCount()).isEqualTo(2L);
+
+        // A free slot is always taken, overloaded or not
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void queuedRequestsGetSlotsFreedWithinTheTarget() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, TimeUnit.SECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(limiter::tryAcquire);
+        Thread.sleep(20);
+        limiter.release();
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.rejectionCount()).isZero();
+    }
+}
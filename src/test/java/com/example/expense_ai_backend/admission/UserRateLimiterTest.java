@@ -0,0 +1,133 @@
+package com.example.expense_ai_backend.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    // 10 per second, bursts of 5
+    private final UserRateLimiter limiter = new UserRateLimiter(10, 5, 3, now::get);
+
+    @Test
+    void allowsABurstThenTheSustainedRate() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice")).isZero();
+        }
+        long wait = limiter.tryAcquire("alice");
+        assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        now.addAndGet(wait);
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+        assertThat(limiter.rejectionCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void aRefundedPermitCanBeTakenAgainButNeverOverfillsTheBucket() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice")).isZero();
+        }
+        limiter.refund("alice");
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+
+        limiter.tryAcquire("bob");
+        limiter.refund("bob");
+        limiter.refund("bob");
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("bob")).isZero();
+        }
+        assertThat(limiter.tryAcquire("bob")).isPositive();
+    }
+
+    @Test
+    void limitsEachUserSeparately() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("alice");
+        }
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+
+        assertThat(limiter.tryAcquire("bob")).isZero();
+    }
+
+    @Test
+    void refillsToTheBurstAndNoFurther() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("alice");
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("alice")).isZero();
+        }
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void dropsIdleUsersOnceTooManyAreTracked() {
+        limiter.tryAcquire("idle-1");
+        limiter.tryAcquire("idle-2");
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("busy");
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        // The busy user's bucket is full again too, so drain it once more
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("busy");
+        }
+
+        limiter.tryAcquire("new");
+
+        assertThat(limiter.trackedUsers()).isEqualTo(2);
+        // Busy kept its bucket: still empty
+        assertThat(limiter.tryAcquire("busy")).isPositive();
+    }
+
+    @Test
+    void newUsersShareOneBucketWhileNoneCanBeDropped() {
+        for (String user : new String[] {"alice", "bob", "carol"}) {
+            limiter.tryAcquire(user);
+        }
+
+        // Made-up ids past the limit all draw on the same bucket and are never tracked
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("spoofed-" + i)).isZero();
+        }
+        assertThat(limiter.tryAcquire("spoofed-5")).isPositive();
+        assertThat(limiter.trackedUsers()).isEqualTo(3);
+
+        // Once tracked users go idle, newcomers get their own bucket again
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("dave")).isZero();
+        assertThat(limiter.trackedUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void grantsExactlyTheBurstToConcurrentCallers() throws InterruptedException {
+        UserRateLimiter slow = new UserRateLimiter(0.001, 1_000, 10, now::get);
+        AtomicLong granted = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (slow.tryAcquire("alice") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(granted.get()).isEqualTo(1_000L);
+        assertThat(slow.rejectionCount()).isEqualTo(3_000L);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.expense_ai_backend.aggregate;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryAggregateStoreTest {
+
+    private final CategoryAggregateStore store = new CategoryAggregateStore();
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(store));
+
+    @Test
+    void tracksTotalsAcrossCreateUpdateAndDelete() {
+        Expense coffee = repository.save(expense(null, "alice", "Food", "4.50"));
+        repository.save(expense(null, "bob", "Food", "10.00"));
+        Expense taxi = repository.save(expense(null, "alice", "Travel", "20.00"));
+
+        // Move the coffee to Travel with a new amount
+        repository.save(expense(coffee.getId(), "alice", "Travel", "5.00"));
+        repository.deleteById(taxi.getId());
+
+        assertThat(store.categoryTotals().get("Food")).isEqualTo(new CategoryAggregate(new BigDecimal("10.00"), 1));
+        assertThat(store.categoryTotals().get("Travel")).isEqualTo(new CategoryAggregate(new BigDecimal("5.00"), 1));
+        assertThat(store.categoryTotals("alice")).containsOnlyKeys("Travel");
+        assertThat(store.categoryTotals("bob").get("Food").averageAmount()).isEqualByComparingTo("10.00");
+        assertThat(store.verify(repository.findAll())).isEmpty();
+    }
+
+    @Test
+    void dropsCategoriesWhoseLastExpenseIsDeleted() {
+        Expense rent = repository.save(expense(null, "alice", "Rent", "900.00"));
+
+        repository.deleteById(rent.getId());
+
+        assertThat(store.categoryTotals()).isEmpty();
+        assertThat(store.categoryTotals("alice")).isEmpty();
+    }
+
+    @Test
+    void verifyReportsDriftedCategories() {
+        repository.save(expense(null, "alice", "Food", "4.50"));
+        store.onExpenseSaved(null, expense(99L, "alice", "Fun", "1.00"));
+
+        assertThat(store.verify(repository.findAll())).containsExactly("Fun");
+    }
+
+    private static Expense expense(Long id, String userId, String category, String amount) {
+        return new Expense(id, "test", new BigDecimal(amount), category, LocalDateTime.now(), userId);
+    }
+}
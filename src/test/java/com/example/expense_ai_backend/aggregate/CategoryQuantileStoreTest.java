@@ -0,0 +1,106 @@
+package com.example.expense_ai_backend.aggregate;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryQuantileStoreTest {
+
+    private final CategoryQuantileStore store = new CategoryQuantileStore(0.01, 2048);
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(store));
+
+    @Test
+    void quantilesAreWithinTheRelativeAccuracy() {
+        Random random = new Random(42);
+        double[] amounts = new double[10_000];
+        QuantileSketch sketch = new QuantileSketch(0.01, 2048);
+        for (int i = 0; i < amounts.length; i++) {
+            // Log-normal around 20, like real spend: mostly small, a long tail of large amounts
+            amounts[i] = Math.round(Math.exp(3 + 1.5 * random.nextGaussian()) * 100 + 1) / 100.0;
+            sketch.add(amounts[i]);
+        }
+        Arrays.sort(amounts);
+
+        for (double quantile : new double[] {0, 0.25, 0.5, 0.9, 0.95, 0.99, 1}) {
+            double exact = amounts[(int) (quantile * (amounts.length - 1))];
+            assertWithin(sketch.quantile(quantile), exact, 0.01);
+        }
+        assertThat(sketch.count()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void tracksAmountsAcrossCreateUpdateAndDelete() {
+        Expense coffee = repository.save(expense(null, "alice", "Food", "4.50"));
+        repository.save(expense(null, "alice", "Food", "10.00"));
+        repository.save(expense(null, "bob", "Food", "30.00"));
+        Expense taxi = repository.save(expense(null, "alice", "Travel", "20.00"));
+
+        // Move the coffee to Travel with a new amount, then drop the taxi
+        repository.save(coffee.withCategory("Travel").withAmount(new BigDecimal("5.00")));
+        repository.deleteById(taxi.getId());
+
+        QuantileSketch food = store.categorySketch(null, "Food").orElseThrow();
+        assertThat(food.count()).isEqualTo(2L);
+        assertWithin(food.quantile(0), 10.00, 0.01);
+        assertWithin(food.quantile(1), 30.00, 0.01);
+        assertThat(store.categorySketches("alice")).containsOnlyKeys("Food", "Travel");
+        assertWithin(store.categorySketches("alice").get("Travel").quantile(0.5), 5.00, 0.01);
+
+        repository.deleteById(coffee.getId());
+        assertThat(store.categorySketches("alice")).containsOnlyKeys("Food");
+        assertThat(store.categorySketch("alice", "Travel")).isEmpty();
+    }
+
+    @Test
+    void mergingPartialsMatchesOneSketchOfEveryValue() {
+        Random random = new Random(7);
+        QuantileSketch whole = new QuantileSketch(0.01, 2048);
+        for (int i = 0; i < 5_000; i++) {
+            double amount = 1 + random.nextInt(100_000) / 100.0;
+            whole.add(amount);
+            repository.save(expense(null, "user-" + random.nextInt(50), "Food", Double.toString(amount)));
+        }
+
+        QuantileSketch merged = store.categorySketches().get("Food");
+        assertThat(merged.count()).isEqualTo(whole.count());
+        for (double quantile : new double[] {0.1, 0.5, 0.95, 0.999}) {
+            assertThat(merged.quantile(quantile)).isEqualTo(whole.quantile(quantile));
+        }
+    }
+
+    @Test
+    void boundsBucketsByFoldingTheSmallestAmounts() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 100);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(Math.pow(1.05, i % 200));
+        }
+
+        assertThat(sketch.bucketCount()).isLessThanOrEqualTo(100);
+        // The upper quantiles keep their accuracy; only the folded low end is coarse
+        assertWithin(sketch.quantile(1), Math.pow(1.05, 199), 0.01);
+        assertWithin(sketch.quantile(0.9), Math.pow(1.05, 179), 0.02);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(sketch.remove(Math.pow(1.05, i % 200))).isTrue();
+        }
+        assertThat(sketch.isEmpty()).isTrue();
+    }
+
+    private static void assertWithin(double actual, double expected, double relativeError) {
+        assertThat(Math.abs(actual - expected) <= expected * relativeError)
+                .as("%s within %s of %s", actual, relativeError, expected)
+                .isTrue();
+    }
+
+    private static Expense expense(Long id, String userId, String category, String amount) {
+        return new Expense(id, "test", new BigDecimal(amount), category, LocalDateTime.now(), userId);
+    }
+}
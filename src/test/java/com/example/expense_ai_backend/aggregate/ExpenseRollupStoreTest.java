@@ -0,0 +1,138 @@
+package com.example.expense_ai_backend.aggregate;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseRollupStoreTest {
+
+    private static final int MARCH = RollupGranularity.MONTH.bucketOf(LocalDate.of(2026, 3, 1));
+
+    private final ExpenseRollupStore store = new ExpenseRollupStore();
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(store));
+
+    @Test
+    void bucketsExpensesByMonthAcrossCreateUpdateAndDelete() {
+        Expense coffee = repository.save(expense(null, "alice", "Food", "4.50", 3, 2));
+        repository.save(expense(null, "alice", "Food", "12.25", 3, 28));
+        Expense taxi = repository.save(expense(null, "alice", "Food", "20.00", 4, 1));
+        repository.save(expense(null, "bob", "Food", "99.00", 3, 5));
+
+        // Move the coffee to Travel, then drop April
+        repository.save(expense(coffee.getId(), "alice", "Travel", "5.00", 3, 2));
+        repository.deleteById(taxi.getId());
+
+        List<RollupCell> cells = store.cells("alice", null, RollupGranularity.MONTH, MARCH, MARCH + 1);
+        assertThat(cells).hasSize(2);
+        assertThat(cells).extracting(RollupCell::category).containsExactly("Food", "Travel");
+        assertThat(cells.get(0).bucket()).isEqualTo(MARCH);
+        assertThat(cells.get(0).totalAmount()).isEqualByComparingTo("12.25");
+        assertThat(cells.get(0).count()).isEqualTo(1);
+        assertThat(cells.get(1).totalAmount()).isEqualByComparingTo("5.00");
+
+        int year = RollupGranularity.YEAR.bucketOf(LocalDate.of(2026, 1, 1));
+        assertThat(store.cells("bob", "Food", RollupGranularity.YEAR, year, year))
+                .singleElement()
+                .extracting(RollupCell::totalAmount)
+                .isEqualTo(new BigDecimal("99.00"));
+    }
+
+    @Test
+    void deletingTheMaximumMarksTheBucketStaleUntilRepaired() {
+        repository.save(expense(null, "alice", "Food", "3.00", 3, 1));
+        repository.save(expense(null, "alice", "Food", "7.00", 3, 2));
+        Expense largest = repository.save(expense(null, "alice", "Food", "40.00", 3, 3));
+
+        repository.deleteById(largest.getId());
+
+        RollupCell stale = store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, MARCH).get(0);
+        assertThat(stale.stale()).isTrue();
+        assertThat(stale.totalAmount()).isEqualByComparingTo("10.00");
+
+        RollupCell repaired = store.repair("alice", stale, repository.findByUserId("alice"));
+        assertThat(repaired.minAmount()).isEqualByComparingTo("3.00");
+        assertThat(repaired.maxAmount()).isEqualByComparingTo("7.00");
+        assertThat(store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, MARCH).get(0))
+                .isEqualTo(repaired);
+    }
+
+    @Test
+    void repairIsDiscardedWhenTheBucketChangedSinceItWasRead() {
+        repository.save(expense(null, "alice", "Food", "3.00", 3, 1));
+        Expense largest = repository.save(expense(null, "alice", "Food", "40.00", 3, 3));
+        repository.deleteById(largest.getId());
+        RollupCell stale = store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, MARCH).get(0);
+
+        repository.save(expense(null, "alice", "Food", "8.00", 3, 4));
+        store.repair("alice", stale, List.of(expense(null, "alice", "Food", "3.00", 3, 1)));
+
+        assertThat(store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, MARCH).get(0).stale()).isTrue();
+    }
+
+    @Test
+    void datesTooFarOutForABucketSaturateInsteadOfFailingTheWrite() {
+        assertThat(RollupGranularity.DAY.bucketOf(LocalDate.MAX)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(RollupGranularity.MONTH.bucketOf(LocalDate.MAX)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(RollupGranularity.MONTH.bucketOf(LocalDate.MIN)).isEqualTo(Integer.MIN_VALUE);
+
+        repository.save(new Expense(null, "test", new BigDecimal("1.00"), "Food", LocalDateTime.MAX, "alice"));
+        repository.save(expense(null, "alice", "Food", "2.00", 3, 1));
+
+        assertThat(store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, Integer.MAX_VALUE))
+                .extracting(RollupCell::bucket).containsExactly(MARCH);
+    }
+
+    @Test
+    void repairIsRejectedWhenTheScanMissesAWriteTheCellCounts() {
+        repository.save(expense(null, "alice", "Food", "3.00", 3, 1));
+        Expense largest = repository.save(expense(null, "alice", "Food", "40.00", 3, 3));
+        repository.deleteById(largest.getId());
+        // The rollups saw a 50.00 write that the store does not hold yet
+        store.onExpenseSaved(null, expense(99L, "alice", "Food", "50.00", 3, 4));
+        RollupCell stale = store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, MARCH).get(0);
+
+        RollupCell result = store.repair("alice", stale, repository.findByUserId("alice"));
+
+        assertThat(result).isEqualTo(stale);
+        assertThat(store.cells("alice", "Food", RollupGranularity.MONTH, MARCH, MARCH).get(0).stale()).isTrue();
+    }
+
+    @Test
+    void everyCategoryMeansTheUsersOwnCategoriesInBucketsWithSpend() {
+        repository.save(expense(null, "alice", "Food", "4.00", 1, 10));
+        Expense rent = repository.save(expense(null, "alice", "Rent", "900.00", 3, 1));
+        repository.save(expense(null, "alice", "Food", "6.00", 3, 15));
+        for (int i = 0; i < 50; i++) {
+            repository.save(expense(null, "bob", "Category " + i, "1.00", 2, 1));
+        }
+        repository.deleteById(rent.getId());
+
+        int january = RollupGranularity.MONTH.bucketOf(LocalDate.of(2026, 1, 1));
+        List<RollupCell> cells = store.cells("alice", null, RollupGranularity.MONTH, january, january + 11);
+        assertThat(cells).extracting(RollupCell::category).containsExactly("Food", "Food");
+        assertThat(cells).extracting(RollupCell::bucket).containsExactly(january, MARCH);
+        assertThat(store.cells("alice", null, RollupGranularity.MONTH, january + 1, january + 1)).isEmpty();
+        assertThat(store.cells("carol", null, RollupGranularity.MONTH, january, january + 11)).isEmpty();
+    }
+
+    @Test
+    void amountsKeepFourDecimalPlacesAndAtLeastCents() {
+        assertThat(ExpenseRollupStore.toAmount(ExpenseRollupStore.toUnits(new BigDecimal("12.5"))))
+                .isEqualTo(new BigDecimal("12.50"));
+        assertThat(ExpenseRollupStore.toAmount(ExpenseRollupStore.toUnits(new BigDecimal("0.12345"))))
+                .isEqualTo(new BigDecimal("0.1234"));
+    }
+
+    private static Expense expense(Long id, String userId, String category, String amount, int month, int day) {
+        return new Expense(id, "test", new BigDecimal(amount), category,
+                LocalDateTime.of(2026, month, day, 12, 0), userId);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.expense_ai_backend.anomaly;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseAnomalyDetectorTest {
+
+    private final ExpenseAnomalyDetector detector = new ExpenseAnomalyDetector(3.0, 5);
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(detector));
+
+    @Test
+    void flagsAmountsFarAboveTheUsersUsualSpendInTheCategory() {
+        for (String amount : List.of("4.50", "5.00", "4.75", "5.25", "4.90")) {
+            repository.save(expense(null, "alice", "Coffee", amount));
+        }
+        repository.save(expense(null, "alice", "Coffee", "5.10"));
+        Expense splurge = repository.save(expense(null, "alice", "Coffee", "48.00"));
+        // Big for coffee, but bob has no history and rent is another category
+        repository.save(expense(null, "bob", "Coffee", "48.00"));
+        repository.save(expense(null, "alice", "Rent", "900.00"));
+
+        assertThat(detector.anomalies(null, 10)).extracting(ExpenseAnomaly::expenseId)
+                .containsExactly(splurge.getId());
+        ExpenseAnomaly anomaly = detector.anomalies("alice", 10).get(0);
+        assertThat(anomaly.typicalAmount() > 4.5 && anomaly.typicalAmount() < 5.5).isTrue();
+        assertThat(anomaly.score() > 3.0).isTrue();
+        assertThat(detector.anomalies("bob", 10)).isEmpty();
+    }
+
+    @Test
+    void needsHistoryBeforeFlagging() {
+        repository.save(expense(null, "alice", "Travel", "20.00"));
+        repository.save(expense(null, "alice", "Travel", "2000.00"));
+
+        assertThat(detector.anomalies(null, 10)).isEmpty();
+    }
+
+    @Test
+    void updatesRescoreAndDeletesDropFlags() {
+        for (int i = 0; i < 10; i++) {
+            repository.save(expense(null, "alice", "Food", "10.00"));
+        }
+        Expense typo = repository.save(expense(null, "alice", "Food", "1000.00"));
+        assertThat(detector.flaggedCount()).isEqualTo(1);
+
+        // Fixing the amount clears the flag; mistyping it again flags it again
+        Expense fixed = repository.save(typo.withAmount(new BigDecimal("10.00")));
+        assertThat(detector.flaggedCount()).isZero();
+        Expense mistyped = repository.save(fixed.withAmount(new BigDecimal("1000.00")));
+        assertThat(detector.flaggedCount()).isEqualTo(1);
+
+        repository.deleteById(mistyped.getId());
+
+        assertThat(detector.flaggedCount()).isZero();
+        assertThat(detector.anomalies("alice", 10)).isEmpty();
+    }
+
+    @Test
+    void runningStatsMatchAFullRecomputation() {
+        Random random = new Random(7);
+        SpendStats stats = SpendStats.EMPTY;
+        double[] amounts = new double[200];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = 1 + random.nextDouble() * 100;
+            stats = stats.plus(amounts[i]);
+        }
+        // Take the second half back out
+        for (int i = 100; i < amounts.length; i++) {
+            stats = stats.minus(amounts[i]);
+        }
+
+        double mean = 0;
+        for (int i = 0; i < 100; i++) {
+            mean += amounts[i] / 100;
+        }
+        double squares = 0;
+        for (int i = 0; i < 100; i++) {
+            squares += (amounts[i] - mean) * (amounts[i] - mean);
+        }
+        assertThat(stats.count()).isEqualTo(100L);
+        assertThat(Math.abs(stats.mean() - mean) < 1e-9).isTrue();
+        assertThat(Math.abs(stats.standardDeviation() - Math.sqrt(squares / 99)) < 1e-9).isTrue();
+    }
+
+    private static Expense expense(Long id, String userId, String category, String amount) {
+        return new Expense(id, "test", new BigDecimal(amount), category, LocalDateTime.now(), userId);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.expense_ai_backend.budget;
+
+import com.example.expense_ai_backend.aggregate.ExpenseRollupStore;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BudgetTrackerTest {
+
+    private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    private final BudgetTracker tracker = new BudgetTracker(List.of(1.0, 0.8), 3);
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(tracker));
+
+    @Test
+    void alertsOnceWhenEachThresholdIsCrossed() {
+        tracker.createBudget("alice", "Food", new BigDecimal("100.00"));
+
+        repository.save(expense("alice", "Food", "50.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).isEmpty();
+
+        Expense crossing = repository.save(expense("alice", "Food", "30.00", MARCH));
+        repository.save(expense("alice", "Food", "5.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).extracting(BudgetAlert::threshold).containsExactly(0.8);
+        BudgetAlert alert = tracker.alerts("alice", 10).get(0);
+        assertThat(alert.expenseId()).isEqualTo(crossing.getId());
+        assertThat(alert.spent()).isEqualByComparingTo("80");
+        assertThat(alert.month()).isEqualTo(YearMonth.of(2026, 3));
+
+        repository.save(expense("alice", "Food", "15.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).extracting(BudgetAlert::threshold).containsExactly(1.0, 0.8);
+        assertThat(tracker.alertCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void oneWritePastSeveralThresholdsRaisesTheHighest() {
+        tracker.createBudget("alice", "Travel", new BigDecimal("500"));
+
+        repository.save(expense("alice", "Travel", "650.00", MARCH));
+
+        assertThat(tracker.alerts("alice", 10)).extracting(BudgetAlert::threshold).containsExactly(1.0);
+    }
+
+    @Test
+    void countsSpendFromBeforeTheBudgetExisted() {
+        repository.save(expense("alice", "Food", "70.00", MARCH));
+        repository.save(expense("alice", "Food", "90.00", MARCH.minusMonths(1)));
+        repository.save(expense("bob", "Food", "90.00", MARCH));
+
+        tracker.createBudget("alice", "Food", new BigDecimal("100"));
+
+        assertThat(tracker.spentUnits("alice", "Food", YearMonth.of(2026, 3)))
+                .isEqualTo(ExpenseRollupStore.toUnits(new BigDecimal("70")));
+        assertThat(tracker.thresholdReached(tracker.getBudget("alice", "Food"), tracker.spentUnits("alice", "Food", YearMonth.of(2026, 2))))
+                .isEqualTo(0.8);
+        // Crossing happens on the next write, not when the budget is created
+        assertThat(tracker.alerts("alice", 10)).isEmpty();
+        repository.save(expense("alice", "Food", "10.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).hasSize(1);
+    }
+
+    @Test
+    void updatesAndDeletesMoveSpendWithoutSpuriousAlerts() {
+        tracker.createBudget("alice", "Food", new BigDecimal("100"));
+        Expense lunch = repository.save(expense("alice", "Food", "85.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).hasSize(1);
+
+        // Raising an amount already past 80% must not count as crossing 80% again
+        Expense raised = repository.save(lunch.withAmount(new BigDecimal("90.00")));
+        assertThat(tracker.alerts("alice", 10)).hasSize(1);
+
+        // Moving it to another category takes it off this budget
+        repository.save(raised.withCategory("Travel"));
+        assertThat(tracker.spentUnits("alice", "Food", YearMonth.of(2026, 3))).isZero();
+
+        // Deleting spend and crossing again alerts again
+        Expense dinner = repository.save(expense("alice", "Food", "95.00", MARCH));
+        repository.deleteById(dinner.getId());
+        repository.save(expense("alice", "Food", "95.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).extracting(BudgetAlert::threshold).containsExactly(0.8, 0.8, 0.8);
+        assertThat(tracker.spentUnits("alice", "Food", YearMonth.of(2026, 3)))
+                .isEqualTo(ExpenseRollupStore.toUnits(new BigDecimal("95")));
+    }
+
+    @Test
+    void aWriteRevertedAfterCrossingAThresholdRaisesNoAlert() {
+        ExpenseChangeListener failing = new ExpenseChangeListener() {
+            @Override
+            public void onExpenseSaved(Expense previous, Expense current) {
+                if ("rejected".equals(current.getDescription())) {
+                    throw new IllegalStateException("rejected");
+                }
+            }
+        };
+        ExpenseRepository guarded = new ExpenseRepository(List.of(tracker, failing));
+        tracker.createBudget("alice", "Food", new BigDecimal("100.00"));
+        guarded.save(expense("alice", "Food", "50.00", MARCH));
+
+        assertThatThrownBy(() -> guarded.save(new Expense(null, "rejected", new BigDecimal("60.00"), "Food", MARCH,
+                "alice"))).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tracker.alerts("alice", 10)).isEmpty();
+        assertThat(tracker.alertCount()).isZero();
+        assertThat(tracker.spentUnits("alice", "Food", YearMonth.of(2026, 3)))
+                .isEqualTo(ExpenseRollupStore.toUnits(new BigDecimal("50.00")));
+
+        Expense crossing = guarded.save(expense("alice", "Food", "60.00", MARCH));
+        assertThat(tracker.alerts("alice", 10)).extracting(BudgetAlert::threshold).containsExactly(1.0);
+        assertThat(tracker.alerts("alice", 10).get(0).expenseId()).isEqualTo(crossing.getId());
+        assertThat(tracker.alertCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void farFutureDatesCountInTheLastMonthInsteadOfOverflowing() {
+        tracker.createBudget("alice", "Food", new BigDecimal("10.00"));
+
+        repository.save(expense("alice", "Food", "20.00", LocalDateTime.MAX));
+
+        assertThat(tracker.alerts("alice", 10)).extracting(BudgetAlert::threshold).containsExactly(1.0);
+        assertThat(tracker.alerts("alice", 10).get(0).month().getYear())
+                .isEqualTo(Integer.MAX_VALUE / 12);
+    }
+
+    @Test
+    void budgetsAreCreatedOnceAndAlertsAreBounded() {
+        assertThat(tracker.createBudget("alice", "Food", new BigDecimal("10"))).isNotNull();
+        assertThat(tracker.createBudget("alice", "Food", new BigDecimal("20"))).isNull();
+        assertThat(tracker.updateBudget("alice", "Rent", new BigDecimal("20"))).isNull();
+        assertThat(tracker.updateBudget("alice", "Food", new BigDecimal("20")).monthlyLimit())
+                .isEqualByComparingTo("20");
+
+        for (int i = 0; i < 5; i++) {
+            Expense expense = repository.save(expense("alice", "Food", "25.00", MARCH));
+            repository.deleteById(expense.getId());
+        }
+        assertThat(tracker.alerts("alice", 10)).hasSize(3);
+        assertThat(tracker.alertCount()).isEqualTo(5L);
+
+        assertThat(tracker.deleteBudget("alice", "Food")).isTrue();
+        assertThat(tracker.deleteBudget("alice", "Food")).isFalse();
+        assertThat(tracker.budgetCount()).isZero();
+    }
+
+    private static Expense expense(String userId, String category, String amount, LocalDateTime date) {
+        return new Expense(null, "test", new BigDecimal(amount), category, date, userId);
+    }
+}
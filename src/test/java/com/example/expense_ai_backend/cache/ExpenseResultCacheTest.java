@@ -0,0 +1,127 @@
+package com.example.expense_ai_backend.cache;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseResultCacheTest {
+
+    private final ExpenseRepository repository = new ExpenseRepository();
+
+    private final ExpenseResultCache cache = new ExpenseResultCache(repository.changeCounters(), 16_000);
+
+    @Test
+    void writesMissOnlyTheScopesTheyTouch() {
+        repository.save(expense(null, "alice", "Food", "1.00"));
+        repository.save(expense(null, "bob", "Travel", "2.00"));
+        AtomicInteger loads = new AtomicInteger();
+
+        byUser("alice", loads);
+        byUser("bob", loads);
+        byUser("alice", loads);
+        assertThat(loads).hasValue(2);
+
+        repository.save(expense(null, "alice", "Rent", "3.00"));
+
+        assertThat(byUser("alice", loads)).hasSize(2);
+        assertThat(byUser("bob", loads)).hasSize(1);
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats().hits()).isEqualTo(2);
+        assertThat(cache.stats().misses()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidateDropsOnlyTheWrittenScopes() {
+        Expense coffee = repository.save(expense(null, "alice", "Food", "1.00"));
+        repository.save(expense(null, "bob", "Travel", "2.00"));
+        byUser("alice", new AtomicInteger());
+        byUser("bob", new AtomicInteger());
+        byCategory("Food", new AtomicInteger());
+
+        cache.invalidate(coffee.getUserId(), coffee.getCategory());
+
+        assertThat(cache.stats().invalidations()).isEqualTo(2);
+        assertThat(cache.stats().entries()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesOverTheWeightBudget() {
+        // 16 segments of 10 rows each; a 6-row result leaves room for one per segment
+        ExpenseResultCache small = new ExpenseResultCache(repository.changeCounters(), 160);
+        for (int i = 0; i < 200; i++) {
+            small.get(ResultCacheKey.of("test", "user-" + i, null), () -> List.of(1, 2, 3, 4, 5), List::size);
+        }
+
+        ResultCacheStats stats = small.stats();
+        assertThat(stats.weight()).isLessThanOrEqualTo(160);
+        assertThat(stats.entries() + stats.evictions()).isEqualTo(200);
+        assertThat(stats.evictions()).isPositive();
+    }
+
+    @Test
+    void neverServesAResultOlderThanACompletedWrite() throws Exception {
+        // Each writer owns a user and checks every write is visible through the cache once it returns,
+        // while the other writers keep invalidating shared scopes
+        int writers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                String userId = "user-" + t;
+                results.add(pool.submit(() -> {
+                    long id = repository.save(expense(null, userId, "Food", "0")).getId();
+                    int stale = 0;
+                    for (int i = 1; i <= 2_000; i++) {
+                        int amount = i;
+                        repository.save(expense(id, userId, i % 2 == 0 ? "Food" : "Travel", Integer.toString(amount)));
+                        List<Expense> mine = cache.get(ResultCacheKey.of("test", userId, null),
+                                () -> repository.findByUserId(userId), List::size);
+                        List<Expense> all = cache.get(ResultCacheKey.of("test", null, null),
+                                repository::findAll, List::size);
+                        if (mine.get(0).getAmount().intValueExact() != amount
+                                || all.stream().noneMatch(expense -> expense.getAmount().intValueExact() == amount
+                                && expense.getUserId().equals(userId))) {
+                            stale++;
+                        }
+                    }
+                    return stale;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get()).isZero();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(cache.stats().hits() + cache.stats().misses()).isEqualTo(writers * 2_000 * 2L);
+    }
+
+    private List<Expense> byUser(String userId, AtomicInteger loads) {
+        return cache.get(ResultCacheKey.of("byUser", userId, null), () -> {
+            loads.incrementAndGet();
+            return repository.findByUserId(userId);
+        }, List::size);
+    }
+
+    private List<Expense> byCategory(String category, AtomicInteger loads) {
+        return cache.get(ResultCacheKey.of("byCategory", null, category), () -> {
+            loads.incrementAndGet();
+            return repository.findByCategory(category);
+        }, List::size);
+    }
+
+    private static Expense expense(Long id, String userId, String category, String amount) {
+        return new Expense(id, "test", new BigDecimal(amount), category, LocalDateTime.now(), userId);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.expense_ai_backend.categorize;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseCategorizerTest {
+
+    private final ExpenseCategorizer categorizer = new ExpenseCategorizer();
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(categorizer));
+
+    @Test
+    void predictsTheCategoryOfSimilarDescriptions() {
+        repository.save(expense(null, "Food", "Starbucks coffee"));
+        repository.save(expense(null, "Food", "Lunch at Chipotle"));
+        repository.save(expense(null, "Food", "Coffee and bagel"));
+        repository.save(expense(null, "Travel", "Uber ride to the airport"));
+        repository.save(expense(null, "Travel", "Delta flight tickets"));
+
+        CategoryPrediction coffee = categorizer.predict("Morning coffee");
+        CategoryPrediction ride = categorizer.predict("UBER to the office");
+
+        assertThat(coffee.category()).isEqualTo("Food");
+        assertThat(coffee.confidence() > 0.5).isTrue();
+        assertThat(ride.category()).isEqualTo("Travel");
+    }
+
+    @Test
+    void suggestionsAreRankedAndSumToOne() {
+        repository.save(expense(null, "Food", "Grocery run"));
+        repository.save(expense(null, "Home", "Grocery bags and cleaning supplies"));
+        repository.save(expense(null, "Travel", "Train ticket"));
+
+        List<CategoryPrediction> suggestions = categorizer.predict("grocery", 3);
+
+        assertThat(suggestions).hasSize(3);
+        assertThat(suggestions.get(0).confidence() >= suggestions.get(1).confidence()).isTrue();
+        assertThat(suggestions.get(1).confidence() >= suggestions.get(2).confidence()).isTrue();
+        double total = suggestions.stream().mapToDouble(CategoryPrediction::confidence).sum();
+        assertThat(Math.abs(total - 1) < 1e-9).isTrue();
+        assertThat(categorizer.predict("grocery", 1)).hasSize(1);
+    }
+
+    @Test
+    void relearnsOnUpdateAndForgetsOnDelete() {
+        Expense gym = repository.save(expense(null, "Health", "Gym membership"));
+        repository.save(expense(null, "Food", "Pizza"));
+
+        repository.save(gym.withCategory("Fitness"));
+
+        assertThat(categorizer.predict("gym").category()).isEqualTo("Fitness");
+        assertThat(categorizer.predict("gym", 5)).extracting(CategoryPrediction::category)
+                .containsExactly("Fitness", "Food");
+
+        repository.deleteById(gym.getId());
+
+        assertThat(categorizer.categoryCount()).isEqualTo(1);
+        assertThat(categorizer.predict("gym").category()).isEqualTo("Food");
+    }
+
+    @Test
+    void predictsNothingBeforeTraining() {
+        assertThat(categorizer.predict("anything")).isNull();
+        assertThat(categorizer.predict("anything", 3)).isEmpty();
+    }
+
+    private static Expense expense(Long id, String category, String description) {
+        return new Expense(id, description, new BigDecimal("1.00"), category, LocalDateTime.now(), "alice");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.expense_ai_backend.codec;
+
+import com.example.expense_ai_backend.dto.ExpenseResponseDTO;
+import com.example.expense_ai_backend.model.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseBinaryWriterTest {
+
+    @Test
+    void roundTripsThroughReader() throws IOException {
+        Expense small = new Expense(7L, "Café 🍕 €", new BigDecimal("-12.50"), "Food",
+                LocalDateTime.of(2026, 3, 1, 9, 5, 0, 120_000_000), "alice", 3L);
+        Expense big = new Expense(Long.MAX_VALUE, "", new BigDecimal("123456789012345678901234.5678"), "Travel",
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59), "bob", 0L);
+        Expense exponent = new Expense(9L, "x", new BigDecimal("1E+2"), "Misc", null, "carol", 1L);
+        Expense empty = new Expense(null, null, null, null, null, null, -1L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Minimum buffer, so records spill over several drains
+        ExpenseBinaryWriter writer = new ExpenseBinaryWriter(out, 1);
+        writer.writeHeader();
+        for (Expense expense : new Expense[]{small, big, exponent, empty}) {
+            writer.write(expense);
+        }
+        writer.writeEnd();
+        writer.flush();
+
+        ExpenseBinaryReader reader = new ExpenseBinaryReader(new ByteArrayInputStream(out.toByteArray()));
+        assertMatches(reader.next(), small);
+        assertMatches(reader.next(), big);
+        assertMatches(reader.next(), exponent);
+        assertMatches(reader.next(), empty);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsOtherStreams() {
+        assertThatThrownBy(() -> new ExpenseBinaryReader(new ByteArrayInputStream("[{}]".getBytes())))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not an expense stream");
+    }
+
+    @Test
+    void rejectsTruncatedStreams() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExpenseBinaryWriter writer = new ExpenseBinaryWriter(out);
+        writer.writeHeader();
+        writer.write(new Expense(1L, "Coffee", new BigDecimal("3.20"), "Food", LocalDateTime.of(2026, 1, 1, 8, 0), "alice", 0L));
+        writer.flush();
+        byte[] bytes = out.toByteArray();
+
+        ExpenseBinaryReader reader = new ExpenseBinaryReader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)));
+        assertThatThrownBy(reader::next).isInstanceOf(EOFException.class);
+    }
+
+    private static void assertMatches(ExpenseResponseDTO actual, Expense expected) {
+        assertThat(actual.getId()).isEqualTo(expected.getId());
+        assertThat(actual.getDescription()).isEqualTo(expected.getDescription());
+        // Same scale, not just the same value
+        assertThat(actual.getAmount()).isEqualTo(expected.getAmount());
+        assertThat(actual.getCategory()).isEqualTo(expected.getCategory());
+        assertThat(actual.getDate()).isEqualTo(expected.getDate());
+        assertThat(actual.getUserId()).isEqualTo(expected.getUserId());
+        assertThat(actual.getVersion()).isEqualTo(expected.getVersion());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.expense_ai_backend.codec;
+
+import com.example.expense_ai_backend.model.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseJsonWriterTest {
+
+    @Test
+    void writesFieldsAsJacksonWould() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExpenseJsonWriter writer = new ExpenseJsonWriter(out);
+        writer.write(new Expense(7L, "Café \"lunch\"\n\t\u0001 🍕", new BigDecimal("1E+2"), "Food",
+                LocalDateTime.of(2026, 3, 1, 9, 5, 0, 120_000_000), "alice", 3L));
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":7,\"description\":\"Café \\\"lunch\\\"\\n\\t\\u0001 🍕\",\"amount\":1E+2,"
+                        + "\"category\":\"Food\",\"date\":\"2026-03-01T09:05:00.12\",\"userId\":\"alice\",\"version\":3}");
+    }
+
+    @Test
+    void writesNullFieldsAsNull() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExpenseJsonWriter writer = new ExpenseJsonWriter(out);
+        writer.write(new Expense(null, null, null, null, null, null, 0L));
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":null,\"description\":null,\"amount\":null,\"category\":null,\"date\":null,"
+                        + "\"userId\":null,\"version\":0}");
+    }
+
+    @Test
+    void separatesArrayElementsAcrossBufferDrains() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Minimum buffer, so every expense spills over several drains
+        ExpenseJsonWriter writer = new ExpenseJsonWriter(out, 1);
+        writer.beginArray();
+        writer.write(new Expense(1L, "a", new BigDecimal("-2.50"), "x", LocalDateTime.of(2026, 1, 2, 3, 4, 5), "u", -1L));
+        writer.write(new Expense(2L, "b", BigDecimal.ZERO, "y", LocalDateTime.of(999, 12, 31, 23, 59, 59, 1), "v", Long.MIN_VALUE));
+        writer.endArray();
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "[{\"id\":1,\"description\":\"a\",\"amount\":-2.50,\"category\":\"x\",\"date\":\"2026-01-02T03:04:05\","
+                        + "\"userId\":\"u\",\"version\":-1},"
+                        + "{\"id\":2,\"description\":\"b\",\"amount\":0,\"category\":\"y\",\"date\":\"0999-12-31T23:59:59.000000001\","
+                        + "\"userId\":\"v\",\"version\":-9223372036854775808}]");
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.expense_ai_backend.export;
+
+import com.example.expense_ai_backend.ingest.CsvExpenseRowReader;
+import com.example.expense_ai_backend.ingest.ExpenseImportRow;
+import com.example.expense_ai_backend.model.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvExpenseRowWriterTest {
+
+    @Test
+    void exportReadsBackThroughImport() throws IOException {
+        LocalDateTime date = LocalDateTime.of(2026, 3, 1, 12, 30, 15);
+        StringWriter out = new StringWriter();
+        CsvExpenseRowWriter writer = new CsvExpenseRowWriter(out);
+        writer.writeHeader();
+        writer.write(new Expense(7L, "Dinner, \"team\"\nsecond line", new BigDecimal("1E+2"),
+                "Food", date, "alice", 1L));
+        writer.flush();
+
+        CsvExpenseRowReader reader = new CsvExpenseRowReader(new StringReader(out.toString()));
+        ExpenseImportRow row = reader.next();
+
+        assertThat(row.error()).isNull();
+        assertThat(row.expense().getDescription()).isEqualTo("Dinner, \"team\"\nsecond line");
+        assertThat(row.expense().getAmount()).isEqualByComparingTo("100");
+        assertThat(row.expense().getDate()).isEqualTo(date);
+        assertThat(reader.next()).isNull();
+        assertThat(out.toString()).contains(",100,");
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.expense_ai_backend.feed;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseChangeListener;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseChangeFeedTest {
+
+    private ExpenseChangeFeed feed = feed(16, 8, FeedOverflowPolicy.DISCONNECT);
+
+    private ExpenseRepository repository = new ExpenseRepository(List.of(feed));
+
+    @AfterEach
+    void closeFeed() {
+        feed.destroy();
+    }
+
+    @Test
+    void deliversAUsersChangesInWriteOrder() throws InterruptedException {
+        RecordingSink alice = new RecordingSink();
+        feed.register("alice", null, null, alice);
+
+        repository.save(expense(null, "bob", "Food", "1.00"));
+        Expense lunch = repository.save(expense(null, "alice", "Food", "12.00"));
+        repository.save(lunch.withAmount(new BigDecimal("14.00")));
+        repository.deleteById(lunch.getId());
+
+        assertThat(alice.next().type()).isEqualTo(ExpenseChangeType.CREATED);
+        ExpenseChangeEvent update = alice.next();
+        assertThat(update.type()).isEqualTo(ExpenseChangeType.UPDATED);
+        assertThat(update.expense().getAmount()).isEqualByComparingTo("14.00");
+        assertThat(alice.next().type()).isEqualTo(ExpenseChangeType.DELETED);
+        assertThat(alice.poll()).isNull();
+    }
+
+    @Test
+    void categorySubscribersSeeExpensesLeaveTheirCategory() throws InterruptedException {
+        RecordingSink food = new RecordingSink();
+        Expense taxi = repository.save(expense(null, "alice", "Food", "30.00"));
+        feed.register(null, "Food", null, food);
+
+        repository.save(taxi.withCategory("Travel"));
+        repository.save(expense(null, "alice", "Travel", "5.00"));
+
+        ExpenseChangeEvent moved = food.next();
+        assertThat(moved.type()).isEqualTo(ExpenseChangeType.UPDATED);
+        assertThat(moved.expense().getCategory()).isEqualTo("Travel");
+        assertThat(moved.previous().getCategory()).isEqualTo("Food");
+        assertThat(food.poll()).isNull();
+    }
+
+    @Test
+    void failedWritesPublishNothing() throws InterruptedException {
+        ExpenseChangeListener failing = new ExpenseChangeListener() {
+            @Override
+            public void onExpenseSaved(Expense previous, Expense current) {
+                if (current.getAmount().signum() < 0) {
+                    throw new IllegalStateException("rejected");
+                }
+            }
+        };
+        repository = new ExpenseRepository(List.of(feed, failing));
+        RecordingSink alice = new RecordingSink();
+        feed.register("alice", null, null, alice);
+
+        Expense lunch = repository.save(expense(null, "alice", "Food", "12.00"));
+        assertThatThrownBy(() -> repository.save(lunch.withAmount(new BigDecimal("-1.00"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.save(expense(null, "alice", "Food", "-2.00")))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(alice.next().type()).isEqualTo(ExpenseChangeType.CREATED);
+        assertThat(alice.poll()).isNull();
+    }
+
+    @Test
+    void resumesAfterTheLastEventSeen() throws InterruptedException {
+        RecordingSink first = new RecordingSink();
+        feed.register(null, null, null, first);
+        for (int i = 0; i < 3; i++) {
+            repository.save(expense(null, "alice", "Food", "1.00"));
+        }
+        first.next();
+        String lastSeen = first.ids.take();
+
+        RecordingSink resumed = new RecordingSink();
+        feed.register(null, null, lastSeen, resumed);
+        repository.save(expense(null, "alice", "Food", "2.00"));
+
+        assertThat(resumed.next().sequence()).isEqualTo(2L);
+        assertThat(resumed.next().sequence()).isEqualTo(3L);
+        assertThat(resumed.next().sequence()).isEqualTo(4L);
+        assertThat(resumed.poll()).isNull();
+    }
+
+    @Test
+    void resetsSubscribersThatCannotResume() throws InterruptedException {
+        RecordingSink first = new RecordingSink();
+        feed.register(null, null, null, first);
+        repository.save(expense(null, "alice", "Food", "1.00"));
+        first.next();
+        String firstId = first.ids.take();
+        // Push the first event out of the 16-event buffer
+        for (int i = 0; i < 20; i++) {
+            repository.save(expense(null, "bob", "Food", "1.00"));
+        }
+
+        RecordingSink tooOld = new RecordingSink();
+        feed.register(null, null, firstId, tooOld);
+        RecordingSink otherProcess = new RecordingSink();
+        feed.register(null, null, "previous-1", otherProcess);
+
+        assertThat(tooOld.next().type()).isEqualTo(ExpenseChangeType.RESET);
+        assertThat(otherProcess.next().type()).isEqualTo(ExpenseChangeType.RESET);
+    }
+
+    @Test
+    void disconnectsSubscribersThatFallBehind() throws InterruptedException {
+        RecordingSink slow = new RecordingSink();
+        slow.gate = new CountDownLatch(1);
+        feed.register(null, null, null, slow);
+
+        repository.save(expense(null, "alice", "Food", "1.00"));
+        slow.sending.await();
+        // With the first event stuck in flight, eight more fill the queue and the next overflows
+        for (int i = 0; i < 9; i++) {
+            repository.save(expense(null, "alice", "Food", "1.00"));
+        }
+
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(feed.overflowCount()).isEqualTo(1L);
+        slow.gate.countDown();
+    }
+
+    @Test
+    void dropPolicyReplacesTheBacklogWithAReset() throws InterruptedException {
+        feed.destroy();
+        feed = feed(16, 2, FeedOverflowPolicy.DROP);
+        repository = new ExpenseRepository(List.of(feed));
+        RecordingSink slow = new RecordingSink();
+        slow.gate = new CountDownLatch(1);
+        feed.register(null, null, null, slow);
+
+        repository.save(expense(null, "alice", "Food", "1.00"));
+        slow.sending.await();
+        for (int i = 0; i < 4; i++) {
+            repository.save(expense(null, "alice", "Food", "1.00"));
+        }
+        slow.gate.countDown();
+
+        // 1 was in flight, 2 and 3 were queued and dropped when 4 overflowed, then 5 was queued
+        assertThat(slow.next().sequence()).isEqualTo(1L);
+        ExpenseChangeEvent reset = slow.next();
+        assertThat(reset.type()).isEqualTo(ExpenseChangeType.RESET);
+        assertThat(reset.sequence()).isEqualTo(4L);
+        assertThat(slow.next().sequence()).isEqualTo(5L);
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+    }
+
+    private static ExpenseChangeFeed feed(int bufferSize, int queueCapacity, FeedOverflowPolicy policy) {
+        return new ExpenseChangeFeed(bufferSize, queueCapacity, policy, Duration.ofHours(1), Duration.ofMinutes(30),
+                2, false);
+    }
+
+    private static Expense expense(Long id, String userId, String category, String amount) {
+        return new Expense(id, "test", new BigDecimal(amount), category, LocalDateTime.now(), userId);
+    }
+
+    private static final class RecordingSink implements ExpenseChangeSink {
+
+        private final BlockingQueue<ExpenseChangeEvent> events = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final CountDownLatch sending = new CountDownLatch(1);
+        // When set, sends block until it opens, like a client that stopped reading
+        private volatile CountDownLatch gate;
+
+        @Override
+        public void send(String id, ExpenseChangeEvent event) {
+            sending.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            ids.add(id);
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        ExpenseChangeEvent next() throws InterruptedException {
+            ExpenseChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            return event;
+        }
+
+        ExpenseChangeEvent poll() throws InterruptedException {
+            return events.poll(100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.expense_ai_backend.idempotency;
+
+import com.example.expense_ai_backend.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final IdempotencyCache cache = new IdempotencyCache(1_000, Duration.ofMinutes(10), Duration.ofSeconds(5),
+            now::get);
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void replaysTheFirstResultWithoutRunningAgain() {
+        String first = cache.execute("key-1", "coffee", this::create);
+        String retry = cache.execute("key-1", "coffee", this::create);
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(runs.get()).isEqualTo(1L);
+        assertThat(cache.replayCount()).isEqualTo(1L);
+        assertThat(cache.execute("key-2", "coffee", this::create)).isEqualTo("created-2");
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> first = threads.submit(() -> cache.execute("key", "coffee", () -> {
+                running.countDown();
+                await(release);
+                return create();
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<String>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                duplicates.add(threads.submit(() -> cache.execute("key", "coffee", this::create)));
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("created-1");
+            for (Future<String> duplicate : duplicates) {
+                assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo("created-1");
+            }
+            assertThat(runs.get()).isEqualTo(1L);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void neitherAFullSegmentNorTheTtlDropsAPendingKey() throws Exception {
+        // One key per segment
+        IdempotencyCache small = new IdempotencyCache(16, Duration.ofMinutes(10), Duration.ofSeconds(5), now::get);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = threads.submit(() -> small.execute("key", "coffee", () -> {
+                running.countDown();
+                await(release);
+                return create();
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 0; i < 100; i++) {
+                small.execute("other-" + i, "coffee", () -> "done");
+            }
+            now.addAndGet(Duration.ofMinutes(11).toNanos());
+            small.execute("later", "coffee", () -> "done");
+
+            Future<String> duplicate = threads.submit(() -> small.execute("key", "coffee", this::create));
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("created-1");
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo("created-1");
+            assertThat(runs.get()).isEqualTo(1L);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void aDuplicateWaitingPastTheTimeoutGetsAConflict() throws Exception {
+        IdempotencyCache impatient = new IdempotencyCache(1_000, Duration.ofMinutes(10), Duration.ofMillis(50),
+                now::get);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = threads.submit(() -> impatient.execute("key", "coffee", () -> {
+                running.countDown();
+                await(release);
+                return create();
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> impatient.execute("key", "coffee", this::create))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("key");
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("created-1");
+            assertThat(impatient.execute("key", "coffee", this::create)).isEqualTo("created-1");
+            assertThat(runs.get()).isEqualTo(1L);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        cache.execute("key", "coffee", this::create);
+
+        assertThatThrownBy(() -> cache.execute("key", "taxi", this::create))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("key");
+        assertThat(runs.get()).isEqualTo(1L);
+    }
+
+    @Test
+    void forgetsFailedRequestsSoTheirRetryRuns() {
+        assertThatThrownBy(() -> cache.execute("key", "coffee", () -> {
+            throw new IllegalStateException("store unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.execute("key", "coffee", this::create)).isEqualTo("created-1");
+        assertThat(cache.replayCount()).isZero();
+    }
+
+    @Test
+    void expiresKeysAfterTheTtlAndBoundsTheirNumber() {
+        cache.execute("key", "coffee", this::create);
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThat(cache.execute("key", "coffee", this::create)).isEqualTo("created-2");
+
+        for (int i = 0; i < 5_000; i++) {
+            cache.execute("bulk-" + i, "coffee", this::create);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(1_000);
+    }
+
+    private String create() {
+        return "created-" + runs.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.expense_ai_backend.ingest;
+
+import com.example.expense_ai_backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvExpenseRowReaderTest {
+
+    @Test
+    void parsesQuotedFieldsAndReportsRowsByStartLine() throws IOException {
+        List<ExpenseImportRow> rows = readAll("﻿Date,Description,Amount,Category\r\n"
+                + "2026-01-02,\"Coffee, large\",4.50,Food\r\n"
+                + "2026-01-03T10:15,\"Two\nlines \"\"quoted\"\"\",12,Travel\n"
+                + "\n"
+                + "2026-01-04,Lunch,abc,Food\n"
+                + "2026-01-05,Short row\n"
+                + ",Taxi,20.00,Travel");
+
+        assertThat(rows).extracting(ExpenseImportRow::line).containsExactly(2L, 3L, 6L, 7L, 8L);
+        assertThat(rows.get(0).expense().getDescription()).isEqualTo("Coffee, large");
+        assertThat(rows.get(0).expense().getDate()).isEqualTo(LocalDateTime.of(2026, 1, 2, 0, 0));
+        assertThat(rows.get(1).expense().getDescription()).isEqualTo("Two\nlines \"quoted\"");
+        assertThat(rows.get(2).error()).isEqualTo("amount - Amount must be a number");
+        assertThat(rows.get(3).error()).isEqualTo("Expected 4 columns, got 2");
+        assertThat(rows.get(4).expense().getDate()).isNull();
+        assertThat(rows.get(4).expense().getAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void rejectsHeaderWithoutRequiredColumn() {
+        assertThatThrownBy(() -> readAll("description,amount\nCoffee,4.50\n"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("category");
+    }
+
+    private static List<ExpenseImportRow> readAll(String csv) throws IOException {
+        CsvExpenseRowReader reader = new CsvExpenseRowReader(new StringReader(csv));
+        List<ExpenseImportRow> rows = new ArrayList<>();
+        for (ExpenseImportRow row = reader.next(); row != null; row = reader.next()) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
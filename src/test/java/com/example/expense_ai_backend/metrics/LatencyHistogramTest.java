@@ -0,0 +1,63 @@
+package com.example.expense_ai_backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueWithinRelativeError() {
+        long[] values = {0, 1, 15, 16, 17, 1_000, 123_456, 987_654_321, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertThat(upper).isGreaterThanOrEqualTo(value);
+            assertThat((double) (upper - value)).isLessThanOrEqualTo(value * 0.0625 + 1);
+            if (bucket > 0) {
+                assertThat(LatencyHistogram.upperBound(bucket - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    void reportsQuantilesOfUniformLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(10_000);
+        assertThat(snapshot.maxNanos()).isEqualTo(10_000_000);
+        assertThat((double) snapshot.valueAt(0.5)).isCloseTo(5_000_000, within(5_000_000 * 0.0625));
+        assertThat((double) snapshot.valueAt(0.99)).isCloseTo(9_900_000, within(9_900_000 * 0.0625));
+        assertThat(snapshot.valueAt(0.999)).isLessThanOrEqualTo(snapshot.maxNanos());
+        assertThat(new LatencyHistogram().snapshot().valueAt(0.99)).isZero();
+    }
+
+    @Test
+    void concurrentRecordingLosesNoSamples() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(400_000);
+        assertThat(snapshot.totalNanos()).isEqualTo(4L * (99_999L * 100_000L / 2));
+        assertThat(snapshot.maxNanos()).isEqualTo(99_999);
+    }
+}
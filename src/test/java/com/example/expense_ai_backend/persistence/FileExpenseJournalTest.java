@@ -0,0 +1,155 @@
+package com.example.expense_ai_backend.persistence;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileExpenseJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<FileExpenseJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws InterruptedException {
+        for (FileExpenseJournal journal : journals) {
+            journal.destroy();
+        }
+    }
+
+    @Test
+    void recoversStoreAndIdGeneratorFromLog() throws Exception {
+        ExpenseRepository repository = open();
+        Expense coffee = repository.save(expense("Coffee", "4.50", "Food"));
+        Expense taxi = repository.save(expense("Taxi", "20.00", "Travel"));
+        repository.save(new Expense(coffee.getId(), "Coffee", new BigDecimal("5.25"), "Snacks",
+                coffee.getDate(), coffee.getUserId()));
+        repository.deleteById(taxi.getId());
+        restart();
+
+        ExpenseRepository recovered = open();
+
+        assertThat(recovered.count()).isEqualTo(1);
+        Expense restored = recovered.findById(coffee.getId()).orElseThrow();
+        assertThat(restored.getAmount()).isEqualByComparingTo("5.25");
+        assertThat(restored.getCategory()).isEqualTo("Snacks");
+        assertThat(restored.getDate()).isEqualTo(coffee.getDate());
+        assertThat(recovered.findByCategory("Snacks")).hasSize(1);
+        assertThat(recovered.save(expense("Lunch", "12.00", "Food")).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void dropsRecordTornByCrashMidAppend() throws Exception {
+        ExpenseRepository repository = open();
+        repository.save(expense("Coffee", "4.50", "Food"));
+        repository.save(expense("Taxi", "20.00", "Travel"));
+        restart();
+
+        // Cut the last record in half, as if the process died while writing it
+        Path segment = newestSegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 7);
+        }
+
+        ExpenseRepository recovered = open();
+        assertThat(recovered.count()).isEqualTo(1);
+        assertThat(recovered.findById(1L)).isPresent();
+
+        // The truncated log must stay readable for the next restart as well
+        recovered.save(expense("Lunch", "12.00", "Food"));
+        restart();
+        assertThat(open().count()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsRecordWithCorruptChecksum() throws Exception {
+        ExpenseRepository repository = open();
+        repository.save(expense("Coffee", "4.50", "Food"));
+        repository.save(expense("Taxi", "20.00", "Travel"));
+        restart();
+
+        Path segment = newestSegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        assertThat(open().count()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotTruncatesLogAndRecoversWithTail() throws Exception {
+        FileExpenseJournal journal = journal();
+        ExpenseRepository repository = new ExpenseRepository(List.of(), journal);
+        for (int i = 0; i < 100; i++) {
+            repository.save(expense("Item " + i, "1.00", i % 2 == 0 ? "Food" : "Travel"));
+        }
+        journal.checkpoint();
+        repository.deleteById(1L);
+        repository.save(expense("After snapshot", "3.00", "Rent"));
+        restart();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .anyMatch(name -> name.startsWith("snapshot-"))
+                    .noneMatch(name -> name.equals("wal-00000000000000000001.log"));
+        }
+
+        ExpenseRepository recovered = open();
+        assertThat(recovered.count()).isEqualTo(100);
+        assertThat(recovered.findById(1L)).isEmpty();
+        assertThat(recovered.findByCategory("Rent")).hasSize(1);
+        assertThat(recovered.save(expense("Next", "1.00", "Food")).getId()).isEqualTo(102L);
+    }
+
+    private ExpenseRepository open() {
+        return new ExpenseRepository(List.of(), journal());
+    }
+
+    private FileExpenseJournal journal() {
+        FileExpenseJournal journal = new FileExpenseJournal(directory, FsyncPolicy.ALWAYS,
+                Duration.ofMillis(1), Duration.ZERO);
+        journals.add(journal);
+        return journal;
+    }
+
+    /**
+     * Stops every open journal, flushing what was acknowledged, as a process exit would.
+     */
+    private void restart() throws InterruptedException {
+        closeJournals();
+        journals.clear();
+    }
+
+    private Path newestSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("wal-"))
+                    .filter(path -> path.toFile().length() > 0)
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+
+    private static Expense expense(String description, String amount, String category) {
+        return new Expense(null, description, new BigDecimal(amount), category,
+                LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_789), "default-user");
+    }
+}
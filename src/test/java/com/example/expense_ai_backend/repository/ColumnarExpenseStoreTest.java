@@ -0,0 +1,146 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.persistence.ExpenseJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarExpenseStoreTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_789);
+
+    private final ColumnarExpenseStore store = new ColumnarExpenseStore();
+
+    @Test
+    void roundTripsEveryField() {
+        store.compute(1L, previous -> expense(1L, "4.50", "Food", "alice", DATE));
+        store.compute(2L, previous -> expense(2L, "123456789012345678901234567890.12", "Rent", "bob", null));
+        store.compute(3L, previous -> expense(3L, null, null, null, DATE));
+
+        Expense coffee = store.get(1L);
+        assertThat(coffee.getAmount()).isEqualTo(new BigDecimal("4.50"));
+        assertThat(coffee.getDate()).isEqualTo(DATE);
+        assertThat(coffee.getCategory()).isEqualTo("Food");
+        assertThat(coffee.getUserId()).isEqualTo("alice");
+        assertThat(store.get(2L).getAmount()).isEqualTo(new BigDecimal("123456789012345678901234567890.12"));
+        assertThat(store.get(2L).getDate()).isNull();
+        assertThat(store.get(3L).getAmount()).isNull();
+        assertThat(store.get(3L).getCategory()).isNull();
+    }
+
+    @Test
+    void keepsDatesBeyondTheNanosecondRange() {
+        LocalDateTime early = LocalDateTime.of(1600, 1, 1, 8, 0);
+        LocalDateTime late = LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999);
+        store.compute(1L, previous -> expense(1L, "1.00", "Food", "alice", early));
+        store.compute(2L, previous -> expense(2L, "2.00", "Food", "alice", late));
+
+        assertThat(store.get(1L).getDate()).isEqualTo(early);
+        assertThat(store.get(2L).getDate()).isEqualTo(late);
+
+        store.compute(2L, previous -> expense(2L, "2.00", "Food", "alice", DATE));
+        assertThat(store.get(2L).getDate()).isEqualTo(DATE);
+    }
+
+    @Test
+    void aSlowRemappingDoesNotHoldUpWritesToOtherIds() throws Exception {
+        store.compute(1L, previous -> expense(1L, "1.00", "Food", "alice", DATE));
+        CountDownLatch inRemapping = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slow = new Thread(() -> store.compute(1L, previous -> {
+            inRemapping.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return previous.withAmount(new BigDecimal("9.00"));
+        }));
+        slow.start();
+        assertThat(inRemapping.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Id 1 is mid-remapping: other ids still write, and id 1 still reads its old row
+        store.compute(2L, previous -> expense(2L, "2.00", "Rent", "bob", DATE));
+        assertThat(store.get(2L).getAmount()).isEqualTo(new BigDecimal("2.00"));
+        assertThat(store.get(1L).getAmount()).isEqualTo(new BigDecimal("1.00"));
+
+        release.countDown();
+        slow.join();
+        assertThat(store.get(1L).getAmount()).isEqualTo(new BigDecimal("9.00"));
+    }
+
+    @Test
+    void removesAndReusesRows() {
+        store.compute(1L, previous -> expense(1L, "1.00", "Food", "alice", DATE));
+        store.compute(2L, previous -> expense(2L, "2.00", "Food", "alice", DATE));
+        store.compute(1L, previous -> null);
+        store.compute(3L, previous -> expense(3L, "3.00", "Rent", "bob", DATE));
+
+        assertThat(store.contains(1L)).isFalse();
+        assertThat(store.size()).isEqualTo(2);
+        List<Long> ids = new ArrayList<>();
+        store.forEach(expense -> ids.add(expense.getId()));
+        assertThat(ids).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void backsRepositoryIndexes() {
+        ExpenseRepository repository = new ExpenseRepository(List.of(), ExpenseJournal.NONE, store);
+        repository.save(new Expense(null, "Coffee", new BigDecimal("4.50"), "Food", DATE, "alice"));
+        repository.save(new Expense(null, "Rent", new BigDecimal("900.00"), "Rent", DATE, "alice"));
+
+        assertThat(repository.findByCategory("Food")).extracting(Expense::getDescription).containsExactly("Coffee");
+        repository.deleteAll();
+        assertThat(repository.count()).isZero();
+    }
+
+    /**
+     * Heap comparison against the map store; run with -Dexpense.footprint.rows=10000000 (and a
+     * large enough -Xmx) to reproduce the README figures.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "expense.footprint.rows", matches = "\\d+")
+    void usesLessHeapThanMapStore() {
+        int rows = Integer.getInteger("expense.footprint.rows");
+        long mapBytes = footprint(new MapExpenseStore(), rows);
+        long columnarBytes = footprint(new ColumnarExpenseStore(), rows);
+
+        System.out.printf("rows=%d map=%d B/row columnar=%d B/row%n", rows, mapBytes / rows, columnarBytes / rows);
+        assertThat(columnarBytes).isLessThan(mapBytes / 2);
+    }
+
+    private static long footprint(ExpenseStore target, int rows) {
+        String[] categories = {"Food", "Travel", "Rent", "Utilities", "Health", "Gifts", "Fun", "Other"};
+        long before = usedHeap();
+        for (int i = 1; i <= rows; i++) {
+            long id = i;
+            Expense expense = new Expense(id, "Expense " + (i % 1000), BigDecimal.valueOf(i % 10_000, 2),
+                    categories[i % categories.length], DATE.plusSeconds(i), "user-" + (i % 500));
+            target.compute(id, previous -> expense);
+        }
+        long used = usedHeap() - before;
+        assertThat(target.size()).isEqualTo(rows);
+        return used;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Expense expense(long id, String amount, String category, String userId, LocalDateTime date) {
+        return new Expense(id, "Item " + id, amount == null ? null : new BigDecimal(amount), category, date, userId);
+    }
+}
@@ -0,0 +1,575 @@
+package com.example.expense_ai_backend.repository;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.persistence.ExpenseJournal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseRepositoryTest {
+
+    private static final String[] USERS = {"alice", "bob", "carol"};
+    private static final String[] CATEGORIES = {"Food", "Travel", "Rent", "Fun"};
+
+    private final ExpenseRepository repository = new ExpenseRepository();
+
+    @Test
+    void lookupsReturnOnlyMatchingExpenses() {
+        repository.save(expense(null, "alice", "Food"));
+        repository.save(expense(null, "alice", "Travel"));
+        repository.save(expense(null, "bob", "Food"));
+
+        assertThat(repository.findByUserId("alice")).extracting(Expense::getCategory)
+                .containsExactly("Food", "Travel");
+        assertThat(repository.findByCategory("Food")).extracting(Expense::getUserId)
+                .containsExactly("alice", "bob");
+        assertThat(repository.findByUserIdAndCategory("bob", "Food")).hasSize(1);
+        assertThat(repository.findByUserId("nobody")).isEmpty();
+    }
+
+    @Test
+    void updateMovesExpenseToNewCategory() {
+        Expense saved = repository.save(expense(null, "alice", "Food"));
+
+        repository.save(expense(saved.getId(), "alice", "Travel"));
+
+        assertThat(repository.findByCategory("Food")).isEmpty();
+        assertThat(repository.findByCategory("Travel")).extracting(Expense::getId).containsExactly(saved.getId());
+        assertThat(repository.findByUserIdAndCategory("alice", "Food")).isEmpty();
+        assertThat(onlyShard().categoryIndex().keys()).containsExactly("Travel");
+    }
+
+    @Test
+    void deletesRemoveIndexEntries() {
+        Expense first = repository.save(expense(null, "alice", "Food"));
+        repository.save(expense(null, "bob", "Rent"));
+
+        assertThat(repository.deleteById(first.getId())).isTrue();
+        assertThat(repository.deleteById(first.getId())).isFalse();
+        assertThat(repository.findByUserId("alice")).isEmpty();
+
+        repository.deleteAll();
+        assertThat(repository.count()).isZero();
+        assertThat(onlyShard().userIndex().keyCount()).isZero();
+        assertThat(onlyShard().categoryIndex().keyCount()).isZero();
+        assertThat(onlyShard().userCategoryIndex().keyCount()).isZero();
+    }
+
+    @Test
+    void pagesResumeAfterCursorInIdAndDateOrder() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            // Dates run backwards so that date order is the reverse of id order
+            repository.save(new Expense(null, "test", BigDecimal.ONE, "Food", base.minusDays(i), "alice"));
+        }
+
+        List<Expense> firstPage = repository.findPage(ExpenseQuery.builder().userId("alice").limit(2).build());
+        assertThat(firstPage).extracting(Expense::getId).containsExactly(1L, 2L);
+
+        ExpenseCursor cursor = ExpenseCursor.of(ExpenseSort.ID, firstPage.get(1));
+        assertThat(repository.findPage(ExpenseQuery.builder().userId("alice").after(cursor).limit(2).build()))
+                .extracting(Expense::getId).containsExactly(3L, 4L);
+
+        List<Expense> byDate = repository.findPage(ExpenseQuery.builder()
+                .category("Food").sort(ExpenseSort.DATE).limit(3).build());
+        assertThat(byDate).extracting(Expense::getId).containsExactly(5L, 4L, 3L);
+
+        ExpenseCursor dateCursor = ExpenseCursor.of(ExpenseSort.DATE, byDate.get(2));
+        assertThat(repository.findPage(ExpenseQuery.builder()
+                .sort(ExpenseSort.DATE).descending(true).after(dateCursor).build()))
+                .extracting(Expense::getId).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void dateRangeIsHalfOpenInBothOrders() {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 0, 0);
+        for (int i = 0; i < 6; i++) {
+            repository.save(new Expense(null, "test", BigDecimal.ONE, "Food", base.plusDays(i), "alice"));
+        }
+
+        ExpenseQuery.ExpenseQueryBuilder march2to4 = ExpenseQuery.builder()
+                .userId("alice").from(base.plusDays(1)).to(base.plusDays(4));
+        assertThat(repository.findPage(march2to4.sort(ExpenseSort.DATE).build()))
+                .extracting(Expense::getId).containsExactly(2L, 3L, 4L);
+        assertThat(repository.findPage(march2to4.sort(ExpenseSort.DATE).descending(true).limit(2).build()))
+                .extracting(Expense::getId).containsExactly(4L, 3L);
+        assertThat(repository.findPage(march2to4.sort(ExpenseSort.ID).descending(false).limit(10).build()))
+                .extracting(Expense::getId).containsExactly(2L, 3L, 4L);
+        assertThat(repository.findPage(ExpenseQuery.builder().from(base.plusDays(4)).to(base.plusDays(4)).build()))
+                .isEmpty();
+    }
+
+    @Test
+    void datesBeyondTheNanosecondRangeStillOrderAndBoundRanges() {
+        LocalDateTime[] dates = {LocalDateTime.of(1600, 1, 1, 0, 0), LocalDateTime.of(2026, 3, 1, 0, 0),
+                LocalDateTime.of(2300, 1, 1, 0, 0), LocalDateTime.of(1500, 6, 1, 0, 0),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999)};
+        for (LocalDateTime date : dates) {
+            repository.save(new Expense(null, "test", BigDecimal.ONE, "Food", date, "alice"));
+        }
+
+        // Both ends clamp rather than wrap; past the range, ties fall back to id order
+        assertThat(repository.findPage(ExpenseQuery.builder().sort(ExpenseSort.DATE).build()))
+                .extracting(Expense::getId).containsExactly(1L, 4L, 2L, 3L, 5L);
+        assertThat(repository.findPage(ExpenseQuery.builder()
+                .from(LocalDateTime.of(2000, 1, 1, 0, 0)).to(LocalDateTime.MAX).build()))
+                .extracting(Expense::getId).containsExactly(2L, 3L, 5L);
+        assertThat(repository.findPage(ExpenseQuery.builder()
+                .from(LocalDateTime.MIN).to(LocalDateTime.of(2000, 1, 1, 0, 0)).build()))
+                .extracting(Expense::getId).containsExactly(1L, 4L);
+        assertThat(ExpenseDateKey.timestampOf(LocalDateTime.MIN)).isEqualTo(ExpenseDateKey.BEFORE_RANGE);
+        assertThat(ExpenseDateKey.timestampOf(LocalDateTime.MAX)).isEqualTo(ExpenseDateKey.AFTER_RANGE);
+        assertThat(ExpenseDateKey.upperBoundOf(LocalDateTime.MAX)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void dateRangeFollowsUpdatesAndDeletes() {
+        LocalDateTime march = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime april = march.plusMonths(1);
+        for (int i = 0; i < 6; i++) {
+            repository.save(new Expense(null, "test", BigDecimal.ONE, "Food", march.plusDays(i), i % 2 == 0 ? "alice" : "bob"));
+        }
+        ExpenseQuery.ExpenseQueryBuilder aliceInMarch = ExpenseQuery.builder().userId("alice").from(march).to(april);
+
+        // Id order over a range pages with the usual cursor
+        List<Expense> first = repository.findPage(aliceInMarch.limit(2).build());
+        assertThat(first).extracting(Expense::getId).containsExactly(1L, 3L);
+        assertThat(repository.findPage(aliceInMarch.after(ExpenseCursor.of(ExpenseSort.ID, first.get(1))).build()))
+                .extracting(Expense::getId).containsExactly(5L);
+        assertThat(repository.findPage(aliceInMarch.after(null).descending(true).limit(2).build()))
+                .extracting(Expense::getId).containsExactly(5L, 3L);
+
+        repository.save(new Expense(3L, "moved", BigDecimal.ONE, "Food", april.plusDays(1), "alice"));
+        repository.deleteById(5L);
+
+        assertThat(repository.findPage(aliceInMarch.descending(false).limit(10).build()))
+                .extracting(Expense::getId).containsExactly(1L);
+        assertThat(repository.findPage(ExpenseQuery.builder().userId("alice").from(april).sort(ExpenseSort.DATE).build()))
+                .extracting(Expense::getId).containsExactly(3L);
+    }
+
+    @Test
+    void indexesNeverDriftUnderConcurrentWriters() throws Exception {
+        assertIndexesSurviveConcurrentWriters(repository);
+    }
+
+    @Test
+    void shardedIndexesNeverDriftUnderConcurrentWriters() throws Exception {
+        assertIndexesSurviveConcurrentWriters(
+                new ExpenseRepository(List.of(), ExpenseJournal.NONE, MapExpenseStore::new, 4));
+    }
+
+    @Test
+    void columnarIndexesNeverDriftUnderConcurrentWriters() throws Exception {
+        assertIndexesSurviveConcurrentWriters(
+                new ExpenseRepository(List.of(), ExpenseJournal.NONE, ColumnarExpenseStore::new, 1));
+    }
+
+    @Test
+    void listingsOnlyReturnRowsMatchingTheFilterUnderConcurrentUpdates() throws Exception {
+        List<Long> saved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            saved.add(repository.save(expense(null, USERS[i % USERS.length], CATEGORIES[i % CATEGORIES.length])).getId());
+        }
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        repository.save(expense(saved.get(random.nextInt(saved.size())),
+                                USERS[random.nextInt(USERS.length)], CATEGORIES[random.nextInt(CATEGORIES.length)]));
+                    }
+                }));
+            }
+            for (int t = 0; t < 3; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 5_000; i++) {
+                        String userId = USERS[random.nextInt(USERS.length)];
+                        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                        assertThat(repository.findByUserId(userId))
+                                .allMatch(expense -> userId.equals(expense.getUserId()));
+                        assertThat(repository.findByCategory(category))
+                                .allMatch(expense -> category.equals(expense.getCategory()));
+                        assertThat(repository.findByUserIdAndCategory(userId, category)).allMatch(expense ->
+                                userId.equals(expense.getUserId()) && category.equals(expense.getCategory()));
+                        ExpenseQuery.ExpenseQueryBuilder query = ExpenseQuery.builder().userId(userId)
+                                .category(category).sort(i % 2 == 0 ? ExpenseSort.ID : ExpenseSort.DATE).limit(50);
+                        if (i % 4 < 2) {
+                            query.from(from);
+                        }
+                        assertThat(repository.findPage(query.build())).allMatch(expense ->
+                                userId.equals(expense.getUserId()) && category.equals(expense.getCategory()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void shardsNumberAndHoldTheirUsersExpenses() {
+        ExpenseRepository sharded = new ExpenseRepository(List.of(), ExpenseJournal.NONE, MapExpenseStore::new, 4);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 3_000; i++) {
+            ids.add(sharded.save(expense(null, "user-" + (i % 50), CATEGORIES[i % CATEGORIES.length])).getId());
+        }
+
+        assertThat(ids).hasSize(3_000);
+        Map<String, Set<Integer>> shardsByUser = new HashMap<>();
+        for (ExpenseShard shard : sharded.shards()) {
+            for (Expense expense : shard.findAll()) {
+                assertThat(ExpenseShard.shardOf(expense.getId(), 4)).isEqualTo(shard.index());
+                shardsByUser.computeIfAbsent(expense.getUserId(), user -> new HashSet<>()).add(shard.index());
+            }
+        }
+        // Every user lives in exactly one shard, and the users are spread over all of them
+        assertThat(shardsByUser.values().stream().allMatch(shards -> shards.size() == 1)).isTrue();
+        assertThat(shardsByUser.values().stream().flatMap(Set::stream).distinct().count()).isEqualTo(4L);
+        assertThat(sharded.count()).isEqualTo(3_000);
+    }
+
+    @Test
+    void shardedListingsMatchAScanOfEveryShard() {
+        ExpenseRepository sharded = new ExpenseRepository(List.of(), ExpenseJournal.NONE, MapExpenseStore::new, 4);
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 0, 0);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(sharded.save(new Expense(null, "test", BigDecimal.ONE, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    base.plusHours(random.nextInt(24 * 60)), "user-" + random.nextInt(20))).getId());
+        }
+        // Hand some expenses to other users, so those users now have rows outside their own shard
+        for (int i = 0; i < 20; i++) {
+            Expense moved = sharded.findById(ids.get(random.nextInt(ids.size()))).orElseThrow();
+            sharded.save(moved.withUserId("user-" + random.nextInt(20)));
+        }
+        List<Expense> all = sharded.findAll();
+
+        for (int u = 0; u < 20; u++) {
+            String userId = "user-" + u;
+            assertThat(sharded.findByUserId(userId)).isEqualTo(scan(all, userId, null, ExpenseSort.ID, false));
+            assertThat(sharded.findByUserIdAndCategory(userId, "Food"))
+                    .isEqualTo(scan(all, userId, "Food", ExpenseSort.ID, false));
+        }
+        assertThat(sharded.findByCategory("Rent")).isEqualTo(scan(all, null, "Rent", ExpenseSort.ID, false));
+
+        for (ExpenseSort sort : ExpenseSort.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                List<Expense> expected = scan(all, null, "Travel", sort, descending);
+                List<Expense> paged = new ArrayList<>();
+                ExpenseCursor cursor = null;
+                List<Expense> page;
+                do {
+                    page = sharded.findPage(ExpenseQuery.builder().category("Travel").sort(sort)
+                            .descending(descending).after(cursor).limit(7).build());
+                    paged.addAll(page);
+                    cursor = page.isEmpty() ? null : ExpenseCursor.of(sort, page.get(page.size() - 1));
+                } while (page.size() == 7);
+                assertThat(paged).isEqualTo(expected);
+            }
+        }
+    }
+
+    private static void assertIndexesSurviveConcurrentWriters(ExpenseRepository repository) throws Exception {
+        int ids = 200;
+        List<Long> saved = new ArrayList<>();
+        for (int i = 0; i < ids; i++) {
+            saved.add(repository.save(expense(null, USERS[i % USERS.length], CATEGORIES[i % CATEGORIES.length])).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        long id = saved.get(random.nextInt(ids));
+                        int op = random.nextInt(10);
+                        if (op < 6) {
+                            repository.save(expense(id, USERS[random.nextInt(USERS.length)],
+                                    CATEGORIES[random.nextInt(CATEGORIES.length)]));
+                        } else if (op < 9) {
+                            repository.deleteById(id);
+                        } else {
+                            repository.findByUserIdAndCategory(USERS[0], CATEGORIES[0]);
+                        }
+                    }
+                }));
+            }
+            futures.add(pool.submit(repository::deleteAll));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (ExpenseShard shard : repository.shards()) {
+            List<Expense> all = shard.findAll();
+            assertIndexMatches(shard.userIndex(), all, Expense::getUserId);
+            assertIndexMatches(shard.categoryIndex(), all, Expense::getCategory);
+            assertIndexMatches(shard.userCategoryIndex(), all,
+                    expense -> new UserCategoryKey(expense.getUserId(), expense.getCategory()));
+        }
+        for (String userId : USERS) {
+            assertThat(repository.findByUserId(userId)).isEqualTo(scan(repository.findAll(), userId, null, ExpenseSort.ID, false));
+        }
+    }
+
+    private ExpenseShard onlyShard() {
+        return repository.shards().get(0);
+    }
+
+    /**
+     * Brute-force listing: filter, then sort by the requested order
+     */
+    private static List<Expense> scan(List<Expense> all, String userId, String category, ExpenseSort sort,
+                                      boolean descending) {
+        Comparator<Expense> order = sort == ExpenseSort.DATE ?
+                Comparator.comparing(Expense::getDate).thenComparing(Expense::getId) :
+                Comparator.comparing(Expense::getId);
+        return all.stream()
+                .filter(expense -> userId == null || userId.equals(expense.getUserId()))
+                .filter(expense -> category == null || category.equals(expense.getCategory()))
+                .sorted(descending ? order.reversed() : order)
+                .toList();
+    }
+
+    @Test
+    void compareAndSaveOnlyReplacesTheExpectedVersion() {
+        Expense saved = repository.save(expense(null, "alice", "Food"));
+        assertThat(saved.getVersion()).isEqualTo(1);
+
+        Expense moved = repository.compareAndSave(saved.withCategory("Travel"), 1).orElseThrow();
+        assertThat(moved.getVersion()).isEqualTo(2);
+        assertThat(repository.compareAndSave(saved.withCategory("Rent"), 1)).isEmpty();
+        assertThat(repository.findByCategory("Rent")).isEmpty();
+
+        assertThat(repository.compareAndDelete(saved.getId(), 1)).isFalse();
+        assertThat(repository.compareAndDelete(saved.getId(), 2)).isTrue();
+        assertThat(repository.compareAndSave(moved, 2)).isEmpty();
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void aFailingListenerLeavesStoreIndexesAndJournalAsBefore() {
+        List<String> journaled = new ArrayList<>();
+        long[] inFlight = new long[1];
+        ExpenseJournal journal = new ExpenseJournal() {
+            @Override
+            public long recover(Consumer<Expense> saves, LongConsumer deletes) {
+                return 0;
+            }
+
+            @Override
+            public void start(LongSupplier nextId, Iterable<Expense> expenses) {
+            }
+
+            @Override
+            public long appendSave(Expense expense) {
+                journaled.add("save " + expense.getCategory());
+                inFlight[0]++;
+                return journaled.size();
+            }
+
+            @Override
+            public long appendDelete(long id) {
+                journaled.add("delete " + id);
+                inFlight[0]++;
+                return journaled.size();
+            }
+
+            @Override
+            public void complete(long ticket) {
+                if (ticket != 0) {
+                    inFlight[0]--;
+                }
+            }
+        };
+        Map<String, Integer> perCategory = new HashMap<>();
+        ExpenseChangeListener counting = new ExpenseChangeListener() {
+            @Override
+            public void onExpenseSaved(Expense previous, Expense current) {
+                if (previous != null) {
+                    perCategory.merge(previous.getCategory(), -1, Integer::sum);
+                }
+                perCategory.merge(current.getCategory(), 1, Integer::sum);
+            }
+
+            @Override
+            public void onExpenseDeleted(Expense removed) {
+                perCategory.merge(removed.getCategory(), -1, Integer::sum);
+            }
+        };
+        ExpenseChangeListener failing = new ExpenseChangeListener() {
+            @Override
+            public void onExpenseSaved(Expense previous, Expense current) {
+                if ("Broken".equals(current.getCategory())) {
+                    throw new IllegalStateException("listener failed");
+                }
+            }
+
+            @Override
+            public void onExpenseDeleted(Expense removed) {
+                if ("Food".equals(removed.getCategory())) {
+                    throw new IllegalStateException("listener failed");
+                }
+            }
+        };
+        ExpenseRepository failingRepository = new ExpenseRepository(List.of(counting, failing), journal);
+        Expense saved = failingRepository.save(expense(null, "alice", "Food"));
+
+        for (Runnable write : List.<Runnable>of(
+                () -> failingRepository.save(expense(null, "alice", "Broken")),
+                () -> failingRepository.save(saved.withCategory("Broken")),
+                () -> failingRepository.saveAll(List.of(expense(null, "bob", "Travel"), expense(null, "bob", "Broken"))),
+                () -> failingRepository.deleteById(saved.getId()))) {
+            try {
+                write.run();
+            } catch (IllegalStateException expected) {
+                continue;
+            }
+            throw new AssertionError("write should have failed");
+        }
+
+        // Only the successful writes were logged, and every logged write was completed
+        assertThat(journaled).containsExactly("save Food", "save Travel");
+        assertThat(inFlight[0]).isEqualTo(0L);
+        assertThat(failingRepository.findById(saved.getId()).orElseThrow()).isEqualTo(saved);
+        assertThat(failingRepository.findByCategory("Broken")).isEmpty();
+        assertThat(failingRepository.findByCategory("Food")).containsExactly(saved);
+        assertThat(failingRepository.findByUserId("bob")).extracting(Expense::getCategory).containsExactly("Travel");
+        assertThat(perCategory).isEqualTo(Map.of("Food", 1, "Travel", 1, "Broken", 0));
+    }
+
+    @Test
+    void changeCountersMoveOnlyForTheScopesAWriteTouches() {
+        ExpenseChangeCounters counters = repository.changeCounters();
+        Expense coffee = repository.save(expense(null, "alice", "Food"));
+        long global = counters.global();
+        long alice = counters.user("alice");
+        long food = counters.category("Food");
+
+        repository.save(expense(null, "bob", "Travel"));
+        assertThat(counters.global()).isGreaterThan(global);
+        assertThat(counters.user("alice")).isEqualTo(alice);
+        assertThat(counters.category("Food")).isEqualTo(food);
+
+        // Moving an expense between categories changes both
+        long travel = counters.category("Travel");
+        repository.save(coffee.withCategory("Travel"));
+        assertThat(counters.category("Food")).isGreaterThan(food);
+        assertThat(counters.category("Travel")).isGreaterThan(travel);
+        assertThat(counters.user("alice")).isGreaterThan(alice);
+
+        // A rejected optimistic write changes nothing
+        long before = counters.global();
+        assertThat(repository.compareAndSave(coffee.withCategory("Rent"), coffee.getVersion())).isEmpty();
+        assertThat(repository.compareAndDelete(coffee.getId(), coffee.getVersion())).isFalse();
+        assertThat(counters.global()).isEqualTo(before);
+        assertThat(counters.category("Rent")).isZero();
+
+        repository.deleteById(coffee.getId());
+        assertThat(counters.global()).isGreaterThan(before);
+    }
+
+    @Test
+    void optimisticUpdatesNeitherTearNorLoseWritesUnderContention() throws Exception {
+        // Every field encodes the same counter, so a torn record shows up as fields that disagree
+        long id = repository.save(counter(null, 0)).getId();
+        int writers = 8;
+        int incrementsPerWriter = 5_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                writes.add(pool.submit(() -> {
+                    for (int i = 0; i < incrementsPerWriter; i++) {
+                        while (true) {
+                            Expense current = repository.findById(id).orElseThrow();
+                            long next = current.getAmount().longValueExact() + 1;
+                            if (repository.compareAndSave(counter(id, next), current.getVersion()).isPresent()) {
+                                break;
+                            }
+                        }
+                    }
+                }));
+            }
+            List<Future<Long>> reads = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                reads.add(pool.submit(() -> {
+                    long torn = 0;
+                    while (!writes.stream().allMatch(Future::isDone)) {
+                        Expense seen = repository.findById(id).orElseThrow();
+                        long value = seen.getAmount().longValueExact();
+                        if (!seen.getCategory().equals("c" + value) || !seen.getDescription().equals("d" + value)
+                                || seen.getVersion() != value + 1) {
+                            torn++;
+                        }
+                    }
+                    return torn;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+            for (Future<Long> read : reads) {
+                assertThat(read.get()).isZero();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Expense last = repository.findById(id).orElseThrow();
+        assertThat(last.getAmount().longValueExact()).isEqualTo((long) writers * incrementsPerWriter);
+        assertThat(last.getVersion()).isEqualTo((long) writers * incrementsPerWriter + 1);
+    }
+
+    private static <K> void assertIndexMatches(ExpenseIndex<K> index, List<Expense> all, Function<Expense, K> keyOf) {
+        Map<K, Set<Long>> expected = all.stream()
+                .collect(Collectors.groupingBy(keyOf, Collectors.mapping(Expense::getId, Collectors.toSet())));
+        Map<K, Set<Long>> actual = new HashMap<>();
+        for (K key : index.keys()) {
+            actual.put(key, new HashSet<>(index.ids(key)));
+        }
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static Expense expense(Long id, String userId, String category) {
+        return new Expense(id, "test", new BigDecimal("10.00"), category, LocalDateTime.now(), userId);
+    }
+
+    private static Expense counter(Long id, long value) {
+        return new Expense(id, "d" + value, BigDecimal.valueOf(value), "c" + value, LocalDateTime.now(), "alice");
+    }
+}
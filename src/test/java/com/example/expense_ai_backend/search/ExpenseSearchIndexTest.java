@@ -0,0 +1,123 @@
+package com.example.expense_ai_backend.search;
+
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseSearchIndexTest {
+
+    private final ExpenseSearchIndex index = new ExpenseSearchIndex();
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(index));
+
+    @Test
+    void matchesWordPrefixesIgnoringCaseAndAccents() {
+        Expense coffee = repository.save(expense(null, "alice", "Food", "Café latte at Starbucks"));
+        Expense eats = repository.save(expense(null, "alice", "Food", "UberEats order"));
+        Expense ride = repository.save(expense(null, "alice", "Travel", "Uber ride home"));
+
+        assertThat(index.search("cafe", null, null, 10)).containsExactly(coffee.getId());
+        assertThat(index.search("STAR lat", null, null, 10)).containsExactly(coffee.getId());
+        assertThat(index.search("uber", null, null, 10)).containsExactly(ride.getId(), eats.getId());
+        assertThat(index.search("uber ride", null, null, 10)).containsExactly(ride.getId());
+        // Terms must begin a word, not appear inside one
+        assertThat(index.search("eats", null, null, 10)).isEmpty();
+        assertThat(index.search("  ", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void termsShorterThanTheMinimumPrefixMatchNothing() {
+        repository.save(expense(null, "alice", "Food", "A coffee at Blue Bottle"));
+
+        assertThat(index.search("a", null, null, 10)).isEmpty();
+        assertThat(index.search("b", null, null, 10)).isEmpty();
+        assertThat(index.search("bl", null, null, 10)).hasSize(1);
+    }
+
+    @Test
+    void filtersByUserAndCategory() {
+        Expense alice = repository.save(expense(null, "alice", "Food", "Team lunch"));
+        Expense bob = repository.save(expense(null, "bob", "Food", "Lunch meeting"));
+        Expense travel = repository.save(expense(null, "bob", "Travel", "Lunch on the train"));
+
+        assertThat(index.search("lunch", "alice", null, 10)).containsExactly(alice.getId());
+        assertThat(index.search("lunch", null, "Travel", 10)).containsExactly(travel.getId());
+        assertThat(index.search("lunch", "bob", "Food", 10)).containsExactly(bob.getId());
+        assertThat(index.search("lunch", "carol", null, 10)).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        Expense expense = repository.save(expense(null, "alice", "Food", "Pizza night"));
+
+        repository.save(expense.withDescription("Sushi night").withCategory("Dining"));
+
+        assertThat(index.search("pizza", null, null, 10)).isEmpty();
+        assertThat(index.search("sushi night", null, "Dining", 10)).containsExactly(expense.getId());
+        assertThat(index.search("night", null, "Food", 10)).isEmpty();
+
+        repository.deleteById(expense.getId());
+
+        assertThat(index.search("night", null, null, 10)).isEmpty();
+        // Keys whose last id is gone are dropped rather than left empty
+        assertThat(index.keyCount()).isZero();
+    }
+
+    @Test
+    void returnsNewestMatchesFirstUpToTheLimit() {
+        long[] ids = new long[5000];
+        for (int i = 0; i < ids.length; i++) {
+            String description = i % 3 == 0 ? "Grocery run " + i : "Fuel " + i;
+            ids[i] = repository.save(expense(null, "alice", "Food", description)).getId();
+        }
+
+        long[] hits = index.search("groc", "alice", "Food", 3);
+
+        assertThat(hits).containsExactly(ids[4998], ids[4995], ids[4992]);
+    }
+
+    @Test
+    void longTermsAreRecheckedAgainstTheDescription() {
+        String longWord = "supercalifragilistic";
+
+        assertThat(ExpenseSearchIndex.matches("Supercalifragilistic snack", longWord)).isTrue();
+        assertThat(ExpenseSearchIndex.matches("Supercalifornia snack", longWord)).isFalse();
+        assertThat(ExpenseSearchIndex.matches("Café", "CAFE")).isTrue();
+    }
+
+    @Test
+    void compactSetAgreesWithATreeSet() {
+        CompactLongSet set = new CompactLongSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+        // Dense enough for chunks to become bitmaps, then thinned until they turn back into arrays
+        for (int i = 0; i < 20_000; i++) {
+            long value = random.nextInt(3 * 65536);
+            assertThat(set.add(value)).isEqualTo(expected.add(value));
+        }
+        for (int i = 0; i < 400_000; i++) {
+            long value = random.nextInt(3 * 65536);
+            assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextInt(4 * 65536);
+            Long floor = expected.floor(value);
+            assertThat(set.floor(value)).isEqualTo(floor == null ? CompactLongSet.NONE : floor);
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+
+    private static Expense expense(Long id, String userId, String category, String description) {
+        return new Expense(id, description, new BigDecimal("1.00"), category, LocalDateTime.now(), userId);
+    }
+}
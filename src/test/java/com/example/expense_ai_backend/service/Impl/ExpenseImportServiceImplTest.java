@@ -0,0 +1,54 @@
+package com.example.expense_ai_backend.service.Impl;
+
+import com.example.expense_ai_backend.categorize.ExpenseCategorizer;
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.ExpenseImportErrorDTO;
+import com.example.expense_ai_backend.dto.ExpenseImportResultDTO;
+import com.example.expense_ai_backend.ingest.ImportFormat;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseImportServiceImplTest {
+
+    private final ExpenseCategorizer categorizer = new ExpenseCategorizer();
+
+    private final ExpenseRepository repository = new ExpenseRepository(List.of(categorizer));
+
+    private final ExpenseImportServiceImpl importService = new ExpenseImportServiceImpl(repository, categorizer,
+            Validation.buildDefaultValidatorFactory().getValidator(), JsonMapper.builder().build());
+
+    @Test
+    void rowsWithoutACategoryAreRejectedUntilOneCanBePredicted() {
+        ExpenseImportResultDTO first = importService.importExpenses(ImportFormat.CSV, new StringReader(
+                "Date,Description,Amount,Category\n"
+                        + "2026-01-02,Morning coffee,4.50,\n"));
+
+        assertThat(first.getImported()).isEqualTo(0L);
+        assertThat(first.getErrors()).extracting(ExpenseImportErrorDTO::getMessage)
+                .containsExactly(AppConstant.CATEGORY_REQUIRED);
+        assertThat(repository.count()).isEqualTo(0L);
+    }
+
+    @Test
+    void rowsWithoutACategoryGetThePredictedOne() {
+        importService.importExpenses(ImportFormat.CSV, new StringReader(
+                "Date,Description,Amount,Category\n"
+                        + "2026-01-02,Starbucks coffee,4.50,Food\n"
+                        + "2026-01-03,Uber ride to the airport,32.00,Travel\n"));
+
+        ExpenseImportResultDTO result = importService.importExpenses(ImportFormat.NDJSON, new StringReader(
+                "{\"description\":\"Coffee and bagel\",\"amount\":6.25}\n"));
+
+        assertThat(result.getImported()).isEqualTo(1L);
+        assertThat(repository.findAll()).extracting(Expense::getCategory)
+                .containsExactlyInAnyOrder("Food", "Travel", "Food");
+    }
+}
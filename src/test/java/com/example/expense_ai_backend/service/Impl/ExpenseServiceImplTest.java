@@ -0,0 +1,83 @@
+package com.example.expense_ai_backend.service.Impl;
+
+import com.example.expense_ai_backend.aggregate.CategoryAggregateStore;
+import com.example.expense_ai_backend.aggregate.CategoryQuantileStore;
+import com.example.expense_ai_backend.aggregate.ExpenseRollupStore;
+import com.example.expense_ai_backend.anomaly.ExpenseAnomalyDetector;
+import com.example.expense_ai_backend.cache.ExpenseResultCache;
+import com.example.expense_ai_backend.categorize.ExpenseCategorizer;
+import com.example.expense_ai_backend.constant.AppConstant;
+import com.example.expense_ai_backend.dto.ExpensePageDTO;
+import com.example.expense_ai_backend.dto.ExpensePageRequestDTO;
+import com.example.expense_ai_backend.dto.ExpenseSearchRequestDTO;
+import com.example.expense_ai_backend.exception.BadRequestException;
+import com.example.expense_ai_backend.feed.ExpenseChangeFeed;
+import com.example.expense_ai_backend.feed.FeedOverflowPolicy;
+import com.example.expense_ai_backend.idempotency.IdempotencyCache;
+import com.example.expense_ai_backend.model.Expense;
+import com.example.expense_ai_backend.repository.ExpenseRepository;
+import com.example.expense_ai_backend.search.ExpenseSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseServiceImplTest {
+
+    private final ExpenseRepository repository = new ExpenseRepository();
+
+    private final ExpenseServiceImpl expenseService = new ExpenseServiceImpl(repository, new CategoryAggregateStore(),
+            new ExpenseRollupStore(), new CategoryQuantileStore(0.01, 2048), new ExpenseSearchIndex(),
+            new ExpenseCategorizer(), new ExpenseAnomalyDetector(3.0, 5),
+            new ExpenseChangeFeed(16, 16, FeedOverflowPolicy.DROP, Duration.ofHours(1), Duration.ofMinutes(1), 1, false),
+            new ExpenseResultCache(repository.changeCounters(), 1 << 20),
+            new IdempotencyCache(16, Duration.ofMinutes(1), Duration.ofSeconds(5)));
+
+    @Test
+    void listingsWithoutALimitReturnADefaultSizedPageAndACursor() {
+        int rows = AppConstant.DEFAULT_PAGE_SIZE + 5;
+        for (int i = 0; i < rows; i++) {
+            repository.save(new Expense(null, "lunch " + i, new BigDecimal("10.00"), "Food",
+                    LocalDateTime.of(2026, 3, 1, 12, 0).plusMinutes(i), "alice"));
+        }
+
+        ExpensePageDTO first = expenseService.getExpensePage("alice", null, new ExpensePageRequestDTO());
+        assertThat(first.getExpenses()).hasSize(AppConstant.DEFAULT_PAGE_SIZE);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        ExpensePageRequestDTO next = new ExpensePageRequestDTO();
+        next.setAfter(first.getNextCursor());
+        ExpensePageDTO last = expenseService.getExpensePage("alice", null, next);
+        assertThat(last.getExpenses()).hasSize(5);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchRejectsOneCharacterTerms() {
+        ExpenseSearchRequestDTO searchRequest = new ExpenseSearchRequestDTO();
+        searchRequest.setQ("coffee a");
+
+        assertThatThrownBy(() -> expenseService.searchExpenses(searchRequest))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(AppConstant.SEARCH_TERM_TOO_SHORT);
+    }
+
+    @Test
+    void aPageThatExactlyFitsTheLimitHasNoCursor() {
+        for (int i = 0; i < 3; i++) {
+            repository.save(new Expense(null, "taxi " + i, new BigDecimal("20.00"), "Travel",
+                    LocalDateTime.of(2026, 3, 2, 9, 0).plusMinutes(i), "bob"));
+        }
+        ExpensePageRequestDTO pageRequest = new ExpensePageRequestDTO();
+        pageRequest.setLimit(3);
+
+        ExpensePageDTO page = expenseService.getExpensePage("bob", null, pageRequest);
+
+        assertThat(page.getExpenses()).hasSize(3);
+        assertThat(page.getNextCursor()).isNull();
+    }
+}